@@ -0,0 +1,91 @@
+package Marisol_Mancera.fitpet.benchmark;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import Marisol_Mancera.fitpet.FitPetApplication;
+import Marisol_Mancera.fitpet.security.JwsTokenIssuer;
+import Marisol_Mancera.fitpet.security.SigningKeyRing;
+
+/**
+ * JWT con los beans reales de JwtConfig (perfil h2, clave jwt.key de application.properties).
+ * - issue: JwsTokenIssuer, lo que cuesta emitir el access token en login/refresh.
+ * - decode: el JwtDecoder del resource server (métricas + revocación + caché de verificados)
+ *   con el mismo token en cada llamada, como en las peticiones de un cliente con sesión.
+ * - verify: el decoder del SigningKeyRing sin caché (primera petición con un token nuevo).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtRoundTripBenchmark {
+
+    private static final String SUBJECT = "pajaritopio@example.com";
+
+    private ConfigurableApplicationContext context;
+    private JwsTokenIssuer issuer;
+    private JwtDecoder decoder;
+    private JwtDecoder verifier;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(FitPetApplication.class)
+                .profiles("h2")
+                .properties(
+                        "server.port=0",
+                        "spring.docker.compose.enabled=false",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=warn",
+                        "logging.level.org.springframework.web=warn")
+                .run();
+        issuer = context.getBean(JwsTokenIssuer.class);
+        decoder = context.getBean(JwtDecoder.class);
+        verifier = context.getBean(SigningKeyRing.class).jwtDecoder();
+
+        Instant now = Instant.now();
+        // el token a verificar debe seguir vivo durante toda la ejecución
+        token = issuer.issue(SUBJECT, 42L, "USER", now, now.plus(1, ChronoUnit.DAYS));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String issue() {
+        Instant now = Instant.now();
+        return issuer.issue(SUBJECT, 42L, "USER", now, now.plus(2, ChronoUnit.HOURS));
+    }
+
+    @Benchmark
+    public Jwt decode() {
+        return decoder.decode(token);
+    }
+
+    @Benchmark
+    public Jwt verify() {
+        return verifier.decode(token);
+    }
+}
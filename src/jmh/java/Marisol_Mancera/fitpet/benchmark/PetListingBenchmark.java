@@ -0,0 +1,104 @@
+package Marisol_Mancera.fitpet.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import Marisol_Mancera.fitpet.FitPetApplication;
+import Marisol_Mancera.fitpet.pet.PetReadRepository;
+import Marisol_Mancera.fitpet.pet.dto.PetDTOResponse;
+import Marisol_Mancera.fitpet.user.UserEntity;
+import Marisol_Mancera.fitpet.user.UserRepository;
+
+/**
+ * Listado de mascotas de un dueño con muchas filas por PetReadRepository.findPage (JDBC -> DTO),
+ * sin filtro y filtrando por especie (índices (owner_id, id_pet) y (owner_id, species, id_pet)).
+ * Arranca la aplicación con el perfil h2 y siembra un dueño con 'ownerPets' mascotas.
+ * Los bytes asignados por operación salen del profiler de GC (incluido en jmh.args por defecto):
+ *   mvn -Pjmh -DskipTests verify -Djmh.args="PetListingBenchmark -prof gc -rf json -rff target/jmh-listing.json"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PetListingBenchmark {
+
+    private static final int OWNER_PETS = 5_000;
+
+    @Param({"50", "200", "5000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private PetReadRepository petReadRepository;
+    private Long ownerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(FitPetApplication.class)
+                .profiles("h2")
+                .properties(
+                        "server.port=0",
+                        "spring.docker.compose.enabled=false",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=warn",
+                        "logging.level.org.springframework.web=warn")
+                .run();
+        petReadRepository = context.getBean(PetReadRepository.class);
+
+        UserEntity owner = context.getBean(UserRepository.class).save(UserEntity.builder()
+                .username("criadora@example.com")
+                .password("any")
+                .roles(Set.of())
+                .build());
+        ownerId = owner.getId();
+
+        List<Object[]> batch = new ArrayList<>(OWNER_PETS);
+        for (int i = 0; i < OWNER_PETS; i++) {
+            batch.add(new Object[] {ownerId, "Pet " + i, i % 2 == 0 ? "Dog" : "Cat", "Mestizo", "Female",
+                    Date.valueOf(LocalDate.now().minusYears(1 + i % 10)), BigDecimal.valueOf(5 + i % 30)});
+        }
+        context.getBean(JdbcTemplate.class).batchUpdate(
+                "insert into pets (owner_id, name, species, breed, sex, birth_date, weight_kg) values (?, ?, ?, ?, ?, ?, ?)",
+                batch);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /** Primera página de todas las mascotas del dueño. */
+    @Benchmark
+    public List<PetDTOResponse> findPage() {
+        return petReadRepository.findPage(ownerId, null, 0L, rows);
+    }
+
+    /** Primera página filtrando por especie (la mitad de las mascotas sembradas). */
+    @Benchmark
+    public List<PetDTOResponse> findPageBySpecies() {
+        return petReadRepository.findPage(ownerId, "Dog", 0L, rows);
+    }
+}
@@ -0,0 +1,86 @@
+package Marisol_Mancera.fitpet.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import Marisol_Mancera.fitpet.pet.PetEntity;
+import Marisol_Mancera.fitpet.pet.dto.PetDTOResponse;
+import Marisol_Mancera.fitpet.pet.mapper.PetMapper;
+import Marisol_Mancera.fitpet.user.UserEntity;
+
+/**
+ * Respuesta de GET /api/v1/pets sin BD: PetMapper.toDTO sobre entidades ya cargadas
+ * y serialización Jackson de la lista de PetDTOResponse (ObjectMapper con la configuración
+ * por defecto de Spring Boot: fechas ISO, módulos java.time).
+ * 'rows' cubre una mascota suelta, la página por defecto y la máxima (pets.page.*).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PetSerializationBenchmark {
+
+    @Param({"1", "50", "200"})
+    public int rows;
+
+    private ObjectMapper objectMapper;
+    private List<PetEntity> entities;
+    private List<PetDTOResponse> dtos;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        UserEntity owner = UserEntity.builder().id(7L).username("criadora@example.com").password("any")
+                .roles(Set.of()).build();
+        entities = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            entities.add(PetEntity.builder()
+                    .id((long) i + 1)
+                    .owner(owner)
+                    .name("Pet " + i)
+                    .species(i % 2 == 0 ? "Dog" : "Cat")
+                    .breed("Mestizo")
+                    .sex("Female")
+                    .birthDate(LocalDate.of(2020, 1, 1).plusDays(i))
+                    .weightKg(BigDecimal.valueOf(500 + i, 2))
+                    .build());
+        }
+        dtos = entities.stream().map(PetMapper::toDTO).toList();
+    }
+
+    @Benchmark
+    public List<PetDTOResponse> toDto() {
+        List<PetDTOResponse> mapped = new ArrayList<>(entities.size());
+        for (PetEntity entity : entities) {
+            mapped.add(PetMapper.toDTO(entity));
+        }
+        return mapped;
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+}
@@ -0,0 +1,123 @@
+package Marisol_Mancera.fitpet.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.DirectFieldBindingResult;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import Marisol_Mancera.fitpet.common.error.GlobalExceptionHandler;
+import Marisol_Mancera.fitpet.common.error.GlobalExceptionHandler.Problem;
+import Marisol_Mancera.fitpet.dtos.LoginRequest;
+import Marisol_Mancera.fitpet.dtos.RegisterRequest;
+import Marisol_Mancera.fitpet.pet.dto.PetCreateRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+/**
+ * Entrada de las peticiones antes de tocar BD: normalización del email de login,
+ * Bean Validation de RegisterRequest (dos @Pattern sobre la contraseña) y PetCreateRequest,
+ * y la respuesta 400 de GlobalExceptionHandler.handleValidation.
+ * - *Valid: cuerpo correcto (el caso habitual); *Invalid: todas las reglas fallan y se
+ *   construyen los mensajes (interpolación incluida).
+ * - handleValidation recibe la excepción ya construida: solo se mide la elección del mensaje.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private GlobalExceptionHandler exceptionHandler;
+
+    private LoginRequest login;
+    private RegisterRequest validRegister;
+    private RegisterRequest invalidRegister;
+    private PetCreateRequest validPet;
+    private PetCreateRequest invalidPet;
+    private MethodArgumentNotValidException registerViolations;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NoSuchMethodException {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        exceptionHandler = new GlobalExceptionHandler();
+
+        login = new LoginRequest("  Pajaritopio@Example.COM ", "Str0ng!Pass");
+        validRegister = new RegisterRequest("pajaritopio@example.com", "Str0ng!Pass");
+        invalidRegister = new RegisterRequest("no-es-un-correo", "short");
+        validPet = new PetCreateRequest("Pony", "Dog", "Beagle", "Female",
+                LocalDate.of(2022, 5, 1), new BigDecimal("12.40"));
+        invalidPet = new PetCreateRequest(" ", " ", " ", " ", LocalDate.now().plusDays(1), BigDecimal.ZERO);
+
+        // Mismo BindingResult que deja @Valid @RequestBody en el controlador
+        var bindingResult = new DirectFieldBindingResult(invalidRegister, "registerRequest");
+        new SpringValidatorAdapter(validator).validate(invalidRegister, bindingResult);
+        var parameter = new MethodParameter(
+                RequestValidationBenchmark.class.getDeclaredMethod("register", RegisterRequest.class), 0);
+        registerViolations = new MethodArgumentNotValidException(parameter, bindingResult);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public String normalizedEmail() {
+        return login.normalizedEmail();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<RegisterRequest>> registerValid() {
+        return validator.validate(validRegister);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<RegisterRequest>> registerInvalid() {
+        return validator.validate(invalidRegister);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<PetCreateRequest>> petCreateValid() {
+        return validator.validate(validPet);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<PetCreateRequest>> petCreateInvalid() {
+        return validator.validate(invalidPet);
+    }
+
+    @Benchmark
+    public ResponseEntity<Problem> handleValidation() {
+        return exceptionHandler.handleValidation(registerViolations);
+    }
+
+    /** Firma equivalente a la del endpoint de registro, solo para construir el MethodParameter. */
+    @SuppressWarnings("unused")
+    private static void register(RegisterRequest request) {
+    }
+}
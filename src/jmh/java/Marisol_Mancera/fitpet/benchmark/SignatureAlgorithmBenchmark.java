@@ -0,0 +1,81 @@
+package Marisol_Mancera.fitpet.benchmark;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import com.nimbusds.jose.JWSAlgorithm;
+
+import Marisol_Mancera.fitpet.security.JwsTokenIssuer;
+import Marisol_Mancera.fitpet.security.SigningKeyRing;
+
+/**
+ * Firma y verificación de nuestro token (sub, uid, jti, iat, exp, scope) con HS512, ES256 y EdDSA.
+ * - sign: JwsTokenIssuer con la clave del algoritmo (camino de login/refresh).
+ * - verify: decoder del SigningKeyRing sin caché (camino de un servicio que valida con JWKS).
+ * Throughput + SampleTime para tener ops/s y percentiles de latencia en la misma pasada:
+ *   mvn -Pjmh -DskipTests verify -Djmh.args="SignatureAlgorithmBenchmark -rf json -rff target/jmh-algorithms.json"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignatureAlgorithmBenchmark {
+
+    private static final String SUBJECT = "pajaritopio@example.com";
+
+    @Param({"HS512", "ES256", "EdDSA"})
+    public String algorithm;
+
+    private JwsTokenIssuer issuer;
+    private JwtDecoder decoder;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JWSAlgorithm alg = JWSAlgorithm.parse(algorithm);
+        SigningKeyRing.SigningKey key;
+        if (JWSAlgorithm.HS512.equals(alg)) {
+            byte[] secret = new byte[64];
+            new SecureRandom().nextBytes(secret);
+            key = SigningKeyRing.SigningKey.hmac("bench", secret, null);
+        } else {
+            key = SigningKeyRing.SigningKey.asymmetric("bench", alg, SigningKeyRing.generateKeyPair(alg), null);
+        }
+        issuer = new JwsTokenIssuer(key.signer());
+        decoder = new SigningKeyRing(Map.of("bench", key), "bench").jwtDecoder();
+
+        Instant now = Instant.now();
+        // el token a verificar debe seguir vivo durante toda la ejecución
+        token = issuer.issue(SUBJECT, 42L, "USER", now, now.plus(1, ChronoUnit.DAYS));
+    }
+
+    @Benchmark
+    public String sign() {
+        Instant now = Instant.now();
+        return issuer.issue(SUBJECT, 42L, "USER", now, now.plus(2, ChronoUnit.HOURS));
+    }
+
+    @Benchmark
+    public Jwt verify() {
+        return decoder.decode(token);
+    }
+}
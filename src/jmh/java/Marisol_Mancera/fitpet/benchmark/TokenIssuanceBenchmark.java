@@ -0,0 +1,81 @@
+package Marisol_Mancera.fitpet.benchmark;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+
+import Marisol_Mancera.fitpet.role.RoleEntity;
+import Marisol_Mancera.fitpet.security.JwsTokenIssuer;
+
+/**
+ * Emisión de JWT en login: NimbusJwtEncoder (camino anterior de JwtTokenService)
+ * frente a JwsTokenIssuer. Mismo sujeto, mismos roles, misma clave.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenIssuanceBenchmark {
+
+    private static final String SUBJECT = "pajaritopio@example.com";
+
+    private JwtEncoder nimbusEncoder;
+    private JwsTokenIssuer issuer;
+    private Set<RoleEntity> roles;
+
+    @Setup
+    public void setUp() {
+        byte[] key = new byte[64];
+        new SecureRandom().nextBytes(key);
+        nimbusEncoder = new NimbusJwtEncoder(new ImmutableSecret<>(key));
+        issuer = new JwsTokenIssuer(key);
+        roles = Set.of(RoleEntity.builder().id(1L).name("ROLE_USER").build());
+    }
+
+    @Benchmark
+    public String nimbusEncoder() {
+        String scope = roles.stream()
+                .map(RoleEntity::getName)
+                .map(roleName -> roleName.startsWith("ROLE_") ? roleName.substring(5) : roleName)
+                .collect(Collectors.joining(" "));
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject(SUBJECT)
+                .issuedAt(now)
+                .expiresAt(now.plus(2, ChronoUnit.HOURS))
+                .claim("scope", scope)
+                .build();
+        JwsHeader jws = JwsHeader.with(MacAlgorithm.HS512).build();
+        return nimbusEncoder.encode(JwtEncoderParameters.from(jws, claims)).getTokenValue();
+    }
+
+    @Benchmark
+    public String hs512Issuer() {
+        Instant now = Instant.now();
+        return issuer.issue(SUBJECT, issuer.scopeFor(roles), now, now.plus(2, ChronoUnit.HOURS));
+    }
+}
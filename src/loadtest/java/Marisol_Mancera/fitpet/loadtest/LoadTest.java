@@ -0,0 +1,398 @@
+package Marisol_Mancera.fitpet.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import Marisol_Mancera.fitpet.FitPetApplication;
+import Marisol_Mancera.fitpet.loadtest.LoadTestSettings.Operation;
+import Marisol_Mancera.fitpet.loadtest.Workload.VirtualUser;
+import Marisol_Mancera.fitpet.security.JwsTokenIssuer;
+
+/**
+ * Prueba de carga end-to-end dentro de la JVM: arranca FitPetApplication (perfil h2, H2 en modo
+ * MySQL con las migraciones de Flyway) en un puerto libre, siembra N usuarios con M mascotas y
+ * lanza el mix de peticiones HTTP reales a ritmo constante (bucle abierto).
+ * - Corrección de coordinated omission: la latencia se mide desde el instante en que la petición
+ *   debía salir según el ritmo, no desde que salió; si el servidor se atasca, la cola cuenta.
+ *   También se guarda el tiempo de servicio (desde el envío real) para comparar.
+ * - Informe por operación: percentiles (HdrHistogram), errores y rps conseguidas (respuestas
+ *   correctas que terminan dentro de la ventana medida; las descartadas y los errores no cuentan);
+ *   distribuciones completas en target/loadtest/*.hgrm.
+ * - Falla (exit 1 -> falla el build del perfil) si las rps caen o el p99 sube más de
+ *   loadtest.tolerance respecto a la línea base, o si los errores pasan de loadtest.max-error-rate.
+ *   mvn -Ploadtest -DskipTests verify -Dloadtest.args="-Dloadtest.rate=400 -Dloadtest.duration=PT2M"
+ * - La línea base se mide en la máquina de referencia con -Dloadtest.write-baseline=true y guarda
+ *   esa máquina en la cabecera; sin fichero solo se comprueba la tasa de errores.
+ */
+public final class LoadTest {
+
+    // Latencias en microsegundos, hasta 1 minuto con 3 cifras significativas
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        ConfigurableApplicationContext context = start();
+        boolean passed;
+        try {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            List<VirtualUser> users = seed(context, settings);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            Results results = run(new Workload(client, baseUrl, users), settings);
+            passed = report(results, settings);
+        } finally {
+            context.close();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(FitPetApplication.class)
+                .profiles("h2")
+                .properties(
+                        "server.port=0",
+                        "spring.docker.compose.enabled=false",
+                        "spring.h2.console.enabled=false",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=warn",
+                        "logging.level.org.springframework.web=warn",
+                        // todo el tráfico sale de 127.0.0.1: el limitador por IP cortaría los logins
+                        "auth.rate-limit.enabled=false")
+                .run();
+    }
+
+    /**
+     * Usuarios y mascotas por JDBC en lotes (el hash BCrypt se calcula una vez para todos).
+     * Los tokens se emiten con JwsTokenIssuer, igual que en el login, sin pasar por BCrypt N veces.
+     */
+    private static List<VirtualUser> seed(ConfigurableApplicationContext context, LoadTestSettings settings) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        String hash = context.getBean(PasswordEncoder.class).encode(Workload.PASSWORD);
+        Long roleId = jdbc.queryForObject("select id_role from roles where name = 'ROLE_USER'", Long.class);
+
+        List<Object[]> userRows = new ArrayList<>(settings.users());
+        for (int u = 0; u < settings.users(); u++) {
+            userRows.add(new Object[] {"load" + u + "@example.com", hash});
+        }
+        jdbc.batchUpdate("insert into users (username, password, account_non_expired, account_non_locked, "
+                + "credentials_non_expired, enabled) values (?, ?, true, true, true, true)", userRows);
+        jdbc.update("insert into roles_users (user_id, role_id) select id_user, ? from users "
+                + "where username like 'load%@example.com'", roleId);
+
+        Map<String, Long> ids = new HashMap<>();
+        jdbc.query("select id_user, username from users where username like 'load%@example.com'",
+                (RowCallbackHandler) rs -> ids.put(rs.getString("username"), rs.getLong("id_user")));
+
+        List<Object[]> petRows = new ArrayList<>(settings.users() * settings.petsPerUser());
+        for (Long ownerId : ids.values()) {
+            for (int p = 0; p < settings.petsPerUser(); p++) {
+                petRows.add(new Object[] {ownerId, "Seed " + p, p % 2 == 0 ? "Dog" : "Cat", "Mestizo", "Female",
+                        Date.valueOf(LocalDate.now().minusYears(1 + p % 10)), 5 + p % 30});
+            }
+        }
+        jdbc.batchUpdate("insert into pets (owner_id, name, species, breed, sex, birth_date, weight_kg) "
+                + "values (?, ?, ?, ?, ?, ?, ?)", petRows);
+
+        JwsTokenIssuer issuer = context.getBean(JwsTokenIssuer.class);
+        Instant now = Instant.now();
+        // el token tiene que durar toda la prueba
+        Instant expiresAt = now.plus(settings.warmup()).plus(settings.duration()).plus(Duration.ofHours(1));
+        List<VirtualUser> users = new ArrayList<>(ids.size());
+        ids.forEach((email, id) -> {
+            var user = new VirtualUser(email, "Bearer " + issuer.issue(email, id, "USER", now, expiresAt));
+            jdbc.queryForList("select id_pet from pets where owner_id = ? order by id_pet", Long.class, id)
+                    .forEach(user.pets()::offerLast);
+            users.add(user);
+        });
+        return users;
+    }
+
+    /**
+     * Bucle abierto: la petición i debe salir en start + i/rate, pase lo que pase con las anteriores.
+     * Solo se mide lo que debía salir después del calentamiento.
+     */
+    private static Results run(Workload workload, LoadTestSettings settings) throws InterruptedException {
+        var inFlight = new AtomicInteger();
+        var mix = new Mix(settings.mix());
+
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / settings.rate());
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+        var results = new Results(measureFrom, end);
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * interval;
+            if (intended >= end) {
+                break;
+            }
+            long now;
+            while ((now = System.nanoTime()) < intended) {
+                LockSupport.parkNanos(intended - now);
+            }
+            Operation operation = mix.next();
+            boolean measured = intended >= measureFrom;
+            if (inFlight.incrementAndGet() > settings.maxInFlight()) {
+                inFlight.decrementAndGet();
+                if (measured) {
+                    results.dropped(operation);
+                }
+                continue;
+            }
+            long sentAt = System.nanoTime();
+            workload.send(operation, workload.randomUser()).whenComplete((outcome, error) -> {
+                long done = System.nanoTime();
+                inFlight.decrementAndGet();
+                if (measured) {
+                    results.record(outcome != null ? outcome.operation() : operation,
+                            intended, sentAt, done, outcome != null && outcome.ok());
+                }
+            });
+        }
+
+        long drainUntil = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            Thread.sleep(10);
+        }
+        return results;
+    }
+
+    private static boolean report(Results results, LoadTestSettings settings) throws IOException {
+        PrintStream out = System.out;
+        Files.createDirectories(settings.reportDir());
+        out.printf(Locale.ROOT, "%nFitPet load test: %d users x %d pets, offered %.0f req/s, %ds measured (%ds warmup)%n",
+                settings.users(), settings.petsPerUser(), settings.rate(),
+                settings.duration().toSeconds(), settings.warmup().toSeconds());
+        out.printf(Locale.ROOT, "%-8s %9s %8s %8s %9s %9s %9s %9s %9s %10s%n", "op", "count", "errors", "rps",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99 ms");
+
+        for (var entry : results.byOperation.entrySet()) {
+            OperationStats stats = entry.getValue();
+            if (stats.count() > 0) {
+                printRow(out, entry.getKey().name().toLowerCase(Locale.ROOT), stats, results.seconds());
+                writeDistribution(settings.reportDir().resolve(entry.getKey().name().toLowerCase(Locale.ROOT) + ".hgrm"),
+                        stats.response);
+            }
+        }
+        OperationStats total = results.total();
+        printRow(out, "total", total, results.seconds());
+        writeDistribution(settings.reportDir().resolve("total.hgrm"), total.response);
+
+        double rps = total.completed() / results.seconds();
+        double p99 = total.response.getValueAtPercentile(99) / 1000.0;
+        double errorRate = total.count() == 0 ? 1 : (double) total.errors() / total.count();
+
+        if (settings.writeBaseline()) {
+            writeBaseline(settings, rps, p99);
+            out.printf(Locale.ROOT, "Baseline written to %s%n", settings.baseline());
+            return true;
+        }
+        return check(settings, rps, p99, errorRate, out);
+    }
+
+    private static boolean check(LoadTestSettings settings, double rps, double p99, double errorRate,
+            PrintStream out) throws IOException {
+        boolean passed = true;
+        if (errorRate > settings.maxErrorRate()) {
+            out.printf(Locale.ROOT, "FAIL error rate %.2f%% > %.2f%%%n", errorRate * 100, settings.maxErrorRate() * 100);
+            passed = false;
+        }
+        if (!Files.exists(settings.baseline())) {
+            out.printf("No baseline at %s (write one with -Dloadtest.write-baseline=true)%n", settings.baseline());
+            return passed;
+        }
+        Properties baseline = new Properties();
+        try (Reader reader = Files.newBufferedReader(settings.baseline())) {
+            baseline.load(reader);
+        }
+        double baselineRate = Double.parseDouble(baseline.getProperty("rate"));
+        if (Math.abs(baselineRate - settings.rate()) > 0.5) {
+            // las rps conseguidas solo son comparables con el mismo ritmo ofrecido
+            out.printf(Locale.ROOT, "Baseline measured at %.0f req/s, this run offered %.0f: comparison skipped%n",
+                    baselineRate, settings.rate());
+            return passed;
+        }
+        double minRps = Double.parseDouble(baseline.getProperty("throughput.rps")) * (1 - settings.tolerance());
+        double maxP99 = Double.parseDouble(baseline.getProperty("latency.p99.ms")) * (1 + settings.tolerance());
+        if (rps < minRps) {
+            out.printf(Locale.ROOT, "FAIL throughput %.1f req/s < %.1f (baseline - %.0f%%)%n",
+                    rps, minRps, settings.tolerance() * 100);
+            passed = false;
+        }
+        if (p99 > maxP99) {
+            out.printf(Locale.ROOT, "FAIL p99 %.1f ms > %.1f ms (baseline + %.0f%%)%n",
+                    p99, maxP99, settings.tolerance() * 100);
+            passed = false;
+        }
+        if (passed) {
+            out.printf(Locale.ROOT, "PASS %.1f req/s, p99 %.1f ms (baseline %s)%n", rps, p99, settings.baseline());
+        }
+        return passed;
+    }
+
+    private static void writeBaseline(LoadTestSettings settings, double rps, double p99) throws IOException {
+        Properties baseline = new Properties();
+        baseline.setProperty("rate", String.format(Locale.ROOT, "%.0f", settings.rate()));
+        baseline.setProperty("throughput.rps", String.format(Locale.ROOT, "%.1f", rps));
+        baseline.setProperty("latency.p99.ms", String.format(Locale.ROOT, "%.1f", p99));
+        Files.createDirectories(settings.baseline().toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(settings.baseline())) {
+            baseline.store(writer, "FitPet load test baseline (" + settings.users() + " users x "
+                    + settings.petsPerUser() + " pets, mix " + settings.mix() + ")\n"
+                    + "Measured on " + Runtime.getRuntime().availableProcessors() + " CPUs, "
+                    + Runtime.getRuntime().maxMemory() / (1024 * 1024) + " MB max heap, Java "
+                    + System.getProperty("java.version") + ", " + System.getProperty("os.name") + " "
+                    + System.getProperty("os.arch") + "; warmup " + settings.warmup() + ", measured "
+                    + settings.duration());
+        }
+    }
+
+    private static void printRow(PrintStream out, String name, OperationStats stats, double seconds) {
+        Histogram h = stats.response;
+        out.printf(Locale.ROOT, "%-8s %9d %8d %8.1f %9.2f %9.2f %9.2f %9.2f %9.2f %10.2f%n",
+                name, stats.count(), stats.errors(), stats.completed() / seconds,
+                h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(90) / 1000.0,
+                h.getValueAtPercentile(99) / 1000.0, h.getValueAtPercentile(99.9) / 1000.0,
+                h.getMaxValue() / 1000.0, stats.service.getValueAtPercentile(99) / 1000.0);
+    }
+
+    private static void writeDistribution(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    /** Elección ponderada de la operación según loadtest.mix. */
+    private static final class Mix {
+        private final Operation[] operations;
+        private final int[] cumulative;
+
+        Mix(Map<Operation, Integer> weights) {
+            operations = weights.keySet().toArray(Operation[]::new);
+            cumulative = new int[operations.length];
+            int sum = 0;
+            for (int i = 0; i < operations.length; i++) {
+                sum += weights.get(operations[i]);
+                cumulative[i] = sum;
+            }
+        }
+
+        Operation next() {
+            int pick = ThreadLocalRandom.current().nextInt(cumulative[cumulative.length - 1]);
+            for (int i = 0; i < cumulative.length; i++) {
+                if (pick < cumulative[i]) {
+                    return operations[i];
+                }
+            }
+            return operations[operations.length - 1];
+        }
+    }
+
+    /** Histogramas de respuesta (desde el instante previsto) y de servicio (desde el envío). */
+    private static final class OperationStats {
+        final Histogram response = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final Histogram service = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+        final LongAdder completed = new LongAdder();
+
+        long count() {
+            return response.getTotalCount();
+        }
+
+        long errors() {
+            return errors.sum();
+        }
+
+        /** Respuestas correctas terminadas dentro de la ventana medida: la base de las rps. */
+        long completed() {
+            return completed.sum();
+        }
+    }
+
+    private static final class Results {
+        final Map<Operation, OperationStats> byOperation = new EnumMap<>(Operation.class);
+        private final long measureFrom;
+        private final long measureUntil;
+
+        Results(long measureFrom, long measureUntil) {
+            this.measureFrom = measureFrom;
+            this.measureUntil = measureUntil;
+            for (Operation operation : Operation.values()) {
+                byOperation.put(operation, new OperationStats());
+            }
+        }
+
+        void record(Operation operation, long intended, long sentAt, long done, boolean ok) {
+            OperationStats stats = byOperation.get(operation);
+            stats.response.recordValue(micros(done - intended));
+            stats.service.recordValue(micros(done - sentAt));
+            if (!ok) {
+                stats.errors.increment();
+            } else if (done <= measureUntil) {
+                stats.completed.increment();
+            }
+        }
+
+        /** Descartada por exceso de peticiones en vuelo: error y latencia máxima medible. */
+        void dropped(Operation operation) {
+            OperationStats stats = byOperation.get(operation);
+            stats.response.recordValue(HIGHEST_TRACKABLE_MICROS);
+            stats.service.recordValue(HIGHEST_TRACKABLE_MICROS);
+            stats.errors.increment();
+        }
+
+        OperationStats total() {
+            OperationStats total = new OperationStats();
+            byOperation.values().forEach(stats -> {
+                total.response.add(stats.response);
+                total.service.add(stats.service);
+                total.errors.add(stats.errors());
+                total.completed.add(stats.completed());
+            });
+            return total;
+        }
+
+        double seconds() {
+            return (measureUntil - measureFrom) / 1e9;
+        }
+
+        private static long micros(long nanos) {
+            return Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        }
+    }
+}
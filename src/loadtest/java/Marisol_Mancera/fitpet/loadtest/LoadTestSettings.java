@@ -0,0 +1,79 @@
+package Marisol_Mancera.fitpet.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parámetros de la prueba de carga, leídos de propiedades de sistema (-Dloadtest.*).
+ * - users / pets-per-user: datos sembrados (N usuarios, M mascotas cada uno).
+ * - rate: peticiones por segundo ofrecidas (bucle abierto: no depende de lo que tarde el servidor).
+ * - warmup / duration: calentamiento (no se mide) y ventana medida.
+ * - mix: pesos por operación, p.ej. "login=5,list=60,create=15,update=15,delete=5".
+ * - max-in-flight: peticiones pendientes a partir de las cuales se descartan (y cuentan como error).
+ * - baseline / tolerance / max-error-rate: comparación con la línea base; write-baseline la reescribe.
+ */
+record LoadTestSettings(
+        int users,
+        int petsPerUser,
+        double rate,
+        Duration warmup,
+        Duration duration,
+        Map<Operation, Integer> mix,
+        int maxInFlight,
+        Path baseline,
+        double tolerance,
+        double maxErrorRate,
+        boolean writeBaseline,
+        Path reportDir) {
+
+    static final String DEFAULT_MIX = "login=5,list=60,create=15,update=15,delete=5";
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.users", 50),
+                Integer.getInteger("loadtest.pets-per-user", 20),
+                Double.parseDouble(System.getProperty("loadtest.rate", "200")),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT15S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+                parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)),
+                Integer.getInteger("loadtest.max-in-flight", 2_000),
+                Path.of(System.getProperty("loadtest.baseline", "src/loadtest/resources/loadtest-baseline.properties")),
+                Double.parseDouble(System.getProperty("loadtest.tolerance", "0.10")),
+                Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01")),
+                Boolean.getBoolean("loadtest.write-baseline"),
+                Path.of(System.getProperty("loadtest.report-dir", "target/loadtest")));
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("loadtest.mix: expected op=weight, got '" + part + "'");
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("loadtest.mix: negative weight for " + pair[0]);
+            }
+            weights.put(Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("loadtest.mix: all weights are zero");
+        }
+        return weights;
+    }
+
+    /** Operaciones del mix, con el status que se considera éxito. */
+    enum Operation {
+        LOGIN(201), LIST(200), CREATE(201), UPDATE(200), DELETE(204);
+
+        final int expectedStatus;
+
+        Operation(int expectedStatus) {
+            this.expectedStatus = expectedStatus;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package Marisol_Mancera.fitpet.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+
+import Marisol_Mancera.fitpet.loadtest.LoadTestSettings.Operation;
+
+/**
+ * Peticiones HTTP reales del mix contra la aplicación arrancada.
+ * - Cada usuario virtual tiene su Bearer y la cola de ids de sus mascotas.
+ * - update/delete sacan el id de la cola mientras la petición está en vuelo: dos operaciones
+ *   nunca pisan la misma mascota, así que un 404/412 es un error de verdad.
+ * - Sin mascotas que tocar, update/delete se convierten en create (se mide como create).
+ */
+final class Workload {
+
+    static final String PASSWORD = "Str0ng!Pass";
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final List<VirtualUser> users;
+
+    Workload(HttpClient client, String baseUrl, List<VirtualUser> users) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.users = users;
+    }
+
+    /** Usuario sembrado: credenciales, token y mascotas propias. */
+    record VirtualUser(String email, String bearer, Deque<Long> pets) {
+        VirtualUser(String email, String bearer) {
+            this(email, bearer, new ConcurrentLinkedDeque<>());
+        }
+    }
+
+    /** Resultado de una petición: la operación realmente ejecutada y su status. */
+    record Outcome(Operation operation, int status) {
+        boolean ok() {
+            return status == operation.expectedStatus;
+        }
+    }
+
+    VirtualUser randomUser() {
+        return users.get(ThreadLocalRandom.current().nextInt(users.size()));
+    }
+
+    CompletableFuture<Outcome> send(Operation operation, VirtualUser user) {
+        return switch (operation) {
+            case LOGIN -> login(user);
+            case LIST -> list(user);
+            case CREATE -> create(user);
+            case UPDATE -> {
+                Long id = user.pets().pollFirst();
+                yield id == null ? create(user) : update(user, id);
+            }
+            case DELETE -> {
+                Long id = user.pets().pollFirst();
+                yield id == null ? create(user) : delete(user, id);
+            }
+        };
+    }
+
+    private CompletableFuture<Outcome> login(VirtualUser user) {
+        String body = "{\"email\":\"%s\",\"password\":\"%s\"}".formatted(user.email(), PASSWORD);
+        return exchange(Operation.LOGIN, json("/api/v1/auth/login").POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private CompletableFuture<Outcome> list(VirtualUser user) {
+        return exchange(Operation.LIST, authorized(user, "/api/v1/pets?limit=50").GET());
+    }
+
+    private CompletableFuture<Outcome> create(VirtualUser user) {
+        var request = authorized(user, "/api/v1/pets")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(petJson("Load")))
+                .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> {
+                    response.headers().firstValue("Location")
+                            .map(location -> Long.valueOf(location.substring(location.lastIndexOf('/') + 1)))
+                            .ifPresent(user.pets()::offerLast);
+                    return new Outcome(Operation.CREATE, response.statusCode());
+                });
+    }
+
+    private CompletableFuture<Outcome> update(VirtualUser user, Long id) {
+        var request = authorized(user, "/api/v1/pets/" + id)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(petJson("Updated")));
+        // la mascota vuelve a la cola al terminar, haya ido bien o no
+        return exchange(Operation.UPDATE, request).whenComplete((outcome, error) -> user.pets().offerLast(id));
+    }
+
+    private CompletableFuture<Outcome> delete(VirtualUser user, Long id) {
+        return exchange(Operation.DELETE, authorized(user, "/api/v1/pets/" + id).DELETE());
+    }
+
+    private CompletableFuture<Outcome> exchange(Operation operation, HttpRequest.Builder request) {
+        return client.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> new Outcome(operation, response.statusCode()));
+    }
+
+    private HttpRequest.Builder json(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+    }
+
+    private HttpRequest.Builder authorized(VirtualUser user, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", user.bearer());
+    }
+
+    private static String petJson(String name) {
+        int n = ThreadLocalRandom.current().nextInt(1_000);
+        return """
+                {"name":"%s %d","species":"%s","breed":"Mestizo","sex":"Female","birthDate":"%s","weightKg":%d.5}"""
+                .formatted(name, n, n % 2 == 0 ? "Dog" : "Cat", LocalDate.now().minusYears(1 + n % 10), 1 + n % 40);
+    }
+}
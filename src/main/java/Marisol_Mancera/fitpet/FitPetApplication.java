@@ -2,8 +2,10 @@ package Marisol_Mancera.fitpet;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class FitPetApplication {
 
 	public static void main(String[] args) {
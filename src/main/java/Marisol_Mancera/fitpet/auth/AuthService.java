@@ -12,6 +12,7 @@ import Marisol_Mancera.fitpet.dtos.LoginRequest;
 import Marisol_Mancera.fitpet.dtos.RegisterRequest;
 import Marisol_Mancera.fitpet.role.RoleEntity;
 import Marisol_Mancera.fitpet.role.RoleRepository;
+import Marisol_Mancera.fitpet.security.PasswordRehashService;
 import Marisol_Mancera.fitpet.user.UserEntity;
 import Marisol_Mancera.fitpet.user.UserRepository;
 
@@ -21,7 +22,8 @@ import Marisol_Mancera.fitpet.user.UserRepository;
  * - Hashea la contraseña con BCrypt.
  * - Asigna ROLE_USER buscando por nombre (evita IDs mágicos).
  * - Lanza ConflictException (409) si el email ya está registrado.
- * - Método adicional para autenticar credenciales (login).
+ * - Método adicional para autenticar credenciales (login); tras un login correcto
+ *   actualiza el hash si está fuera de política (PasswordRehashService).
  */
 @Service
 public class AuthService {
@@ -31,13 +33,16 @@ public class AuthService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PasswordRehashService passwordRehashService;
 
     public AuthService(UserRepository userRepository,
                        RoleRepository roleRepository,
-                       PasswordEncoder passwordEncoder) {
+                       PasswordEncoder passwordEncoder,
+                       PasswordRehashService passwordRehashService) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
+        this.passwordRehashService = passwordRehashService;
     }
 
     public AuthDTOResponse register(RegisterRequest request) {
@@ -76,6 +81,7 @@ public class AuthService {
         if (!passwordEncoder.matches(request.password(), user.getPassword())) { //compara password con case sensitivity
             throw new org.springframework.security.authentication.BadCredentialsException("Invalid credentials"); // ADD: 401
         }
+        passwordRehashService.rehashIfNeeded(user, request.password());
 
         //respuesta mínima (token vendrá en otro micro-paso). Mantengo estructura usada en register para no romper DTO.
         return new AuthDTOResponse(
@@ -1,12 +1,12 @@
 package Marisol_Mancera.fitpet.auth;
 
-import java.time.Duration;
 import java.util.Locale;
 import java.util.Set;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -14,11 +14,13 @@ import org.springframework.web.bind.annotation.RestController;
 
 import Marisol_Mancera.fitpet.common.error.ConflictException;
 import Marisol_Mancera.fitpet.dtos.LoginRequest;
+import Marisol_Mancera.fitpet.dtos.RefreshRequest;
 import Marisol_Mancera.fitpet.dtos.RegisterRequest;
 import Marisol_Mancera.fitpet.dtos.TokenResponse;
 import Marisol_Mancera.fitpet.role.RoleEntity;
 import Marisol_Mancera.fitpet.role.RoleRepository;
 import Marisol_Mancera.fitpet.security.JwtTokenService;
+import Marisol_Mancera.fitpet.security.OwnerPrincipal;
 import Marisol_Mancera.fitpet.user.UserEntity;
 import Marisol_Mancera.fitpet.user.UserRepository;
 import jakarta.validation.Valid;
@@ -29,8 +31,12 @@ import lombok.RequiredArgsConstructor;
  * Rutas:
  *  - POST /api/v1/auth/token (deprecado, usar /login)
  *  - POST /api/v1/auth/login (recomendado)
+ *  - POST /api/v1/auth/refresh (rota el refresh token y emite un access token nuevo)
+ *  - POST /api/v1/auth/logout (revoca el access token actual y, si se envía, su refresh token)
+ *  - POST /api/v1/auth/revoke-all (revoca todas las sesiones del usuario)
  *  - POST /api/v1/auth/registro
- * Seguridad: endpoints públicos (permitAll) configurados en SecurityConfig.
+ * Seguridad: endpoints públicos (permitAll) configurados en SecurityConfig;
+ * logout y revoke-all requieren Bearer JWT.
  */
 @RestController
 @RequestMapping(path = "/${api-endpoint}/v1/auth")
@@ -42,6 +48,8 @@ public class AuthTokenController {
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuthService authService;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
 
     /**
      * HU2: Login con JWT
@@ -49,7 +57,7 @@ public class AuthTokenController {
      * 
      * Emite un JWT si las credenciales son válidas.
      * - Normaliza el email (trim + lowercase) para evitar fallos de coincidencia.
-     * - Responde 201 Created con { tokenType, expiresIn, accessToken }.
+     * - Responde 201 Created con { tokenType, expiresIn, accessToken, refreshToken }.
      * - Si las credenciales son inválidas, lanza BadCredentialsException (mapeada a 401).
      * 
      * @param request LoginRequest con email y password
@@ -60,15 +68,12 @@ public class AuthTokenController {
         // Normalizar email
         String normalizedEmail = request.normalizedEmail();
         
-        // Generar JWT usando JwtTokenService
-        String jwt = jwtTokenService.loginAndGenerateToken(normalizedEmail, request.password());
-        
-        // TTL coordinado con JwtTokenService (2 horas después del cambio)
-        long expiresInSeconds = Duration.ofHours(2).toSeconds();
-        
+        // Verificar credenciales y emitir access + refresh token
+        UserEntity user = jwtTokenService.authenticate(normalizedEmail, request.password());
+
         return ResponseEntity
                 .status(HttpStatus.CREATED)
-                .body(new TokenResponse("Bearer", expiresInSeconds, jwt));
+                .body(tokensFor(user, refreshTokenService.issue(user)));
     }
 
     /**
@@ -82,15 +87,32 @@ public class AuthTokenController {
         // Normalizamos el email recibido para búsquedas consistentes en BD
         String normalizedEmail = request.normalizedEmail();
 
-        // Delegamos en el servicio de dominio la autenticación y emisión del JWT
-        String jwt = jwtTokenService.loginAndGenerateToken(normalizedEmail, request.password());
+        // Delegamos en el servicio de dominio la autenticación
+        UserEntity user = jwtTokenService.authenticate(normalizedEmail, request.password());
+
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(tokensFor(user, refreshTokenService.issue(user)));
+    }
 
-        // TTL coordinado con el servicio (2 horas después del cambio)
-        long expiresInSeconds = Duration.ofHours(2).toSeconds();
+    /**
+     * Renovación de sesión
+     * Endpoint: POST /api/v1/auth/refresh
+     * 
+     * Canjea un refresh token por un access token nuevo sin volver a pasar por BCrypt.
+     * - El refresh token usado queda revocado y se devuelve uno nuevo (rotación).
+     * - Token desconocido, caducado o reutilizado: BadCredentialsException (401).
+     * 
+     * @param request RefreshRequest con el refresh token
+     * @return TokenResponse con el nuevo par de tokens
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<TokenResponse> refresh(@RequestBody @Valid RefreshRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.refreshToken());
 
         return ResponseEntity
                 .status(HttpStatus.CREATED)
-                .body(new TokenResponse("Bearer", expiresInSeconds, jwt));
+                .body(tokensFor(rotation.user(), rotation.refreshToken()));
     }
 
     /**
@@ -127,4 +149,41 @@ public class AuthTokenController {
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(new AuthDTOResponse("Registered", email, null));
     }
+
+    /**
+     * Logout
+     * Endpoint: POST /api/v1/auth/logout
+     * 
+     * Revoca el access token con el que se llama (deja de validar aunque no haya caducado).
+     * Si el cuerpo trae { refreshToken } del mismo usuario, también se revoca. Responde 204 No Content.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(JwtAuthenticationToken authentication,
+            @RequestBody(required = false) RefreshRequest request) {
+        tokenRevocationService.revoke(authentication.getToken());
+        if (request != null && request.refreshToken() != null && !request.refreshToken().isBlank()) {
+            OwnerPrincipal owner = (OwnerPrincipal) authentication.getPrincipal();
+            refreshTokenService.revoke(request.refreshToken(), owner.id());
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Cerrar todas las sesiones
+     * Endpoint: POST /api/v1/auth/revoke-all
+     * 
+     * Revoca todos los access y refresh tokens emitidos al usuario hasta ahora. Responde 204 No Content.
+     */
+    @PostMapping("/revoke-all")
+    public ResponseEntity<Void> revokeAll(JwtAuthenticationToken authentication) {
+        OwnerPrincipal owner = (OwnerPrincipal) authentication.getPrincipal();
+        tokenRevocationService.revokeAllForUser(owner.id(), owner.username());
+        return ResponseEntity.noContent().build();
+    }
+
+    private TokenResponse tokensFor(UserEntity user, String refreshToken) {
+        String jwt = jwtTokenService.generateToken(user);
+        long expiresInSeconds = jwtTokenService.accessTokenTtl().toSeconds();
+        return new TokenResponse("Bearer", expiresInSeconds, jwt, refreshToken);
+    }
 }
\ No newline at end of file
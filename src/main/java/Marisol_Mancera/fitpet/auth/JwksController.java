@@ -0,0 +1,32 @@
+package Marisol_Mancera.fitpet.auth;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import Marisol_Mancera.fitpet.security.SigningKeyRing;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Publica las claves públicas de firma (JWK Set, RFC 7517).
+ * Endpoint: GET /.well-known/jwks.json (público)
+ * - Con ES256/EdDSA otros servicios verifican nuestros tokens sin compartir secreto.
+ * - Las claves HS512 nunca se publican: en modo solo-HS512 la lista está vacía.
+ */
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final SigningKeyRing signingKeyRing;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(signingKeyRing.jwks());
+    }
+}
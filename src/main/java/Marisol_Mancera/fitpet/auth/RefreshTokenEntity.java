@@ -0,0 +1,56 @@
+package Marisol_Mancera.fitpet.auth;
+
+import java.time.Instant;
+
+import Marisol_Mancera.fitpet.user.UserEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Refresh token persistido.
+ * - Nunca se guarda el token en claro: solo su SHA-256 (hex), con índice único
+ *   para resolverlo con una sola búsqueda indexada.
+ * - Rotación: al usarse se marca revoked y se emite otro; presentar uno ya
+ *   revocado indica robo y revoca todos los del usuario.
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_user", columnList = "user_id")
+})
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class RefreshTokenEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_refresh_token")
+    private Long id;
+
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private UserEntity user;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private boolean revoked = false;
+}
@@ -0,0 +1,44 @@
+package Marisol_Mancera.fitpet.auth;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+/**
+ * Acceso a refresh tokens por hash (índice único).
+ */
+public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity, Long> {
+
+    /**
+     * Busca por hash cargando ya el usuario (necesario para emitir el nuevo access token).
+     */
+    @Query("select r from RefreshTokenEntity r join fetch r.user where r.tokenHash = :tokenHash")
+    Optional<RefreshTokenEntity> findByTokenHash(String tokenHash);
+
+    /**
+     * Revoca de una vez todos los refresh tokens vigentes de un usuario.
+     * @return nº de tokens revocados
+     */
+    @Modifying
+    @Query("update RefreshTokenEntity r set r.revoked = true where r.user.id = :userId and r.revoked = false")
+    int revokeAllForUser(Long userId);
+
+    /**
+     * Marca como usado un token todavía vigente. La condición revoked = false se evalúa con el
+     * bloqueo de fila del UPDATE: de dos rotaciones simultáneas del mismo token solo una ve 1.
+     * @return 1 si este llamante lo ha consumido, 0 si ya estaba revocado
+     */
+    @Modifying
+    @Query("update RefreshTokenEntity r set r.revoked = true where r.id = :id and r.revoked = false")
+    int revokeIfActive(Long id);
+
+    /**
+     * Revoca el token solo si es del usuario indicado, en un único UPDATE.
+     * @return 1 si era suyo, 0 si no existe o es de otro usuario
+     */
+    @Modifying
+    @Query("update RefreshTokenEntity r set r.revoked = true where r.tokenHash = :tokenHash and r.user.id = :userId")
+    int revokeMine(String tokenHash, Long userId);
+}
@@ -0,0 +1,116 @@
+package Marisol_Mancera.fitpet.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+
+import Marisol_Mancera.fitpet.user.UserEntity;
+import jakarta.transaction.Transactional;
+
+/**
+ * Emisión y rotación de refresh tokens opacos.
+ * - Token = 32 bytes aleatorios en base64url; en BD solo se guarda su SHA-256.
+ * - Renovar cuesta una búsqueda indexada + un digest rápido (sin BCrypt).
+ * - Cada uso rota el token; reutilizar uno ya rotado revoca todos los del usuario (401).
+ * - TTL configurable con jwt.refresh-token-ttl (por defecto 30 días).
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration refreshTokenTtl;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${jwt.refresh-token-ttl:P30D}") Duration refreshTokenTtl) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshTokenTtl = refreshTokenTtl;
+    }
+
+    /** Emite un refresh token nuevo para el usuario y devuelve el valor en claro. */
+    @Transactional
+    public String issue(UserEntity user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String raw = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshTokenEntity.builder()
+                .tokenHash(hash(raw))
+                .user(user)
+                .expiresAt(Instant.now().plus(refreshTokenTtl))
+                .build());
+        return raw;
+    }
+
+    /**
+     * Consume un refresh token y emite su sustituto.
+     * @throws BadCredentialsException si no existe, ha caducado o ya fue usado (401)
+     */
+    @Transactional(dontRollbackOn = BadCredentialsException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshTokenEntity current = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+
+        UserEntity user = current.getUser();
+        if (current.isRevoked()) {
+            throw reuseDetected(user);
+        }
+        if (!Instant.now().isBefore(current.getExpiresAt())) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        // Guardado en BD, no en la entidad leída: si otra petición lo ha rotado entre la lectura
+        // y aquí, esta llega tarde y cuenta como reutilización
+        if (refreshTokenRepository.revokeIfActive(current.getId()) == 0) {
+            throw reuseDetected(user);
+        }
+        return new Rotation(user, issue(user));
+    }
+
+    /** Reutilización de un token ya rotado: posible robo, se corta toda la familia. */
+    private BadCredentialsException reuseDetected(UserEntity user) {
+        refreshTokenRepository.revokeAllForUser(user.getId());
+        return new BadCredentialsException("Invalid refresh token");
+    }
+
+    /**
+     * Revoca un refresh token del usuario (logout); desconocido o ya revocado no es error.
+     * Uno de otro usuario no se toca: su dueño lo vería como reutilización y perdería todas sus sesiones.
+     */
+    @Transactional
+    public void revoke(String rawToken, Long userId) {
+        refreshTokenRepository.revokeMine(hash(rawToken), userId);
+    }
+
+    /** Revoca todos los refresh tokens del usuario (cambio de contraseña, logout global...). */
+    @Transactional
+    public int revokeAll(Long userId) {
+        return refreshTokenRepository.revokeAllForUser(userId);
+    }
+
+    public Duration refreshTokenTtl() {
+        return refreshTokenTtl;
+    }
+
+    /** Resultado de una rotación: usuario dueño y nuevo refresh token en claro. */
+    public record Rotation(UserEntity user, String refreshToken) {}
+
+    static String hash(String rawToken) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(rawToken.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package Marisol_Mancera.fitpet.auth;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Revocación persistida de access tokens.
+ * - tokenKey "jti:<id>" (o "sha:<hash>" si el token no trae jti): revoca un token concreto (logout).
+ * - tokenKey "sub:<email>": revoca todos los tokens del usuario emitidos hasta revokedAt.
+ * - expiresAt: a partir de ese instante ningún token afectado sigue vivo y la fila se poda.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_key", columnList = "token_key"),
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at"),
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at")
+})
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class RevokedTokenEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_revoked_token")
+    private Long id;
+
+    @Column(name = "token_key", nullable = false, length = 200)
+    private String tokenKey;
+
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
@@ -0,0 +1,32 @@
+package Marisol_Mancera.fitpet.auth;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenEntity, Long> {
+
+    boolean existsByTokenKey(String tokenKey);
+
+    // Última revocación masiva de un usuario (tokens con iat <= este instante quedan revocados)
+    @Query("select max(r.revokedAt) from RevokedTokenEntity r where r.tokenKey = :tokenKey")
+    Optional<Instant> findLatestRevokedAt(String tokenKey);
+
+    // Claves aún vigentes: reconstrucción completa del filtro en memoria
+    @Query("select r.tokenKey from RevokedTokenEntity r where r.expiresAt > :now")
+    List<String> findLiveKeys(Instant now);
+
+    // Claves revocadas desde 'since' (incluye las de otras instancias): sincronización incremental
+    @Query("select r.tokenKey from RevokedTokenEntity r where r.revokedAt >= :since and r.expiresAt > :now")
+    List<String> findLiveKeysRevokedSince(Instant since, Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RevokedTokenEntity r where r.expiresAt <= :now")
+    int deleteExpired(Instant now);
+}
@@ -0,0 +1,191 @@
+package Marisol_Mancera.fitpet.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Service;
+
+import Marisol_Mancera.fitpet.security.RevocationBloomFilter;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Revocación de access tokens antes de su 'exp'.
+ * - Fuente de verdad: tabla revoked_tokens (compartida entre instancias).
+ * - Delante, un filtro de Bloom en memoria: el caso habitual ("no revocado")
+ *   es una lectura de bits sin locks ni BD; solo los positivos se confirman en BD.
+ * - El corte de revoke-all de cada sujeto se guarda en memoria tras la primera consulta:
+ *   mientras el filtro no rota, los tokens nuevos del usuario no vuelven a ir a BD.
+ * - Sincronización incremental cada jwt.revocation.sync-interval (revocaciones de otras instancias)
+ *   y reconstrucción completa cada jwt.revocation.rebuild-interval, podando las caducadas.
+ */
+@Service
+public class TokenRevocationService {
+
+    static final String TOKEN_PREFIX = "jti:";
+    static final String HASH_PREFIX = "sha:";
+    static final String SUBJECT_PREFIX = "sub:";
+    // Solape con la sincronización anterior para no perder filas confirmadas con retraso
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final RefreshTokenService refreshTokenService;
+    private final Duration accessTokenTtl;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+
+    private volatile RevocationBloomFilter filter;
+    private volatile Instant lastSync = Instant.EPOCH;
+    // sub:<username> -> último revokedAt conocido (EPOCH = falso positivo del filtro, sin corte)
+    private final ConcurrentMap<String, Instant> subjectCutoffs = new ConcurrentHashMap<>();
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder storageLookups = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  RefreshTokenService refreshTokenService,
+                                  @Value("${jwt.access-token-ttl:PT2H}") Duration accessTokenTtl,
+                                  @Value("${jwt.revocation.expected-entries:100000}") int expectedEntries,
+                                  @Value("${jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.refreshTokenService = refreshTokenService;
+        this.accessTokenTtl = accessTokenTtl;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = RevocationBloomFilter.create(expectedEntries, falsePositiveRate);
+    }
+
+    /** Revoca un token concreto (logout). Caduca con el propio token. */
+    public void revoke(Jwt jwt) {
+        Instant now = Instant.now();
+        Instant expiresAt = jwt.getExpiresAt() != null ? jwt.getExpiresAt() : now.plus(accessTokenTtl);
+        persistAndAdd(tokenKey(jwt), now, expiresAt);
+    }
+
+    /**
+     * Revoca todos los tokens del usuario emitidos hasta ahora (access + refresh).
+     * Como 'iat' va en segundos, un login en el mismo segundo también queda revocado.
+     */
+    public void revokeAllForUser(Long userId, String username) {
+        Instant now = Instant.now();
+        String subjectKey = SUBJECT_PREFIX + username;
+        persistAndAdd(subjectKey, now, now.plus(accessTokenTtl));
+        advanceCutoff(subjectKey, now);
+        refreshTokenService.revokeAll(userId);
+    }
+
+    /** true si el token está revocado. Camino rápido: sondeo del filtro en memoria. */
+    public boolean isRevoked(Jwt jwt) {
+        checks.increment();
+        RevocationBloomFilter current = filter;
+
+        String tokenKey = tokenKey(jwt);
+        if (current.mightContain(tokenKey)) {
+            storageLookups.increment();
+            if (revokedTokenRepository.existsByTokenKey(tokenKey)) {
+                rejected.increment();
+                return true;
+            }
+        }
+
+        String subjectKey = SUBJECT_PREFIX + jwt.getSubject();
+        if (current.mightContain(subjectKey)) {
+            Instant cutoff = subjectCutoffs.get(subjectKey);
+            if (cutoff == null) {
+                storageLookups.increment();
+                cutoff = advanceCutoff(subjectKey,
+                        revokedTokenRepository.findLatestRevokedAt(subjectKey).orElse(Instant.EPOCH));
+            }
+            Instant issuedAt = jwt.getIssuedAt();
+            if (!Instant.EPOCH.equals(cutoff) && (issuedAt == null || !issuedAt.isAfter(cutoff))) {
+                rejected.increment();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Añade al filtro las revocaciones registradas desde la última sincronización (incluidas otras instancias). */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval:PT10S}",
+            initialDelayString = "${jwt.revocation.sync-interval:PT10S}")
+    public void sync() {
+        Instant now = Instant.now();
+        RevocationBloomFilter current = filter;
+        for (String key : revokedTokenRepository.findLiveKeysRevokedSince(lastSync.minus(SYNC_OVERLAP), now)) {
+            current.put(key);
+            if (key.startsWith(SUBJECT_PREFIX)) {
+                // revoke-all (quizá de otra instancia): el corte en memoria no puede quedarse atrás
+                revokedTokenRepository.findLatestRevokedAt(key).ifPresent(cutoff -> advanceCutoff(key, cutoff));
+            }
+        }
+        lastSync = now;
+    }
+
+    /** Poda las revocaciones caducadas y reconstruye el filtro con las vigentes. */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval:PT10M}",
+            initialDelayString = "${jwt.revocation.rebuild-interval:PT10M}")
+    public void rebuild() {
+        Instant now = Instant.now();
+        revokedTokenRepository.deleteExpired(now);
+
+        List<String> live = revokedTokenRepository.findLiveKeys(now);
+        var rebuilt = RevocationBloomFilter.create(Math.max(expectedEntries, live.size() * 2), falsePositiveRate);
+        live.forEach(rebuilt::put);
+        filter = rebuilt;
+        // los cortes caducados salen con el filtro; los vigentes se recargan al primer positivo
+        subjectCutoffs.clear();
+
+        // Lo revocado mientras se construía el filtro nuevo entra en esta sincronización
+        lastSync = now;
+        sync();
+    }
+
+    public Stats stats() {
+        return new Stats(checks.sum(), storageLookups.sum(), rejected.sum(), filter.insertions());
+    }
+
+    /** Instantánea de contadores de revocación. */
+    public record Stats(long checks, long storageLookups, long rejected, long filterEntries) {}
+
+    private void persistAndAdd(String key, Instant revokedAt, Instant expiresAt) {
+        revokedTokenRepository.save(RevokedTokenEntity.builder()
+                .tokenKey(key)
+                .revokedAt(revokedAt)
+                .expiresAt(expiresAt)
+                .build());
+        // efecto inmediato en esta instancia; el resto lo verá en su próxima sincronización
+        filter.put(key);
+    }
+
+    /** El corte solo avanza: una lectura de BD anterior a un revoke-all nunca lo retrasa. */
+    private Instant advanceCutoff(String subjectKey, Instant cutoff) {
+        return subjectCutoffs.merge(subjectKey, cutoff, (a, b) -> a.isAfter(b) ? a : b);
+    }
+
+    static String tokenKey(Jwt jwt) {
+        String jti = jwt.getId();
+        if (jti != null && !jti.isBlank()) {
+            return TOKEN_PREFIX + jti;
+        }
+        // tokens sin jti: se identifican por el hash del propio token
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(jwt.getTokenValue().getBytes(StandardCharsets.US_ASCII));
+            return HASH_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
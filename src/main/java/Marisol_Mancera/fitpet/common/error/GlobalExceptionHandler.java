@@ -1,7 +1,9 @@
 package Marisol_Mancera.fitpet.common.error;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -10,6 +12,8 @@ import org.springframework.web.server.ResponseStatusException;
 
 /**
  * Manejo global de errores HTTP. - Mapea ConflictException a 409.
+ * - ServiceUnavailableException a 503 con cabecera Retry-After.
+ * - ObjectOptimisticLockingFailureException (@Version) a 409.
  */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -20,6 +24,13 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
     }
 
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Problem> handleOptimisticLock(ObjectOptimisticLockingFailureException ex) {
+        // Otra petición modificó la fila entre la lectura y la escritura
+        var body = new Problem("CONFLICT", "Resource was modified concurrently, reload and retry");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<Problem> handleBadCredentials(
             org.springframework.security.authentication.BadCredentialsException ex) {
@@ -28,6 +39,13 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(body);
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<Problem> handleServiceUnavailable(ServiceUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new Problem("SERVICE_UNAVAILABLE", ex.getMessage()));
+    }
+
     /**
      * Estructura mínima y estable de error para la API.
      */
@@ -69,6 +87,21 @@ public ResponseEntity<Problem> handleResponseStatus(ResponseStatusException ex)
                         (reason != null && !reason.isBlank()) ? reason : "Pet not found"
                 ));
     }
+    if (status == HttpStatus.BAD_REQUEST) {
+        String reason = ex.getReason();
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new Problem("BAD_REQUEST", reason != null ? reason : "Bad request"));
+    }
+    if (status == HttpStatus.PRECONDITION_FAILED) {
+        String reason = ex.getReason();
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(new Problem("PRECONDITION_FAILED", reason != null ? reason : "Precondition failed"));
+    }
+    if (status == HttpStatus.TOO_MANY_REQUESTS) {
+        String reason = ex.getReason();
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(new Problem("TOO_MANY_REQUESTS", reason != null ? reason : "Too many requests"));
+    }
     throw ex;
 }
 }
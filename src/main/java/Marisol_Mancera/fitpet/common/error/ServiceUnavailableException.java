@@ -0,0 +1,19 @@
+package Marisol_Mancera.fitpet.common.error;
+
+/**
+ * Se lanza cuando el servidor rechaza trabajo por saturación (mapeada a 503).
+ * retryAfterSeconds se devuelve en la cabecera Retry-After.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
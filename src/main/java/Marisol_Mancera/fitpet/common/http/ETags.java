@@ -0,0 +1,68 @@
+package Marisol_Mancera.fitpet.common.http;
+
+/**
+ * ETags fuertes a partir de un número de versión y comparación con If-Match / If-None-Match (RFC 9110).
+ * - If-None-Match usa comparación débil: W/"3" equivale a "3".
+ * - If-Match usa comparación fuerte: un ETag débil nunca coincide.
+ * - "*" coincide con cualquier representación existente.
+ */
+public final class ETags {
+
+    private ETags() {}
+
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /** true si la cabecera If-None-Match incluye el ETag actual (el cliente ya lo tiene: 304). */
+    public static boolean noneMatchHits(String ifNoneMatch, String etag) {
+        return matches(ifNoneMatch, etag, true);
+    }
+
+    /** true si no hay If-Match o incluye el ETag actual; false = 412. */
+    public static boolean ifMatchAllows(String ifMatch, String etag) {
+        return ifMatch == null || ifMatch.isBlank() || matches(ifMatch, etag, false);
+    }
+
+    /**
+     * Versión esperada de un If-Match con un único ETag fuerte de versión ("5"), para llevarla
+     * al WHERE del UPDATE/DELETE. null si la cabecera es otra cosa (lista, débil, "*", ilegible):
+     * en ese caso se compara con ifMatchAllows contra la versión leída.
+     */
+    public static Long versionOf(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            return null;
+        }
+        try {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static boolean matches(String header, String etag, boolean weak) {
+        if (header == null || header.isBlank()) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                if (!weak) {
+                    continue;
+                }
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,42 @@
+package Marisol_Mancera.fitpet.common.jpa;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.spi.CachingProvider;
+
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.xml.XmlConfiguration;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+
+/**
+ * JCacheRegionFactory con un CacheManager propio por SessionFactory.
+ * JCache reutiliza el CacheManager de cada URI en toda la JVM: dos contextos de Spring
+ * (los de los tests, o la aplicación y un benchmark) compartirían regiones y uno vería
+ * ids de usuarios/roles de la BD del otro. Aquí la configuración de hibernate.javax.cache.uri
+ * se carga en un CacheManager con URI única, que Hibernate cierra al cerrar la SessionFactory.
+ */
+public class IsolatedJCacheRegionFactory extends JCacheRegionFactory {
+
+    @Override
+    protected CacheManager resolveCacheManager(SessionFactoryOptions settings, Map<String, Object> properties) {
+        CachingProvider provider = getCachingProvider(properties);
+        URI config = getUri(settings, properties);
+        if (properties.get(ConfigSettings.CACHE_MANAGER) != null || config == null
+                || !(provider instanceof EhcacheCachingProvider ehcache)) {
+            return super.resolveCacheManager(settings, properties);
+        }
+        try {
+            var configuration = new XmlConfiguration(config.toURL(), getClassLoader(provider));
+            return ehcache.getCacheManager(URI.create("urn:fitpet:hibernate:" + UUID.randomUUID()), configuration);
+        } catch (MalformedURLException e) {
+            throw new CacheException("Couldn't load cache configuration from " + config, e);
+        }
+    }
+}
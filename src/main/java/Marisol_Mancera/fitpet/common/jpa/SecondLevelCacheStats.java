@@ -0,0 +1,45 @@
+package Marisol_Mancera.fitpet.common.jpa;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Contadores de la caché de segundo nivel de Hibernate por región (ehcache.xml).
+ * Requiere hibernate.generate_statistics=true; sin estadísticas todo sale a 0.
+ */
+@Component
+public class SecondLevelCacheStats {
+
+    /** Regiones declaradas en UserEntity / RoleEntity. */
+    public static final List<String> REGIONS =
+            List.of("users", "users-by-username", "users-roles", "roles", "roles-by-name");
+
+    private final Statistics statistics;
+
+    public SecondLevelCacheStats(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /** Instantánea por región (en el orden de REGIONS). */
+    public Map<String, Stats> stats() {
+        Map<String, Stats> stats = new LinkedHashMap<>();
+        for (String region : REGIONS) {
+            CacheRegionStatistics regionStats = statistics.getCacheRegionStatistics(region);
+            stats.put(region, regionStats == null ? new Stats(0, 0, 0, 0)
+                    : new Stats(regionStats.getHitCount(), regionStats.getMissCount(), regionStats.getPutCount(),
+                            regionStats.getElementCountInMemory()));
+        }
+        return stats;
+    }
+
+    /** Contadores de una región; elementsInMemory es -1 si el proveedor no lo informa. */
+    public record Stats(long hits, long misses, long puts, long elementsInMemory) {}
+}
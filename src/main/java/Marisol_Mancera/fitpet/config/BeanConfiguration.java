@@ -1,15 +1,73 @@
 package Marisol_Mancera.fitpet.config;
 
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import Marisol_Mancera.fitpet.security.BoundedPasswordEncoder;
+import Marisol_Mancera.fitpet.security.PasswordHashCalibrator;
+import Marisol_Mancera.fitpet.security.TimedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * PasswordEncoder BCrypt ejecutado en un pool propio y acotado.
+ * - auth.hashing.threads: hilos de hashing (0 = la mitad de las CPUs, mínimo 1: el resto
+ *   queda libre para las peticiones que no hashean aunque el pool esté saturado).
+ * - auth.hashing.queue-capacity: peticiones en espera antes de responder 503.
+ * - auth.hashing.retry-after-seconds: valor de la cabecera Retry-After.
+ * Coste calibrado al arrancar según el hardware del nodo:
+ * - auth.password.target-hash-millis: latencia objetivo de un hash.
+ * - auth.password.min-strength / max-strength: límites del coste BCrypt.
+ * Los hashes se guardan con prefijo {bcrypt}; los antiguos sin prefijo siguen validando
+ * y se actualizan en el siguiente login (PasswordRehashService).
+ * Cada hash se mide en el pool (TimedPasswordEncoder, timer fitpet.password.hash).
+ */
 @Configuration
 public class BeanConfiguration {
-    
+
+    private static final String ENCODING_ID = "bcrypt";
+
+    @Value("${auth.hashing.threads:0}")
+    private int hashingThreads;
+
+    @Value("${auth.hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${auth.hashing.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    @Value("${auth.password.target-hash-millis:250}")
+    private long targetHashMillis;
+
+    @Value("${auth.password.min-strength:10}")
+    private int minStrength;
+
+    @Value("${auth.password.max-strength:16}")
+    private int maxStrength;
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        int strength = PasswordHashCalibrator.calibrateStrength(
+                Duration.ofMillis(targetHashMillis), minStrength, maxStrength);
+        var bcrypt = new BCryptPasswordEncoder(strength);
+
+        var delegating = new DelegatingPasswordEncoder(ENCODING_ID, Map.<String, PasswordEncoder>of(ENCODING_ID, bcrypt));
+        // hashes heredados sin prefijo {id}
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        int threads = hashingThreads > 0 ? hashingThreads : defaultHashingThreads(Runtime.getRuntime().availableProcessors());
+        return new BoundedPasswordEncoder(new TimedPasswordEncoder(delegating, meterRegistry),
+                threads, hashingQueueCapacity, retryAfterSeconds);
+    }
+
+    /** Hilos de hashing por defecto: la mitad de las CPUs (mínimo 1). */
+    static int defaultHashingThreads(int availableProcessors) {
+        return Math.max(1, availableProcessors / 2);
     }
 }
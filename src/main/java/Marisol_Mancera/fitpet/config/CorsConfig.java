@@ -14,6 +14,8 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
  * - Permite solicitudes desde http://localhost:5173 (Vite dev server).
  * - Habilita credenciales (cookies, Authorization headers).
  * - Expone cabecera Location para endpoints POST con 201 Created.
+ * - Expone X-Next-Cursor y Link para la paginación de GET /api/v1/pets.
+ * - Expone ETag para peticiones condicionales (If-None-Match / If-Match).
  * 
  */
 @Configuration
@@ -27,7 +29,7 @@ public class CorsConfig {
         configuration.setAllowedOrigins(List.of("http://localhost:5173"));
         
         // Permite todos los métodos HTTP necesarios para la API REST
-        configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         
         // Permite todos los headers comunes (Authorization para JWT, Content-Type, etc.)
         configuration.setAllowedHeaders(List.of("*"));
@@ -36,7 +38,8 @@ public class CorsConfig {
         configuration.setAllowCredentials(true);
         
         // Expone la cabecera Location (necesaria para POST /api/v1/pets que devuelve 201 + Location)
-        configuration.setExposedHeaders(List.of("Location"));
+        // , las de paginación por cursor del listado y el ETag de mascotas
+        configuration.setExposedHeaders(List.of("Location", "X-Next-Cursor", "Link", "ETag"));
         
         // Aplica esta configuración a todos los endpoints
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -2,38 +2,87 @@ package Marisol_Mancera.fitpet.config;
 
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
 import org.springframework.security.oauth2.jwt.*;
 
 import java.util.Base64;
 
-import javax.crypto.spec.SecretKeySpec;
+import Marisol_Mancera.fitpet.auth.TokenRevocationService;
+import Marisol_Mancera.fitpet.security.CachingJwtDecoder;
+import Marisol_Mancera.fitpet.security.JwsTokenIssuer;
+import Marisol_Mancera.fitpet.security.JwtSigningProperties;
+import Marisol_Mancera.fitpet.security.RevocationCheckingJwtDecoder;
+import Marisol_Mancera.fitpet.security.SigningKeyRing;
+import Marisol_Mancera.fitpet.security.TimedJwtDecoder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
- * JWT con clave simétrica (HS512) leyendo 'jwt.key' desde application.properties.
- * - 'jwt.key' es base64 (64 bytes) -> decodificamos y firmamos/verificamos con HS512.
+ * JWT firmados con HS512 ('jwt.key') o, si se configura, con ES256/EdDSA.
+ * - 'jwt.key' es base64 (64 bytes) -> clave HS512 'default'.
+ * - Rotación: jwt.signing.* añade claves con kid; se firma con la activa y se verifica
+ *   con la del kid de la cabecera (SigningKeyRing). jwt.key sigue siendo la clave 'default'.
+ * - JwsTokenIssuer: camino rápido de emisión en login (clave activa, cabecera con kid).
+ * - Las claves públicas asimétricas se publican en /.well-known/jwks.json.
+ * - El decoder va envuelto en una caché de tokens verificados (jwt.decoder-cache.max-entries)
+ *   y, por fuera, en la comprobación de revocación (TokenRevocationService).
+ * - La cadena completa se mide con TimedJwtDecoder (fitpet.jwt.decode, outcome valid|invalid);
+ *   los contadores de la caché se publican como fitpet.jwt.decoder.cache.*.
  */
 @Configuration
+@EnableConfigurationProperties(JwtSigningProperties.class)
 public class JwtConfig {
 
     @Value("${jwt.key}")
     private String base64Secret;
-    
-     @Bean 
+
+    @Value("${jwt.decoder-cache.max-entries:10000}")
+    private int decoderCacheMaxEntries;
+
+     @Bean
     public JwtEncoder jwtEncoder() {
         // decodificamos la clave Base64 generada (64 bytes = 512 bits)
         byte[] keyBytes = Base64.getDecoder().decode(base64Secret);
-        return new NimbusJwtEncoder(new ImmutableSecret<>(keyBytes)); 
+        return new NimbusJwtEncoder(new ImmutableSecret<>(keyBytes));
     }
 
     @Bean
-    public JwtDecoder jwtDecoder() {
-        byte[] keyBytes = Base64.getDecoder().decode(base64Secret);
-        var secretKey = new SecretKeySpec(keyBytes, "HmacSHA512");
-        return NimbusJwtDecoder.withSecretKey(secretKey)
-                .macAlgorithm(MacAlgorithm.HS512)
-                .build();
+    public SigningKeyRing signingKeyRing(JwtSigningProperties properties) {
+        return SigningKeyRing.from(base64Secret, properties);
+    }
+
+    @Bean
+    public JwsTokenIssuer jwsTokenIssuer(SigningKeyRing signingKeyRing) {
+        // Firma con la clave activa (HS512, ES256 o EdDSA según jwt.signing.keys.<kid>.algorithm)
+        return new JwsTokenIssuer(signingKeyRing.active().signer());
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(SigningKeyRing signingKeyRing, TokenRevocationService tokenRevocationService,
+            MeterRegistry meterRegistry) {
+        // Verificador elegido por kid: coste constante aunque convivan varias claves
+        JwtDecoder nimbus = signingKeyRing.jwtDecoder();
+        // El mismo token se reenvía cientos de veces durante su vida: evitamos MAC + parseo repetidos
+        // ...pero ninguna entrada sobrevive al retireAt de la clave que firmó el token
+        var caching = new CachingJwtDecoder(nimbus, decoderCacheMaxEntries, signingKeyRing::retireAtOf);
+        bindCacheMetrics(caching, meterRegistry);
+        // La revocación se comprueba también en los aciertos de caché
+        var revocationChecking = new RevocationCheckingJwtDecoder(caching, tokenRevocationService::isRevoked);
+        return new TimedJwtDecoder(revocationChecking, meterRegistry);
+    }
+
+    /** La caché no es un bean: sus contadores se registran aquí y se leen en cada scrape. */
+    private static void bindCacheMetrics(CachingJwtDecoder caching, MeterRegistry registry) {
+        FunctionCounter.builder("fitpet.jwt.decoder.cache.gets", caching, c -> c.stats().hits())
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("fitpet.jwt.decoder.cache.gets", caching, c -> c.stats().misses())
+                .tag("result", "miss").register(registry);
+        FunctionCounter.builder("fitpet.jwt.decoder.cache.evictions", caching, c -> c.stats().evictions())
+                .register(registry);
+        Gauge.builder("fitpet.jwt.decoder.cache.size", caching, c -> c.stats().size())
+                .register(registry);
     }
-}
\ No newline at end of file
+}
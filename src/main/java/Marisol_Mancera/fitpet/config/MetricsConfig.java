@@ -0,0 +1,96 @@
+package Marisol_Mancera.fitpet.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import Marisol_Mancera.fitpet.auth.TokenRevocationService;
+import Marisol_Mancera.fitpet.common.jpa.SecondLevelCacheStats;
+import Marisol_Mancera.fitpet.pet.cache.PetListCache;
+import Marisol_Mancera.fitpet.security.BoundedPasswordEncoder;
+import Marisol_Mancera.fitpet.security.ratelimit.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Métricas del servicio, expuestas en /actuator/prometheus (solo con un Bearer de scope ADMIN).
+ * - Controladores: http.server.requests de Spring Boot (uri, method, status, outcome).
+ * - Repositorios Spring Data: spring.data.repository.invocations (repository, method, state).
+ * - Repositorios JDBC de mascotas: fitpet.pets.jdbc y fitpet.pets.jdbc.rows (PetJdbcMetrics).
+ * - Auth y JWT: timers propios en JwtTokenService, TimedPasswordEncoder y TimedJwtDecoder.
+ * - Los timers y histogramas propios se registran una vez al arrancar: en la petición solo se toma el tiempo.
+ * - Aquí: los contadores stats() que ya mantienen los componentes (LongAdder), publicados como
+ *   FunctionCounter/Gauge. Se leen solo al hacer scrape: nada se añade al camino de la petición.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    MeterBinder passwordHashingMetrics(BoundedPasswordEncoder passwordEncoder) {
+        return registry -> {
+            Gauge.builder("fitpet.password.queue.depth", passwordEncoder, e -> e.stats().queueDepth())
+                    .description("Hashes esperando en la cola del pool").register(registry);
+            Gauge.builder("fitpet.password.active", passwordEncoder, e -> e.stats().activeThreads())
+                    .description("Hilos del pool hasheando ahora").register(registry);
+            FunctionCounter.builder("fitpet.password.rejected", passwordEncoder, e -> e.stats().rejected())
+                    .description("Hashes rechazados con 503 por cola llena").register(registry);
+        };
+    }
+
+    @Bean
+    MeterBinder authRateLimitMetrics(TokenBucketRateLimiter authRateLimiter) {
+        return registry -> {
+            FunctionCounter.builder("fitpet.auth.rate-limit.requests", authRateLimiter, l -> l.stats().allowed())
+                    .tag("result", "allowed").register(registry);
+            FunctionCounter.builder("fitpet.auth.rate-limit.requests", authRateLimiter, l -> l.stats().rejected())
+                    .tag("result", "rejected").register(registry);
+            Gauge.builder("fitpet.auth.rate-limit.keys", authRateLimiter, l -> l.stats().trackedKeys())
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    MeterBinder tokenRevocationMetrics(TokenRevocationService tokenRevocationService) {
+        return registry -> {
+            FunctionCounter.builder("fitpet.jwt.revocation.checks", tokenRevocationService, s -> s.stats().checks())
+                    .register(registry);
+            FunctionCounter.builder("fitpet.jwt.revocation.storage-lookups", tokenRevocationService,
+                    s -> s.stats().storageLookups()).register(registry);
+            FunctionCounter.builder("fitpet.jwt.revocation.rejected", tokenRevocationService,
+                    s -> s.stats().rejected()).register(registry);
+            Gauge.builder("fitpet.jwt.revocation.filter.entries", tokenRevocationService,
+                    s -> s.stats().filterEntries()).register(registry);
+        };
+    }
+
+    @Bean
+    MeterBinder petCacheMetrics(PetListCache petListCache) {
+        return registry -> {
+            FunctionCounter.builder("fitpet.pets.cache.gets", petListCache, c -> c.stats().hits())
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("fitpet.pets.cache.gets", petListCache, c -> c.stats().misses())
+                    .tag("result", "miss").register(registry);
+            FunctionCounter.builder("fitpet.pets.cache.evictions", petListCache, c -> c.stats().evictions())
+                    .register(registry);
+            FunctionCounter.builder("fitpet.pets.cache.invalidations", petListCache, c -> c.stats().invalidations())
+                    .register(registry);
+            Gauge.builder("fitpet.pets.cache.owners", petListCache, c -> c.stats().owners()).register(registry);
+            Gauge.builder("fitpet.pets.cache.weight", petListCache, c -> c.stats().weightBytes())
+                    .baseUnit("bytes").register(registry);
+        };
+    }
+
+    @Bean
+    MeterBinder secondLevelCacheMetrics(SecondLevelCacheStats secondLevelCacheStats) {
+        return registry -> {
+            for (String region : SecondLevelCacheStats.REGIONS) {
+                FunctionCounter.builder("fitpet.hibernate.cache.gets", secondLevelCacheStats,
+                        s -> s.stats().get(region).hits()).tags("region", region, "result", "hit").register(registry);
+                FunctionCounter.builder("fitpet.hibernate.cache.gets", secondLevelCacheStats,
+                        s -> s.stats().get(region).misses()).tags("region", region, "result", "miss").register(registry);
+                FunctionCounter.builder("fitpet.hibernate.cache.puts", secondLevelCacheStats,
+                        s -> s.stats().get(region).puts()).tag("region", region).register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,56 @@
+package Marisol_Mancera.fitpet.config;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import Marisol_Mancera.fitpet.pet.cache.InProcessInvalidationChannel;
+import Marisol_Mancera.fitpet.pet.cache.MulticastInvalidationChannel;
+import Marisol_Mancera.fitpet.pet.cache.PetCacheInvalidationChannel;
+import Marisol_Mancera.fitpet.pet.cache.PetListCache;
+
+/**
+ * Caché de listados de mascotas por dueño (pets.cache.*).
+ * - pets.cache.channel=local (por defecto): una sola instancia.
+ * - pets.cache.channel=multicast: varias instancias en la misma red (pets.cache.multicast.*).
+ */
+@Configuration
+public class PetCacheConfig {
+
+    @Bean
+    public PetListCache petListCache(@Value("${pets.cache.max-weight:32MB}") DataSize maxWeight,
+                                     @Value("${pets.cache.ttl:PT5M}") Duration ttl) {
+        return new PetListCache(maxWeight.toBytes(), ttl);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "pets.cache.channel", havingValue = "multicast")
+    public MulticastInvalidationChannel multicastInvalidationChannel(
+            @Value("${pets.cache.multicast.group:239.255.42.99}") String group,
+            @Value("${pets.cache.multicast.port:45599}") int port,
+            @Value("${pets.cache.multicast.interface:}") String networkInterface,
+            @Value("${pets.cache.multicast.time-to-live:1}") int timeToLive) throws IOException {
+        NetworkInterface nif = null;
+        if (!networkInterface.isBlank()) {
+            nif = NetworkInterface.getByName(networkInterface);
+            if (nif == null) {
+                throw new SocketException("Unknown network interface: " + networkInterface);
+            }
+        }
+        return new MulticastInvalidationChannel(InetAddress.getByName(group), port, nif, timeToLive);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "pets.cache.channel", havingValue = "local", matchIfMissing = true)
+    public PetCacheInvalidationChannel inProcessInvalidationChannel() {
+        return new InProcessInvalidationChannel();
+    }
+}
@@ -0,0 +1,22 @@
+package Marisol_Mancera.fitpet.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import Marisol_Mancera.fitpet.security.ratelimit.RateLimitProperties;
+import Marisol_Mancera.fitpet.security.ratelimit.TokenBucketRateLimiter;
+
+/**
+ * Limitador de intentos para los endpoints públicos de auth (auth.rate-limit.*).
+ * El filtro se añade en SecurityConfig; aquí solo vive el estado compartido.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    @Bean
+    public TokenBucketRateLimiter authRateLimiter(RateLimitProperties properties) {
+        return new TokenBucketRateLimiter(properties.maxTrackedKeys());
+    }
+}
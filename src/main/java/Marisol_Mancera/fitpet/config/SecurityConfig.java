@@ -1,40 +1,66 @@
 package Marisol_Mancera.fitpet.config;
 
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
-import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfigurationSource;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import Marisol_Mancera.fitpet.security.OwnerJwtAuthenticationConverter;
+import Marisol_Mancera.fitpet.security.ratelimit.AuthRateLimitFilter;
+import Marisol_Mancera.fitpet.security.ratelimit.RateLimitProperties;
+import Marisol_Mancera.fitpet.security.ratelimit.TokenBucketRateLimiter;
+import Marisol_Mancera.fitpet.user.UserRepository;
+
 /**
  * Seguridad en modo JWT stateless.
  * - Sin sesiones de servidor (STATELESS).
  * - CSRF desactivado para API REST.
  * - CORS habilitado para permitir comunicación con frontend.
  * - H2 console permitida y con frames sameOrigin.
- * - Endpoints públicos: /auth/registro, /auth/token, /auth/login, H2, Swagger.
+ * - Endpoints públicos: /auth/registro, /auth/token, /auth/login, /auth/refresh, JWKS, H2, Swagger.
+ * - Actuator: solo health y prometheus (scrape sin token; restringir por red en producción).
  * - Resto autenticado mediante Bearer JWT.
+ * - Limitador por IP/email en registro, token y login antes de tocar BD o BCrypt.
  * 
  * Modificado en HU3 para añadir configuración CORS.
  */
 @Configuration
 public class SecurityConfig {
 
+    /**
+     * AuthenticationManager de los Bearer JWT: JwtDecoder (firma, caché, revocación) + OwnerJwtAuthenticationConverter.
+     * Sin padre: devolver authenticationConfiguration.getAuthenticationManager() delegaba en este mismo
+     * bean y un token rechazado (revocado, mal formado) acababa en StackOverflowError en vez de 401.
+     */
     @Bean
-    public AuthenticationManager authenticationManager(AuthenticationConfiguration authenticationConfiguration)
-            throws Exception {
-        return authenticationConfiguration.getAuthenticationManager();
+    public AuthenticationManager authenticationManager(JwtDecoder jwtDecoder,
+            OwnerJwtAuthenticationConverter jwtAuthenticationConverter) {
+        var provider = new JwtAuthenticationProvider(jwtDecoder);
+        provider.setJwtAuthenticationConverter(jwtAuthenticationConverter);
+        return new ProviderManager(provider);
     }
 
     @Bean
-    SecurityFilterChain securityFilterChain(HttpSecurity http, CorsConfigurationSource corsConfigurationSource)
-            throws Exception {
+    SecurityFilterChain securityFilterChain(HttpSecurity http, CorsConfigurationSource corsConfigurationSource,
+            TokenBucketRateLimiter authRateLimiter, RateLimitProperties rateLimitProperties,
+            ObjectMapper objectMapper, AuthenticationManager authenticationManager) throws Exception {
+        if (rateLimitProperties.enabled()) {
+            // Rechaza credential stuffing con un CAS en memoria, antes de la consulta a BD y del hash
+            http.addFilterBefore(new AuthRateLimitFilter(authRateLimiter, rateLimitProperties, objectMapper),
+                    BearerTokenAuthenticationFilter.class);
+        }
+
         http
                 // CORS habilitado
                 .cors(cors -> cors.configurationSource(corsConfigurationSource))
@@ -48,10 +74,17 @@ public class SecurityConfig {
                         // Consola H2 y documentación Swagger públicas (solo dev/test)
                         .requestMatchers("/h2-console/**").permitAll()
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                        // Salud pública; el scrape de Prometheus (tráfico por URI, resultados de auth,
+                        // rechazos del limitador) solo con scope ADMIN. El resto de actuator no se expone
+                        .requestMatchers(EndpointRequest.to("health")).permitAll()
+                        .requestMatchers(EndpointRequest.to("prometheus")).hasAuthority("SCOPE_ADMIN")
                         // Auth públicas (registro, login, token)
                         .requestMatchers(HttpMethod.POST, "/api/v1/auth/registro").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/v1/auth/token").permitAll()
                         .requestMatchers("/api/v1/auth/login").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/v1/auth/refresh").permitAll()
+                        // Claves públicas de firma (JWKS)
+                        .requestMatchers(HttpMethod.GET, "/.well-known/jwks.json").permitAll()
                         // Cuando se emitan tokens con scopes, se puede afinar por scope:
                         // .requestMatchers(HttpMethod.GET, "/api/v1/**").hasAuthority("SCOPE_USER")
                         // .requestMatchers("/api/v1/admin/**").hasAuthority("SCOPE_ADMIN")
@@ -60,7 +93,7 @@ public class SecurityConfig {
                         .anyRequest().authenticated())
                 // Resource Server JWT (validación de tokens HS512)
                 .oauth2ResourceServer(oauth -> oauth
-                        .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter())));
+                        .jwt(jwt -> jwt.authenticationManager(authenticationManager)));
 
         return http.build();
     }
@@ -68,16 +101,11 @@ public class SecurityConfig {
     /**
      * Convierte el claim "scope" en authorities con prefijo SCOPE_.
      * Ejemplo: scope: "USER ADMIN" -> authorities: SCOPE_USER, SCOPE_ADMIN
+     * El principal es un OwnerPrincipal con el id de usuario del claim "uid".
      */
     @Bean
-    JwtAuthenticationConverter jwtAuthenticationConverter() {
-        var granted = new JwtGrantedAuthoritiesConverter();
-        granted.setAuthoritiesClaimName("scope");
-        granted.setAuthorityPrefix("SCOPE_");
-
-        var converter = new JwtAuthenticationConverter();
-        converter.setJwtGrantedAuthoritiesConverter(granted);
-        return converter;
+    OwnerJwtAuthenticationConverter jwtAuthenticationConverter(UserRepository userRepository) {
+        return new OwnerJwtAuthenticationConverter(userRepository);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package Marisol_Mancera.fitpet.dtos;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * DTO de entrada para renovar el access token con un refresh token.
+ */
+public record RefreshRequest(
+        @NotBlank(message = "refreshToken is required")
+        String refreshToken
+) {}
@@ -1,12 +1,20 @@
 package Marisol_Mancera.fitpet.dtos;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 /**
  * DTO de salida del endpoint de autenticación (login).
  * Contiene el JWT emitido y metadatos básicos.
+ * refreshToken (opaco, de un solo uso) permite renovar sin reenviar la contraseña.
  */
 public record TokenResponse(
         String tokenType,
         long expiresIn,
-        String accessToken
-) {}
-
+        String accessToken,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        String refreshToken
+) {
+    public TokenResponse(String tokenType, long expiresIn, String accessToken) {
+        this(tokenType, expiresIn, accessToken, null);
+    }
+}
@@ -0,0 +1,56 @@
+package Marisol_Mancera.fitpet.pet;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import Marisol_Mancera.fitpet.pet.dto.PetBatchDelete;
+import Marisol_Mancera.fitpet.pet.dto.PetBatchResult;
+import Marisol_Mancera.fitpet.pet.dto.PetBatchUpdate;
+import Marisol_Mancera.fitpet.pet.dto.PetCreateRequest;
+import Marisol_Mancera.fitpet.security.OwnerPrincipal;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Operaciones por lotes sobre las mascotas del usuario autenticado.
+ * - El cuerpo es un array JSON; la respuesta trae un resultado por elemento, en el mismo orden.
+ * - 200 aunque fallen elementos concretos (ver status de cada uno); 400 si el lote está vacío
+ *   o supera pets.batch.max-items.
+ * 
+ * Ejemplos de uso:
+ * - POST   /api/v1/pets:batch  [{"name": "Pony", ...}, ...]
+ * - PUT    /api/v1/pets:batch  [{"id": 3, "version": 1, "pet": {"name": "Pony", ...}}, ...]
+ * - DELETE /api/v1/pets:batch  [{"id": 3, "version": 2}, {"id": 4}]
+ */
+@RestController
+@RequestMapping("/api/v1")
+@RequiredArgsConstructor
+public class PetBatchController {
+
+    private final PetBatchService petBatchService;
+
+    @PostMapping("/pets:batch")
+    public ResponseEntity<PetBatchResult> createAll(@RequestBody List<PetCreateRequest> requests) {
+        return ResponseEntity.ok(petBatchService.createAll(currentOwnerId(), requests));
+    }
+
+    @PutMapping("/pets:batch")
+    public ResponseEntity<PetBatchResult> updateAll(@RequestBody List<PetBatchUpdate> requests) {
+        return ResponseEntity.ok(petBatchService.updateAll(currentOwnerId(), requests));
+    }
+
+    @DeleteMapping("/pets:batch")
+    public ResponseEntity<PetBatchResult> deleteAll(@RequestBody List<PetBatchDelete> requests) {
+        return ResponseEntity.ok(petBatchService.deleteAll(currentOwnerId(), requests));
+    }
+
+    private Long currentOwnerId() {
+        return OwnerPrincipal.current().id();
+    }
+}
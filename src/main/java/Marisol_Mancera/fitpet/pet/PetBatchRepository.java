@@ -0,0 +1,142 @@
+package Marisol_Mancera.fitpet.pet;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+
+import Marisol_Mancera.fitpet.pet.PetJdbcMetrics.Query;
+import Marisol_Mancera.fitpet.pet.dto.PetBatchDelete;
+import Marisol_Mancera.fitpet.pet.dto.PetBatchUpdate;
+import Marisol_Mancera.fitpet.pet.dto.PetCreateRequest;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Escrituras por lotes de mascotas con JDBC (sin Hibernate).
+ * - Con IDENTITY, Hibernate no agrupa INSERT; aquí cada trozo de pets.batch.jdbc-batch-size
+ *   filas es un único executeBatch.
+ * - En MySQL, rewriteBatchedStatements=true convierte el lote de INSERT en un INSERT multi-fila:
+ *   InnoDB reserva los N ids de una vez (consecutivos para inserts simples) y el driver los
+ *   devuelve como generated keys, así que la asignación de ids también va por lotes.
+ * - UPDATE/DELETE filtran por owner_id y, si el cliente envía versión, por version
+ *   (mismo bloqueo optimista que @Version en PetEntity).
+ * - Cada llamada se mide en PetJdbcMetrics (duración y elementos del lote).
+ */
+@Repository
+@RequiredArgsConstructor
+public class PetBatchRepository {
+
+    private static final String INSERT = "insert into pets "
+            + "(owner_id, name, species, breed, sex, birth_date, weight_kg, version) "
+            + "values (:ownerId, :name, :species, :breed, :sex, :birthDate, :weightKg, 0)";
+
+    private static final String UPDATE = "update pets set name = :name, species = :species, breed = :breed, "
+            + "sex = :sex, birth_date = :birthDate, weight_kg = :weightKg, version = version + 1 "
+            + "where id_pet = :id and owner_id = :ownerId and version = coalesce(:version, version)";
+
+    private static final String DELETE =
+            "delete from pets where id_pet = :id and owner_id = :ownerId and version = coalesce(:version, version)";
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final PetJdbcMetrics metrics;
+
+    @Value("${pets.batch.jdbc-batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Inserta las mascotas del dueño (versión 0).
+     * @return ids generados, en el mismo orden que 'pets'
+     */
+    public List<Long> insertAll(Long ownerId, List<PetCreateRequest> pets) {
+        long start = System.nanoTime();
+        List<Long> ids = new ArrayList<>(pets.size());
+        for (List<PetCreateRequest> chunk : chunks(pets)) {
+            SqlParameterSource[] params = chunk.stream()
+                    .map(pet -> petParams(ownerId, pet))
+                    .toArray(SqlParameterSource[]::new);
+            var keys = new GeneratedKeyHolder();
+            jdbc.batchUpdate(INSERT, params, keys, new String[] {"id_pet"});
+            // MySQL devuelve la clave como GENERATED_KEY, H2 como id_pet: se toma la única columna
+            for (Map<String, Object> row : keys.getKeyList()) {
+                ids.add(((Number) row.values().iterator().next()).longValue());
+            }
+        }
+        metrics.record(Query.BATCH_INSERT, start, ids.size());
+        return ids;
+    }
+
+    /** @return filas afectadas por elemento (0 = no existe, no es del dueño o versión distinta) */
+    public int[] updateAll(Long ownerId, List<PetBatchUpdate> updates) {
+        return executeAll(Query.BATCH_UPDATE, UPDATE, updates, u -> petParams(ownerId, u.pet())
+                .addValue("id", u.id())
+                .addValue("version", u.version(), Types.BIGINT));
+    }
+
+    /** @return filas afectadas por elemento (0 = no existe, no es del dueño o versión distinta) */
+    public int[] deleteAll(Long ownerId, List<PetBatchDelete> deletes) {
+        return executeAll(Query.BATCH_DELETE, DELETE, deletes, d -> new MapSqlParameterSource()
+                .addValue("id", d.id())
+                .addValue("ownerId", ownerId)
+                .addValue("version", d.version(), Types.BIGINT));
+    }
+
+    /** Versión actual de las mascotas del dueño entre 'ids' (las que no aparecen no existen o no son suyas). */
+    public Map<Long, Long> findVersions(Long ownerId, Collection<Long> ids) {
+        long start = System.nanoTime();
+        Map<Long, Long> versions = new HashMap<>();
+        for (List<Long> chunk : chunks(List.copyOf(ids))) {
+            var params = new MapSqlParameterSource()
+                    .addValue("ownerId", ownerId)
+                    .addValue("ids", chunk);
+            jdbc.query("select id_pet, version from pets where owner_id = :ownerId and id_pet in (:ids)",
+                    params, (RowCallbackHandler) rs -> versions.put(rs.getLong("id_pet"), rs.getLong("version")));
+        }
+        metrics.record(Query.BATCH_VERSIONS, start, versions.size());
+        return versions;
+    }
+
+    private <T> int[] executeAll(Query query, String sql, List<T> items,
+            Function<T, MapSqlParameterSource> toParams) {
+        long start = System.nanoTime();
+        int[] counts = new int[items.size()];
+        int offset = 0;
+        for (List<T> chunk : chunks(items)) {
+            SqlParameterSource[] params = chunk.stream().map(toParams).toArray(SqlParameterSource[]::new);
+            int[] chunkCounts = jdbc.batchUpdate(sql, params);
+            System.arraycopy(chunkCounts, 0, counts, offset, chunkCounts.length);
+            offset += chunk.size();
+        }
+        metrics.record(query, start, items.size());
+        return counts;
+    }
+
+    private static MapSqlParameterSource petParams(Long ownerId, PetCreateRequest pet) {
+        return new MapSqlParameterSource()
+                .addValue("ownerId", ownerId)
+                .addValue("name", pet.name())
+                .addValue("species", pet.species())
+                .addValue("breed", pet.breed())
+                .addValue("sex", pet.sex())
+                .addValue("birthDate", pet.birthDate())
+                .addValue("weightKg", pet.weightKg());
+    }
+
+    private <T> List<List<T>> chunks(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += batchSize) {
+            chunks.add(items.subList(from, Math.min(from + batchSize, items.size())));
+        }
+        return chunks;
+    }
+}
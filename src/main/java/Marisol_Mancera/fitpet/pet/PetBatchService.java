@@ -0,0 +1,184 @@
+package Marisol_Mancera.fitpet.pet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import Marisol_Mancera.fitpet.pet.cache.PetCacheInvalidator;
+import Marisol_Mancera.fitpet.pet.dto.PetBatchDelete;
+import Marisol_Mancera.fitpet.pet.dto.PetBatchResult;
+import Marisol_Mancera.fitpet.pet.dto.PetBatchResult.Item;
+import Marisol_Mancera.fitpet.pet.dto.PetBatchUpdate;
+import Marisol_Mancera.fitpet.pet.dto.PetCreateRequest;
+import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Alta/cambio/baja de mascotas por lotes.
+ * - Cada elemento se valida por separado: los inválidos responden 400 en su posición
+ *   y el resto se escribe igualmente.
+ * - Los válidos se escriben en una transacción con lotes JDBC (PetBatchRepository).
+ * - El contador de cambios del dueño (ETag del listado) sube una vez por lote.
+ */
+@Service
+@RequiredArgsConstructor
+public class PetBatchService {
+
+    private final PetBatchRepository petBatchRepository;
+    private final PetChangeCounter petChangeCounter;
+    private final PetCacheInvalidator petCacheInvalidator;
+    private final StaleOwnerTranslator staleOwnerTranslator;
+    private final Validator validator;
+
+    @Value("${pets.batch.max-items:5000}")
+    private int maxItems;
+
+    @Transactional
+    public PetBatchResult createAll(Long ownerId, List<PetCreateRequest> requests) {
+        checkSize(requests);
+        Item[] results = new Item[requests.size()];
+        List<Integer> positions = new ArrayList<>();
+        List<PetCreateRequest> valid = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String error = validate(requests.get(i));
+            if (error != null) {
+                results[i] = Item.failed(i, 400, null, error);
+            } else {
+                positions.add(i);
+                valid.add(normalized(requests.get(i)));
+            }
+        }
+
+        List<Long> ids;
+        try {
+            ids = petBatchRepository.insertAll(ownerId, valid);
+        } catch (DataIntegrityViolationException ex) {
+            // uid de un usuario ya borrado (fk_pets_owner): 401, no 500
+            throw staleOwnerTranslator.translate(ownerId, ex);
+        }
+        for (int k = 0; k < ids.size(); k++) {
+            int i = positions.get(k);
+            results[i] = Item.ok(i, 201, ids.get(k), 0L);
+        }
+        return finish(ownerId, results);
+    }
+
+    @Transactional
+    public PetBatchResult updateAll(Long ownerId, List<PetBatchUpdate> requests) {
+        checkSize(requests);
+        Item[] results = new Item[requests.size()];
+        List<Integer> positions = new ArrayList<>();
+        List<PetBatchUpdate> valid = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            PetBatchUpdate update = requests.get(i);
+            String error = validate(update);
+            if (error != null) {
+                results[i] = Item.failed(i, 400, update != null ? update.id() : null, error);
+            } else {
+                positions.add(i);
+                valid.add(new PetBatchUpdate(update.id(), update.version(), normalized(update.pet())));
+            }
+        }
+
+        int[] counts = petBatchRepository.updateAll(ownerId, valid);
+        // Una sola consulta para la versión nueva de los actualizados y para distinguir 404/412 en el resto
+        Map<Long, Long> versions = petBatchRepository.findVersions(ownerId,
+                valid.stream().map(PetBatchUpdate::id).distinct().toList());
+        for (int k = 0; k < valid.size(); k++) {
+            int i = positions.get(k);
+            PetBatchUpdate update = valid.get(k);
+            results[i] = counts[k] > 0
+                    ? Item.ok(i, 200, update.id(), versions.get(update.id()))
+                    : missed(i, update.id(), versions);
+        }
+        return finish(ownerId, results);
+    }
+
+    @Transactional
+    public PetBatchResult deleteAll(Long ownerId, List<PetBatchDelete> requests) {
+        checkSize(requests);
+        Item[] results = new Item[requests.size()];
+        List<Integer> positions = new ArrayList<>();
+        List<PetBatchDelete> valid = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            PetBatchDelete delete = requests.get(i);
+            String error = validate(delete);
+            if (error != null) {
+                results[i] = Item.failed(i, 400, delete != null ? delete.id() : null, error);
+            } else {
+                positions.add(i);
+                valid.add(delete);
+            }
+        }
+
+        int[] counts = petBatchRepository.deleteAll(ownerId, valid);
+        List<Long> notDeleted = new ArrayList<>();
+        for (int k = 0; k < valid.size(); k++) {
+            if (counts[k] == 0) {
+                notDeleted.add(valid.get(k).id());
+            }
+        }
+        // Solo los no borrados: si siguen existiendo es por versión (412), si no, 404
+        Map<Long, Long> versions = notDeleted.isEmpty()
+                ? Map.of()
+                : petBatchRepository.findVersions(ownerId, notDeleted);
+        for (int k = 0; k < valid.size(); k++) {
+            int i = positions.get(k);
+            Long id = valid.get(k).id();
+            results[i] = counts[k] > 0 ? Item.ok(i, 204, id, null) : missed(i, id, versions);
+        }
+        return finish(ownerId, results);
+    }
+
+    private void checkSize(List<?> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Batch must contain at least one item");
+        }
+        if (requests.size() > maxItems) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Batch too large: max " + maxItems + " items");
+        }
+    }
+
+    /** Primer error de validación del elemento ("campo: mensaje"), o null si es válido. */
+    private String validate(Object item) {
+        if (item == null) {
+            return "item must not be null";
+        }
+        return validator.validate(item).stream()
+                .sorted(Comparator.comparing((ConstraintViolation<Object> v) -> v.getPropertyPath().toString()))
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static Item missed(int index, Long id, Map<Long, Long> currentVersions) {
+        return currentVersions.containsKey(id)
+                ? Item.failed(index, 412, id, "Pet was modified by another request")
+                : Item.failed(index, 404, id, "Pet not found");
+    }
+
+    private PetBatchResult finish(Long ownerId, Item[] results) {
+        if (Arrays.stream(results).anyMatch(Item::succeeded)) {
+            petChangeCounter.increment(ownerId);
+            petCacheInvalidator.ownerChanged(ownerId);
+        }
+        return PetBatchResult.of(List.of(results));
+    }
+
+    // Misma normalización (trim) que el alta individual
+    private static PetCreateRequest normalized(PetCreateRequest req) {
+        return new PetCreateRequest(req.name().trim(), req.species().trim(), req.breed().trim(),
+                req.sex().trim(), req.birthDate(), req.weightKg());
+    }
+}
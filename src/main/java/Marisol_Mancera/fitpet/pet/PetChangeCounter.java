@@ -0,0 +1,49 @@
+package Marisol_Mancera.fitpet.pet;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Contador de cambios de las mascotas de cada dueño (tabla pet_owner_changes).
+ * - Se incrementa en la misma transacción que el alta/cambio/baja: si se hace rollback, no cuenta.
+ * - Es el ETag del listado: comprobar If-None-Match cuesta una lectura por PK, sin tocar pets.
+ * - El UPDATE bloquea la fila del dueño hasta el commit; las escrituras de un mismo dueño
+ *   se serializan, las de dueños distintos no se afectan.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PetChangeCounter {
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /** Valor actual del contador (0 si el dueño aún no ha cambiado nada). */
+    public long current(Long ownerId) {
+        var rows = jdbc.queryForList(
+                "select change_count from pet_owner_changes where owner_id = :ownerId",
+                new MapSqlParameterSource("ownerId", ownerId), Long.class);
+        return rows.isEmpty() ? 0L : rows.get(0);
+    }
+
+    /** Suma un cambio; crea la fila en el primer cambio del dueño. */
+    public void increment(Long ownerId) {
+        var params = new MapSqlParameterSource("ownerId", ownerId);
+        if (update(params) > 0) {
+            return;
+        }
+        try {
+            jdbc.update("insert into pet_owner_changes (owner_id, change_count) values (:ownerId, 1)", params);
+        } catch (DuplicateKeyException raced) {
+            // otra transacción creó la fila entre el UPDATE y el INSERT
+            update(params);
+        }
+    }
+
+    private int update(MapSqlParameterSource params) {
+        return jdbc.update(
+                "update pet_owner_changes set change_count = change_count + 1 where owner_id = :ownerId", params);
+    }
+}
@@ -2,24 +2,30 @@ package Marisol_Mancera.fitpet.pet;
 
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
+import Marisol_Mancera.fitpet.common.http.ETags;
 import Marisol_Mancera.fitpet.pet.dto.PetCreateRequest;
 import Marisol_Mancera.fitpet.pet.dto.PetDTOResponse;
+import Marisol_Mancera.fitpet.pet.dto.PetPage;
 import Marisol_Mancera.fitpet.pet.mapper.PetMapper;
+import Marisol_Mancera.fitpet.security.OwnerPrincipal;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
@@ -28,8 +34,10 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class PetController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+
     private final PetService petService;
-    private final PetRepository petRepository;
 
     @PostMapping
     public ResponseEntity<PetDTOResponse> create(@Valid @RequestBody PetCreateRequest request) {
@@ -41,86 +49,117 @@ public class PetController {
                 .path("/{id}")
                 .buildAndExpand(saved.getId())
                 .toUri();
-        return ResponseEntity.created(location).body(dto);
+        return ResponseEntity.created(location).eTag(ETags.of(saved.getVersion())).body(dto);
     }
 
-    private String currentUsername() {
-        return SecurityContextHolder.getContext()
-                .getAuthentication()
-                .getName();
+    private Long currentOwnerId() {
+        return OwnerPrincipal.current().id();
     }
 
     /**
-     * Lista mascotas del usuario autenticado.
+     * Lista mascotas del usuario autenticado, paginadas por keyset (id_pet ascendente).
      * Soporta filtro opcional por especie (query param).
      * 
      * @param species (opcional) - filtra por especie (ej: "Dog", "Cat")
-     * @return lista de mascotas del dueño (filtradas si se especifica especie)
+     * @param cursor (opcional) - valor de X-Next-Cursor de la página anterior
+     * @param limit (opcional) - tamaño de página (por defecto pets.page.default-size, máx. pets.page.max-size)
+     * @param ifNoneMatch (opcional) - ETag de una respuesta anterior; si nada ha cambiado, 304 sin leer mascotas
+     * @return página de mascotas del dueño con ETag (contador de cambios del dueño);
+     *         si hay más, cabeceras X-Next-Cursor y Link rel="next"
      * 
      * Ejemplos de uso:
-     * - GET /api/v1/pets → todas las mascotas del usuario
+     * - GET /api/v1/pets → primera página de mascotas del usuario
      * - GET /api/v1/pets?species=Dog → solo perros del usuario
+     * - GET /api/v1/pets?limit=100&cursor=NDI6 → página siguiente
      * 
      */
     @GetMapping
     public ResponseEntity<List<PetDTOResponse>> listMine(
-            @RequestParam(required = false) String species) {
-        String username = currentUsername();
-        
-        List<PetEntity> pets;
-        if (species != null && !species.isBlank()) {
-            // Filtro por especie (normalizado con trim para evitar errores por espacios)
-            pets = petRepository.findByOwner_UsernameAndSpecies(username, species.trim());
-        } else {
-            // Sin filtro, todas las mascotas del usuario
-            pets = petRepository.findByOwner_Username(username);
+            @RequestParam(required = false) String species,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Long ownerId = currentOwnerId();
+        String etag = ETags.of(petService.listVersion(ownerId));
+        if (ETags.noneMatchHits(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
         }
-        
-        var result = pets.stream()
-                .map(PetMapper::toDTO)
-                .toList();
 
-        return ResponseEntity.ok(result);
+        // Filtro por especie normalizado con trim para evitar errores por espacios
+        String speciesFilter = species != null && !species.isBlank() ? species.trim() : null;
+
+        PetPage page = petService.listMine(ownerId, speciesFilter, cursor, limit);
+
+        var response = ResponseEntity.ok().eTag(etag);
+        if (page.nextCursor() != null) {
+            var next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.nextCursor())
+                    .build()
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor())
+                    .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.items());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<PetDTOResponse> getById(@PathVariable Long id) {
-        String username = currentUsername();
-        // Busca solo si pertenece al dueño (seguridad por ownership)
-        var pet = petRepository.findByIdAndOwner_Username(id, username)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Pet not found"));
-
-        return ResponseEntity.ok(PetMapper.toDTO(pet));
+    public ResponseEntity<PetDTOResponse> getById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Long ownerId = currentOwnerId();
+        if (ifNoneMatch != null) {
+            // Solo la columna version: si el cliente ya tiene esta versión no se lee la fila
+            String etag = ETags.of(petService.versionOf(id, ownerId));
+            if (ETags.noneMatchHits(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
+        // Busca solo si pertenece al dueño (seguridad por ownership), sin pasar por Hibernate
+        var pet = petService.getMine(id, ownerId);
+        return ResponseEntity.ok().eTag(ETags.of(pet.version())).body(pet.pet());
     }
 
+    /**
+     * Borra la mascota del dueño.
+     * Con If-Match solo borra si coincide con el ETag actual (si no, 412).
+     */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteById(@PathVariable Long id) {
-        String username = currentUsername();
-        // Verifica ownership antes de eliminar
-        PetEntity pet = petRepository.findByIdAndOwner_Username(id, username)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Pet not found"));
-
-        petRepository.delete(pet);
+    public ResponseEntity<Void> deleteById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        petService.deleteMine(id, currentOwnerId(), ifMatch);
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Sustituye los campos de la mascota del dueño.
+     * Con If-Match solo actualiza si coincide con el ETag actual (si no, 412); la respuesta
+     * lleva el ETag de la nueva versión. Sin If-Match la respuesta va sin ETag (no se relee la fila).
+     */
     @PutMapping("/{id}")
     public ResponseEntity<PetDTOResponse> updateById(@PathVariable Long id,
-            @RequestBody @Valid PetCreateRequest request) {
-        String username = currentUsername();
-        // Verifica ownership antes de actualizar
-        PetEntity pet = petRepository.findByIdAndOwner_Username(id, username)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Pet not found"));
-
-        // Actualiza campos (normaliza trim en strings)
-        pet.setName(request.name().trim());
-        pet.setSpecies(request.species().trim());
-        pet.setBreed(request.breed().trim());
-        pet.setSex(request.sex().trim());
-        pet.setBirthDate(request.birthDate());
-        pet.setWeightKg(request.weightKg());
-
-        PetEntity saved = petRepository.save(pet);
-        return ResponseEntity.ok(PetMapper.toDTO(saved));
+            @RequestBody @Valid PetCreateRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        var updated = petService.updateMine(id, currentOwnerId(), request, ifMatch);
+        var response = ResponseEntity.ok();
+        if (updated.version() != null) {
+            response.eTag(ETags.of(updated.version()));
+        }
+        return response.body(updated.pet());
+    }
+
+    /**
+     * Actualización parcial con JSON Merge Patch (application/merge-patch+json): solo cambian
+     * los campos enviados, p. ej. {"weightKg": 7.9} tras un pesaje. Un único UPDATE de esas columnas.
+     * Con If-Match solo actualiza si coincide con el ETag actual (si no, 412).
+     * @return 204 sin cuerpo (no se relee la fila); con If-Match, ETag de la nueva versión
+     */
+    @PatchMapping(value = "/{id}", consumes = MERGE_PATCH_JSON)
+    public ResponseEntity<Void> patchById(@PathVariable Long id, @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long version = petService.patchMine(id, currentOwnerId(), patch, ifMatch);
+        var response = ResponseEntity.noContent();
+        if (version != null) {
+            response.eTag(ETags.of(version));
+        }
+        return response.build();
     }
-}
\ No newline at end of file
+}
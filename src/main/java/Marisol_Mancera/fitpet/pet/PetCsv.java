@@ -0,0 +1,126 @@
+package Marisol_Mancera.fitpet.pet;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import Marisol_Mancera.fitpet.pet.dto.PetDTOResponse;
+
+/**
+ * Formato CSV de mascotas (RFC 4180, separador coma, fin de línea CRLF).
+ * Un campo va entre comillas solo si contiene coma, comillas o saltos de línea;
+ * las comillas internas se duplican.
+ * La lectura (RecordReader) acepta también LF y campos entrecomillados de varias líneas.
+ */
+final class PetCsv {
+
+    static final String HEADER = "id,ownerId,name,species,breed,sex,birthDate,weightKg";
+
+    private PetCsv() {}
+
+    static void writeHeader(Writer out) throws IOException {
+        out.write(HEADER);
+        out.write("\r\n");
+    }
+
+    static void writeRow(Writer out, PetDTOResponse pet) throws IOException {
+        out.write(String.valueOf(pet.id()));
+        out.write(',');
+        out.write(String.valueOf(pet.ownerId()));
+        out.write(',');
+        writeField(out, pet.name());
+        out.write(',');
+        writeField(out, pet.species());
+        out.write(',');
+        writeField(out, pet.breed());
+        out.write(',');
+        writeField(out, pet.sex());
+        out.write(',');
+        out.write(pet.birthDate() != null ? pet.birthDate().toString() : "");
+        out.write(',');
+        out.write(pet.weightKg() != null ? pet.weightKg().toPlainString() : "");
+        out.write("\r\n");
+    }
+
+    static void writeField(Writer out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    /**
+     * Lector incremental de registros CSV: consume el Reader carácter a carácter y solo
+     * guarda el registro en curso, acotado a maxChars (un registro mayor aborta la lectura).
+     */
+    static final class RecordReader {
+
+        private final Reader in;
+        private final int maxChars;
+
+        RecordReader(Reader in, int maxChars) {
+            this.in = in;
+            this.maxChars = maxChars;
+        }
+
+        /** @return campos del siguiente registro, o null al final del fichero */
+        List<String> next() throws IOException {
+            int c = in.read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            var field = new StringBuilder();
+            boolean quoted = false;
+            int chars = 0;
+            while (true) {
+                if (c == -1) {
+                    if (quoted) {
+                        throw new IOException("Unterminated quoted field at end of file");
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                }
+                if (++chars > maxChars) {
+                    throw new IOException("Record longer than " + maxChars + " characters");
+                }
+                if (quoted) {
+                    if (c == '"') {
+                        int next = in.read();
+                        if (next != '"') {
+                            // comilla de cierre: 'next' se procesa como carácter normal
+                            quoted = false;
+                            c = next;
+                            continue;
+                        }
+                    }
+                    field.append((char) c);
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = in.read();
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package Marisol_Mancera.fitpet.pet;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Cursor opaco de paginación por keyset.
+ * - Guarda el último id_pet devuelto y el filtro de especie con el que se pidió la página.
+ * - Se serializa en base64url: el cliente solo lo reenvía, no debe interpretarlo.
+ * - Un cursor de otro filtro o mal formado es un 400, no una página incorrecta.
+ */
+public record PetCursor(long lastId, String species) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public String encode() {
+        String raw = lastId + ":" + (species != null ? species : "");
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param species filtro de la petición actual (debe coincidir con el del cursor)
+     * @throws ResponseStatusException 400 si el cursor no es válido
+     */
+    public static PetCursor decode(String token, String species) {
+        try {
+            String raw = new String(DECODER.decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            long lastId = Long.parseLong(raw.substring(0, sep));
+            String cursorSpecies = raw.substring(sep + 1);
+            if (!Objects.equals(cursorSpecies.isEmpty() ? null : cursorSpecies, species)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor does not match species filter");
+            }
+            return new PetCursor(lastId, species);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
@@ -4,6 +4,8 @@ package Marisol_Mancera.fitpet.pet;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+import org.hibernate.annotations.DynamicUpdate;
+
 import Marisol_Mancera.fitpet.user.UserEntity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -11,9 +13,11 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Past;
 import jakarta.validation.constraints.Positive;
@@ -24,7 +28,14 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "pets")
+@Table(name = "pets", indexes = {
+        // keyset de listMine: WHERE owner_id = ? [AND species = ?] AND id_pet > ? ORDER BY id_pet
+        // (los crea la migración V3__pet_query_indexes.sql; aquí solo documentan el mapeo)
+        @Index(name = "idx_pets_owner_id_pet", columnList = "owner_id, id_pet"),
+        @Index(name = "idx_pets_owner_species_id_pet", columnList = "owner_id, species, id_pet")
+})
+// Los UPDATE de una entidad gestionada escriben solo las columnas cambiadas (+ version)
+@DynamicUpdate
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
@@ -62,5 +73,10 @@ public class PetEntity {
     @Positive
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal weightKg;
+
+    // Bloqueo optimista: UPDATE/DELETE llevan "where version = ?"; también es el ETag de la mascota
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
 
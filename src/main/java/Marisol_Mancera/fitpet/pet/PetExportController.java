@@ -0,0 +1,49 @@
+package Marisol_Mancera.fitpet.pet;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import Marisol_Mancera.fitpet.security.OwnerPrincipal;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Exportación completa de las mascotas del usuario autenticado.
+ * - La respuesta se escribe en streaming (StreamingResponseBody) desde un cursor de BD.
+ * - El dueño se resuelve aquí, en el hilo de la petición: el cuerpo se escribe en otro hilo.
+ * - Exportaciones simultáneas acotadas por nodo y por dueño (503 + Retry-After al superarlas).
+ * 
+ * Ejemplos de uso:
+ * - GET /api/v1/pets/export → NDJSON (una mascota por línea)
+ * - GET /api/v1/pets/export?format=csv&species=Dog → CSV solo con perros
+ */
+@RestController
+@RequestMapping("/api/v1/pets")
+@RequiredArgsConstructor
+public class PetExportController {
+
+    private final PetExportService petExportService;
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String species) {
+        Long ownerId = OwnerPrincipal.current().id();
+        PetFileFormat exportFormat = PetFileFormat.parse(format);
+        // Filtro por especie normalizado con trim, como en el listado
+        String speciesFilter = species != null && !species.isBlank() ? species.trim() : null;
+
+        // Reserva el hueco aquí: si no lo hay, 503 antes de enviar cabeceras
+        StreamingResponseBody body = petExportService.open(ownerId, speciesFilter, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(exportFormat.fileName()).build().toString())
+                .body(body);
+    }
+}
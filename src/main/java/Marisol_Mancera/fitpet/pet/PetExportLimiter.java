@@ -0,0 +1,69 @@
+package Marisol_Mancera.fitpet.pet;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import Marisol_Mancera.fitpet.common.error.ServiceUnavailableException;
+
+/**
+ * Cupo de exportaciones simultáneas.
+ * Cada exportación tiene un cursor abierto, y por tanto una conexión JDBC, hasta terminar de escribir;
+ * con un cliente lento eso llega a spring.mvc.async.request-timeout.
+ * - pets.export.max-concurrent por nodo (por debajo del pool de conexiones) y
+ *   pets.export.max-concurrent-per-owner por dueño.
+ * - Sin hueco: 503 + Retry-After antes de pedir la conexión.
+ */
+@Component
+class PetExportLimiter {
+
+    private final Semaphore slots;
+    private final int maxPerOwner;
+    private final long retryAfterSeconds;
+    private final ConcurrentMap<Long, Integer> running = new ConcurrentHashMap<>();
+
+    PetExportLimiter(@Value("${pets.export.max-concurrent:4}") int maxConcurrent,
+                     @Value("${pets.export.max-concurrent-per-owner:1}") int maxPerOwner,
+                     @Value("${pets.export.retry-after-seconds:10}") long retryAfterSeconds) {
+        if (maxConcurrent <= 0 || maxPerOwner <= 0) {
+            throw new IllegalArgumentException("pets.export.max-concurrent and max-concurrent-per-owner must be > 0");
+        }
+        this.slots = new Semaphore(maxConcurrent);
+        this.maxPerOwner = maxPerOwner;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Reserva un hueco para el dueño o lanza ServiceUnavailableException.
+     * @return liberación del hueco (idempotente), a llamar al terminar de escribir
+     */
+    Runnable acquire(Long ownerId) {
+        if (!slots.tryAcquire()) {
+            throw new ServiceUnavailableException("Too many exports in progress, retry later", retryAfterSeconds);
+        }
+        var admitted = new AtomicBoolean();
+        running.compute(ownerId, (id, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= maxPerOwner) {
+                return count;
+            }
+            admitted.set(true);
+            return current + 1;
+        });
+        if (!admitted.get()) {
+            slots.release();
+            throw new ServiceUnavailableException("An export is already in progress, retry later", retryAfterSeconds);
+        }
+        var released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                running.computeIfPresent(ownerId, (id, count) -> count > 1 ? count - 1 : null);
+                slots.release();
+            }
+        };
+    }
+}
@@ -0,0 +1,149 @@
+package Marisol_Mancera.fitpet.pet;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import Marisol_Mancera.fitpet.pet.dto.PetDTOResponse;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Exportación de las mascotas de un dueño en streaming (NDJSON o CSV).
+ * - Las filas salen de un cursor de solo avance (PetReadRepository.forEachByOwner) con
+ *   ventana fija de pets.export.fetch-size filas y se escriben según llegan: no se acumulan.
+ * - Se vacía el buffer al empezar y tras cada ventana, así el cliente recibe bytes desde
+ *   la primera fila y el heap es constante sea cual sea el tamaño de la exportación.
+ * - open() reserva antes un hueco en PetExportLimiter (por nodo y por dueño): cada exportación
+ *   retiene una conexión mientras escribe, así que no pueden agotar el pool.
+ */
+@Service
+@RequiredArgsConstructor
+public class PetExportService {
+
+    private final PetReadRepository petReadRepository;
+    private final ObjectMapper objectMapper;
+    private final PetExportLimiter petExportLimiter;
+
+    @Value("${pets.export.fetch-size:500}")
+    private int fetchSize;
+
+    /**
+     * Cuerpo de la respuesta de exportación; se llama en el hilo de la petición.
+     * Sin hueco lanza ServiceUnavailableException (503) antes de abrir el cursor; el hueco
+     * se libera al terminar de escribir, bien o mal.
+     * Si el cuerpo no llega a ejecutarse (el executor rechaza la tarea, o timeout/error con la
+     * tarea aún en cola) lo libera el fin de la petición asíncrona, y el cuerpo ya no escribe.
+     */
+    public StreamingResponseBody open(Long ownerId, String species, PetFileFormat format) {
+        Runnable release = petExportLimiter.acquire(ownerId);
+        var claimed = new AtomicBoolean();
+        var request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(PetExportService.class.getName(),
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                        if (claimed.compareAndSet(false, true)) {
+                            release.run();
+                        }
+                    }
+                });
+        return out -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                export(ownerId, species, format, out);
+            } finally {
+                release.run();
+            }
+        };
+    }
+
+    /**
+     * Escribe las mascotas del dueño en 'out' (no lo cierra).
+     * @param species filtro opcional (null = todas)
+     */
+    public void export(Long ownerId, String species, PetFileFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try {
+            switch (format) {
+                case NDJSON -> writeNdjson(ownerId, species, writer);
+                case CSV -> writeCsv(ownerId, species, writer);
+            }
+        } catch (UncheckedIOException ex) {
+            // p. ej. el cliente cortó la descarga: se aborta la consulta y se libera la conexión
+            throw ex.getCause();
+        }
+        writer.flush();
+    }
+
+    private void writeNdjson(Long ownerId, String species, Writer writer) throws IOException {
+        // Sin FLUSH_AFTER_WRITE_VALUE: se vacía por ventanas, no en cada fila
+        ObjectWriter rows = objectMapper.writerFor(PetDTOResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator json = objectMapper.getFactory().createGenerator(writer);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Un objeto por línea: sin el espacio que Jackson pone por defecto entre valores raíz
+        json.setRootValueSeparator(null);
+        var window = new Window();
+        petReadRepository.forEachByOwner(ownerId, species, fetchSize, pet -> {
+            try {
+                rows.writeValue(json, pet);
+                json.writeRaw('\n');
+                if (window.rowDone()) {
+                    json.flush();
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        json.close();
+    }
+
+    private void writeCsv(Long ownerId, String species, Writer writer) throws IOException {
+        PetCsv.writeHeader(writer);
+        writer.flush();
+        var window = new Window();
+        petReadRepository.forEachByOwner(ownerId, species, fetchSize, pet -> {
+            try {
+                PetCsv.writeRow(writer, pet);
+                if (window.rowDone()) {
+                    writer.flush();
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    /** Cuenta filas escritas: true tras la primera y al cerrar cada ventana de fetchSize filas. */
+    private final class Window {
+        private long rows;
+
+        boolean rowDone() {
+            rows++;
+            return rows == 1 || rows % fetchSize == 0;
+        }
+    }
+}
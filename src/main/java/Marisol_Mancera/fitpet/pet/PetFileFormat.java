@@ -0,0 +1,60 @@
+package Marisol_Mancera.fitpet.pet;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Formatos de fichero de mascotas para exportación e importación.
+ * - NDJSON: un PetDTOResponse / PetCreateRequest JSON por línea.
+ * - CSV: RFC 4180 con cabecera (ver PetCsv).
+ */
+public enum PetFileFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON, "pets.ndjson"),
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "pets.csv");
+
+    private final MediaType mediaType;
+    private final String fileName;
+
+    PetFileFormat(MediaType mediaType, String fileName) {
+        this.mediaType = mediaType;
+        this.fileName = fileName;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    /** Nombre de fichero sugerido para Content-Disposition. */
+    public String fileName() {
+        return fileName;
+    }
+
+    /** @throws ResponseStatusException 400 si el formato no es ndjson ni csv */
+    public static PetFileFormat parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported format: " + value);
+        }
+    }
+
+    /** Formato según el Content-Type de la petición (parámetros como charset se ignoran). */
+    public static PetFileFormat fromContentType(String contentType) {
+        try {
+            MediaType type = MediaType.parseMediaType(contentType);
+            for (PetFileFormat format : values()) {
+                if (format.mediaType.isCompatibleWith(type) && !type.isWildcardSubtype()) {
+                    return format;
+                }
+            }
+        } catch (RuntimeException ex) {
+            // cabecera ausente o mal formada: mismo 400 que un tipo no soportado
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Unsupported Content-Type: use text/csv or application/x-ndjson");
+    }
+}
@@ -0,0 +1,76 @@
+package Marisol_Mancera.fitpet.pet;
+
+import java.io.InputStream;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import Marisol_Mancera.fitpet.pet.dto.PetImportProgress;
+import Marisol_Mancera.fitpet.security.OwnerPrincipal;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Importación de mascotas en dos pasos para poder seguir el progreso:
+ * 1. POST /api/v1/pets/imports → 201 + Location con la importación (PENDING).
+ * 2. PUT  /api/v1/pets/imports/{id} con el fichero (Content-Type text/csv o application/x-ndjson);
+ *    se procesa en streaming y responde con el resultado final.
+ * Mientras tanto: GET /api/v1/pets/imports/{id} (progreso) y GET .../{id}/errors (filas rechazadas).
+ * 
+ * CSV: cabecera con name,species,breed,sex,birthDate,weightKg (otras columnas, como las de
+ * /api/v1/pets/export, se ignoran). NDJSON: un PetCreateRequest por línea.
+ */
+@RestController
+@RequestMapping("/api/v1/pets/imports")
+@RequiredArgsConstructor
+public class PetImportController {
+
+    private final PetImportService petImportService;
+
+    @PostMapping
+    public ResponseEntity<PetImportProgress> create() {
+        PetImportProgress created = petImportService.create(currentOwnerId());
+        var location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(created.id())
+                .toUri();
+        return ResponseEntity.created(location).body(created);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<PetImportProgress> upload(@PathVariable String id,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream body) {
+        PetFileFormat format = PetFileFormat.fromContentType(contentType);
+        return ResponseEntity.ok(petImportService.run(currentOwnerId(), id, format, body));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<PetImportProgress> progress(@PathVariable String id) {
+        return ResponseEntity.ok(petImportService.progress(currentOwnerId(), id));
+    }
+
+    @GetMapping("/{id}/errors")
+    public ResponseEntity<Resource> errors(@PathVariable String id) {
+        var file = new FileSystemResource(petImportService.errorFile(currentOwnerId(), id));
+        return ResponseEntity.ok()
+                .contentType(PetFileFormat.CSV.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("import-" + id + "-errors.csv").build().toString())
+                .body(file);
+    }
+
+    private Long currentOwnerId() {
+        return OwnerPrincipal.current().id();
+    }
+}
@@ -0,0 +1,86 @@
+package Marisol_Mancera.fitpet.pet;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import Marisol_Mancera.fitpet.pet.dto.PetImportProgress;
+
+/**
+ * Importación en memoria: contadores de progreso y ruta del fichero de errores (en disco).
+ * Los contadores se actualizan tras cada lote, así GET /imports/{id} ve el avance mientras
+ * el fichero se sigue subiendo.
+ */
+final class PetImportJob {
+
+    enum Status { PENDING, RUNNING, COMPLETED, FAILED }
+
+    private final String id;
+    private final Long ownerId;
+    private final Path errorFile;
+    private final Instant createdAt = Instant.now();
+    private final AtomicReference<Status> status = new AtomicReference<>(Status.PENDING);
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    PetImportJob(String id, Long ownerId, Path errorFile) {
+        this.id = id;
+        this.ownerId = ownerId;
+        this.errorFile = errorFile;
+    }
+
+    String id() {
+        return id;
+    }
+
+    Long ownerId() {
+        return ownerId;
+    }
+
+    Path errorFile() {
+        return errorFile;
+    }
+
+    Instant createdAt() {
+        return createdAt;
+    }
+
+    Instant finishedAt() {
+        return finishedAt;
+    }
+
+    Status status() {
+        return status.get();
+    }
+
+    /** Solo una subida por importación: PENDING → RUNNING. */
+    boolean start() {
+        return status.compareAndSet(Status.PENDING, Status.RUNNING);
+    }
+
+    void batchDone(long batchRows, long batchImported, long batchFailed) {
+        rows.addAndGet(batchRows);
+        imported.addAndGet(batchImported);
+        failed.addAndGet(batchFailed);
+    }
+
+    void complete() {
+        finishedAt = Instant.now();
+        status.set(Status.COMPLETED);
+    }
+
+    void fail(String message) {
+        error = message;
+        finishedAt = Instant.now();
+        status.set(Status.FAILED);
+    }
+
+    PetImportProgress progress() {
+        return new PetImportProgress(id, status().name(), rows.get(), imported.get(), failed.get(),
+                createdAt, finishedAt, error);
+    }
+}
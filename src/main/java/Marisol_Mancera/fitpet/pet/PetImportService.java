@@ -0,0 +1,347 @@
+package Marisol_Mancera.fitpet.pet;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import Marisol_Mancera.fitpet.common.error.ConflictException;
+import Marisol_Mancera.fitpet.pet.dto.PetBatchResult;
+import Marisol_Mancera.fitpet.pet.dto.PetCreateRequest;
+import Marisol_Mancera.fitpet.pet.dto.PetImportProgress;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Importación de mascotas desde CSV o NDJSON en streaming.
+ * - El cuerpo se lee registro a registro; en memoria solo hay un lote (pets.import.batch-size)
+ *   y un registro como máximo de pets.import.max-record-chars caracteres.
+ * - Cada lote pasa por PetBatchService.createAll: mismas reglas que PetCreateRequest,
+ *   INSERT por lotes JDBC y una transacción por lote (un fallo a mitad deja los lotes previos).
+ * - Contrapresión: no se lee el siguiente lote hasta escribir el actual, así que el cliente
+ *   sube tan rápido como la BD inserta.
+ * - Las filas rechazadas van a un fichero CSV temporal (row,error) descargable; las importaciones
+ *   terminadas se olvidan tras pets.import.retention. Estado local al nodo que recibe la subida.
+ * - Cada dueño tiene como mucho pets.import.max-pending-per-owner importaciones sin terminar
+ *   (PENDING o RUNNING, cada una con su fichero temporal); por encima, 429.
+ */
+@Service
+@RequiredArgsConstructor
+public class PetImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PetImportService.class);
+
+    private static final List<String> CSV_COLUMNS = List.of("name", "species", "breed", "sex", "birthDate", "weightKg");
+
+    private final PetBatchService petBatchService;
+    private final ObjectMapper objectMapper;
+    private final Map<String, PetImportJob> jobs = new ConcurrentHashMap<>();
+    // dueño -> importaciones sin terminar; se reserva en create y se libera al salir de PENDING/RUNNING
+    private final Map<Long, Integer> unfinished = new ConcurrentHashMap<>();
+
+    @Value("${pets.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${pets.import.max-record-chars:65536}")
+    private int maxRecordChars;
+
+    @Value("${pets.import.retention:PT1H}")
+    private Duration retention;
+
+    @Value("${pets.import.max-pending-per-owner:3}")
+    private int maxPendingPerOwner;
+
+    /**
+     * Registra una importación vacía (PENDING) del dueño.
+     * @throws ResponseStatusException 429 si el dueño ya tiene el máximo de importaciones sin terminar
+     */
+    public PetImportProgress create(Long ownerId) {
+        reserve(ownerId);
+        String id = UUID.randomUUID().toString();
+        try {
+            Path errorFile = Files.createTempFile("pet-import-" + id + "-", ".csv");
+            var job = new PetImportJob(id, ownerId, errorFile);
+            jobs.put(id, job);
+            return job.progress();
+        } catch (IOException ex) {
+            release(ownerId);
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public PetImportProgress progress(Long ownerId, String id) {
+        return find(ownerId, id).progress();
+    }
+
+    /** Fichero de errores (row,error) de la importación; se puede leer mientras avanza. */
+    public Path errorFile(Long ownerId, String id) {
+        return find(ownerId, id).errorFile();
+    }
+
+    /**
+     * Procesa el fichero de una importación PENDING hasta el final del cuerpo.
+     * Un fichero ilegible (cabecera sin columnas obligatorias, registro demasiado largo, corte
+     * de la subida) deja la importación en FAILED con lo importado hasta ese momento.
+     * @throws ConflictException si la importación ya recibió su fichero
+     */
+    public PetImportProgress run(Long ownerId, String id, PetFileFormat format, InputStream body) {
+        PetImportJob job = find(ownerId, id);
+        if (!job.start()) {
+            throw new ConflictException("Import already started");
+        }
+        try (Reader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+                Writer errors = Files.newBufferedWriter(job.errorFile(), StandardCharsets.UTF_8)) {
+            errors.write("row,error\r\n");
+            RowSource source = format == PetFileFormat.CSV ? csvRows(reader) : ndjsonRows(reader);
+            new Importer(ownerId, job, errors).consume(source);
+            job.complete();
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Pet import {} failed: {}", id, ex.getMessage());
+            job.fail(ex.getMessage());
+        } finally {
+            release(ownerId);
+        }
+        return job.progress();
+    }
+
+    @Scheduled(fixedDelayString = "${pets.import.purge-interval:PT5M}",
+            initialDelayString = "${pets.import.purge-interval:PT5M}")
+    public void purgeExpired() {
+        Instant limit = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            // las que siguen recibiendo fichero no caducan; las PENDING cuentan desde su creación
+            Instant last = job.finishedAt() != null ? job.finishedAt() : job.createdAt();
+            if (job.status() == PetImportJob.Status.RUNNING || last.isAfter(limit)) {
+                return false;
+            }
+            if (job.status() == PetImportJob.Status.PENDING) {
+                // se reclama con el mismo CAS que la subida: si esta gana, la importación sigue viva
+                if (!job.start()) {
+                    return false;
+                }
+                job.fail("Import expired before upload");
+                release(job.ownerId());
+            }
+            try {
+                Files.deleteIfExists(job.errorFile());
+            } catch (IOException ex) {
+                log.warn("Could not delete import error file {}: {}", job.errorFile(), ex.getMessage());
+            }
+            return true;
+        });
+    }
+
+    private void reserve(Long ownerId) {
+        boolean[] admitted = {false};
+        unfinished.compute(ownerId, (id, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= maxPendingPerOwner) {
+                return count;
+            }
+            admitted[0] = true;
+            return current + 1;
+        });
+        if (!admitted[0]) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many unfinished imports: max " + maxPendingPerOwner);
+        }
+    }
+
+    private void release(Long ownerId) {
+        unfinished.computeIfPresent(ownerId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private PetImportJob find(Long ownerId, String id) {
+        PetImportJob job = jobs.get(id);
+        if (job == null || !job.ownerId().equals(ownerId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Import not found");
+        }
+        return job;
+    }
+
+    /** Registro leído: la mascota o el motivo por el que no se pudo interpretar. */
+    private record ParsedRow(PetCreateRequest pet, String error) {}
+
+    @FunctionalInterface
+    private interface RowSource {
+        /** @return siguiente registro, o null al final del fichero */
+        ParsedRow next() throws IOException;
+    }
+
+    /** Acumula registros en lotes, los escribe y vuelca los rechazados al fichero de errores. */
+    private final class Importer {
+        private final Long ownerId;
+        private final PetImportJob job;
+        private final Writer errors;
+        private final List<PetCreateRequest> batch = new ArrayList<>();
+        private final List<Long> batchRows = new ArrayList<>();
+        private long row;
+        private long pendingRows;
+        private long pendingFailed;
+
+        Importer(Long ownerId, PetImportJob job, Writer errors) {
+            this.ownerId = ownerId;
+            this.job = job;
+            this.errors = errors;
+        }
+
+        void consume(RowSource source) throws IOException {
+            ParsedRow parsed;
+            while ((parsed = source.next()) != null) {
+                row++;
+                pendingRows++;
+                if (parsed.error() != null) {
+                    reject(row, parsed.error());
+                } else {
+                    batch.add(parsed.pet());
+                    batchRows.add(row);
+                }
+                if (batch.size() >= batchSize) {
+                    flush();
+                }
+            }
+            flush();
+        }
+
+        private void flush() throws IOException {
+            long imported = 0;
+            if (!batch.isEmpty()) {
+                PetBatchResult result = petBatchService.createAll(ownerId, batch);
+                imported = result.succeeded();
+                for (PetBatchResult.Item item : result.items()) {
+                    if (!item.succeeded()) {
+                        reject(batchRows.get(item.index()), item.error());
+                    }
+                }
+                batch.clear();
+                batchRows.clear();
+            }
+            errors.flush();
+            job.batchDone(pendingRows, imported, pendingFailed);
+            pendingRows = 0;
+            pendingFailed = 0;
+        }
+
+        private void reject(long rowNumber, String error) throws IOException {
+            pendingFailed++;
+            errors.write(String.valueOf(rowNumber));
+            errors.write(',');
+            PetCsv.writeField(errors, error);
+            errors.write("\r\n");
+        }
+    }
+
+    private RowSource csvRows(Reader reader) throws IOException {
+        var records = new PetCsv.RecordReader(reader, maxRecordChars);
+        List<String> header = records.next();
+        if (header == null) {
+            return () -> null;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        int[] index = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < index.length; i++) {
+            Integer position = columns.get(CSV_COLUMNS.get(i).toLowerCase(Locale.ROOT));
+            if (position == null) {
+                throw new IOException("Missing CSV column: " + CSV_COLUMNS.get(i));
+            }
+            index[i] = position;
+        }
+        return () -> {
+            List<String> record;
+            do {
+                record = records.next();
+            } while (record != null && record.size() == 1 && record.get(0).isBlank()); // líneas vacías
+            if (record == null) {
+                return null;
+            }
+            String[] values = new String[index.length];
+            for (int i = 0; i < index.length; i++) {
+                values[i] = index[i] < record.size() ? record.get(index[i]) : "";
+            }
+            return fromCsv(values);
+        };
+    }
+
+    private static ParsedRow fromCsv(String[] v) {
+        LocalDate birthDate;
+        BigDecimal weightKg;
+        try {
+            birthDate = v[4].isBlank() ? null : LocalDate.parse(v[4].trim());
+        } catch (DateTimeParseException ex) {
+            return new ParsedRow(null, "birthDate: invalid date (expected yyyy-MM-dd)");
+        }
+        try {
+            weightKg = v[5].isBlank() ? null : new BigDecimal(v[5].trim());
+        } catch (NumberFormatException ex) {
+            return new ParsedRow(null, "weightKg: invalid number");
+        }
+        return new ParsedRow(new PetCreateRequest(v[0], v[1], v[2], v[3], birthDate, weightKg), null);
+    }
+
+    private RowSource ndjsonRows(Reader reader) {
+        var line = new StringBuilder();
+        return () -> {
+            while (readLine(reader, line)) {
+                if (line.toString().isBlank()) {
+                    continue;
+                }
+                try {
+                    return new ParsedRow(objectMapper.readValue(line.toString(), PetCreateRequest.class), null);
+                } catch (JsonProcessingException ex) {
+                    return new ParsedRow(null, "Invalid JSON: " + ex.getOriginalMessage());
+                }
+            }
+            return null;
+        };
+    }
+
+    /** Lee una línea en 'line' (sin fin de línea); false al final del fichero. */
+    private boolean readLine(Reader reader, StringBuilder line) throws IOException {
+        line.setLength(0);
+        int c = reader.read();
+        if (c == -1) {
+            return false;
+        }
+        while (c != -1 && c != '\n') {
+            if (c != '\r') {
+                if (line.length() >= maxRecordChars) {
+                    throw new IOException("Line longer than " + maxRecordChars + " characters");
+                }
+                line.append((char) c);
+            }
+            c = reader.read();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,66 @@
+package Marisol_Mancera.fitpet.pet;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Métricas de las consultas JDBC de mascotas (PetReadRepository, PetBatchRepository y
+ * PetPatchRepository), que no son repositorios Spring Data y no aparecen en
+ * spring.data.repository.invocations.
+ * - fitpet.pets.jdbc (timer, tag query): duración de cada consulta completada.
+ * - fitpet.pets.jdbc.rows (histograma, tag query): filas leídas o escritas por llamada; junto al
+ *   timer de query=list.page da el coste del listado según el número de filas.
+ */
+@Component
+public class PetJdbcMetrics {
+
+    /** Consulta medida; 'tag' es el valor de la etiqueta query. */
+    enum Query {
+        LIST_PAGE("list.page"),
+        FIND_BY_ID("find.by-id"),
+        FIND_VERSION("find.version"),
+        EXPORT("export"),
+        BATCH_INSERT("batch.insert"),
+        BATCH_UPDATE("batch.update"),
+        BATCH_DELETE("batch.delete"),
+        BATCH_VERSIONS("batch.versions"),
+        PATCH("patch");
+
+        final String tag;
+
+        Query(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final Map<Query, Timer> timers = new EnumMap<>(Query.class);
+    private final Map<Query, DistributionSummary> rows = new EnumMap<>(Query.class);
+
+    public PetJdbcMetrics(MeterRegistry registry) {
+        for (Query query : Query.values()) {
+            timers.put(query, Timer.builder("fitpet.pets.jdbc")
+                    .description("Consultas JDBC de mascotas")
+                    .tag("query", query.tag)
+                    .register(registry));
+            rows.put(query, DistributionSummary.builder("fitpet.pets.jdbc.rows")
+                    .description("Filas leídas o escritas por consulta JDBC de mascotas")
+                    .tag("query", query.tag)
+                    .minimumExpectedValue(1d)
+                    .maximumExpectedValue(10_000d)
+                    .register(registry));
+        }
+    }
+
+    /** Registra una consulta que empezó en startNanos (System.nanoTime()) y tocó 'rowCount' filas. */
+    void record(Query query, long startNanos, long rowCount) {
+        timers.get(query).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        rows.get(query).record(rowCount);
+    }
+}
@@ -0,0 +1,60 @@
+package Marisol_Mancera.fitpet.pet;
+
+import java.sql.Types;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import Marisol_Mancera.fitpet.pet.PetJdbcMetrics.Query;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * UPDATE parcial de una mascota con JDBC: el SET lleva solo las columnas del parche
+ * (un pesaje escribe weight_kg y version, nada más) y el WHERE el mismo filtro por
+ * dueño y versión que PetRepository.updateMine.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PetPatchRepository {
+
+    /** Propiedad de PetCreateRequest → columna de pets (también es la lista blanca del SET). */
+    static final Map<String, String> COLUMNS = Map.of(
+            "name", "name",
+            "species", "species",
+            "breed", "breed",
+            "sex", "sex",
+            "birthDate", "birth_date",
+            "weightKg", "weight_kg");
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final PetJdbcMetrics metrics;
+
+    /**
+     * @param changes propiedad → nuevo valor (ya validado); no vacío
+     * @param version versión esperada (If-Match); null = sin condición
+     * @return filas afectadas: 0 si no existe, no es del dueño o la versión no coincide
+     */
+    public int patch(Long id, Long ownerId, Long version, Map<String, Object> changes) {
+        long start = System.nanoTime();
+        var set = new StringJoiner(", ", "update pets set ", ", version = version + 1 ");
+        var params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("ownerId", ownerId)
+                .addValue("version", version, Types.BIGINT);
+        changes.forEach((property, value) -> {
+            String column = COLUMNS.get(property);
+            if (column == null) {
+                throw new IllegalArgumentException("Unknown pet property: " + property);
+            }
+            set.add(column + " = :" + property);
+            params.addValue(property, value);
+        });
+        int updated = jdbc.update(set + "where id_pet = :id and owner_id = :ownerId "
+                + "and version = coalesce(:version, version)", params);
+        metrics.record(Query.PATCH, start, updated);
+        return updated;
+    }
+}
@@ -0,0 +1,129 @@
+package Marisol_Mancera.fitpet.pet;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import Marisol_Mancera.fitpet.pet.PetJdbcMetrics.Query;
+import Marisol_Mancera.fitpet.pet.dto.PetDTOResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Camino de lectura de mascotas sin Hibernate.
+ * - Cada fila se mapea directamente a PetDTOResponse: sin entidades gestionadas,
+ *   sin snapshots de dirty-checking y sin tocar el proxy lazy de owner (owner_id sale de la FK).
+ * - Mismas consultas keyset que PetRepository, sobre los índices (owner_id[, species], id_pet).
+ * Las escrituras siguen pasando por PetRepository/JPA.
+ * Cada consulta se mide en PetJdbcMetrics (fitpet.pets.jdbc y fitpet.pets.jdbc.rows).
+ */
+@Repository
+@RequiredArgsConstructor
+public class PetReadRepository {
+
+    private static final String COLUMNS =
+            "select id_pet, owner_id, name, species, breed, sex, birth_date, weight_kg from pets ";
+
+    private static final String VERSIONED_COLUMNS =
+            "select id_pet, owner_id, name, species, breed, sex, birth_date, weight_kg, version from pets ";
+
+    private static final RowMapper<PetDTOResponse> ROW_MAPPER = (rs, rowNum) -> new PetDTOResponse(
+            rs.getLong("id_pet"),
+            rs.getLong("owner_id"),
+            rs.getString("name"),
+            rs.getString("species"),
+            rs.getString("breed"),
+            rs.getString("sex"),
+            rs.getObject("birth_date", LocalDate.class),
+            rs.getBigDecimal("weight_kg"));
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final PetJdbcMetrics metrics;
+
+    /**
+     * Página por keyset: mascotas del dueño con id_pet > afterId, en orden de id.
+     * @param species filtro opcional (null = todas)
+     */
+    public List<PetDTOResponse> findPage(Long ownerId, String species, long afterId, int limit) {
+        long start = System.nanoTime();
+        var params = new MapSqlParameterSource()
+                .addValue("ownerId", ownerId)
+                .addValue("afterId", afterId)
+                .addValue("limit", limit);
+        String sql;
+        if (species != null) {
+            params.addValue("species", species);
+            sql = COLUMNS + "where owner_id = :ownerId and species = :species and id_pet > :afterId "
+                    + "order by id_pet limit :limit";
+        } else {
+            sql = COLUMNS + "where owner_id = :ownerId and id_pet > :afterId order by id_pet limit :limit";
+        }
+        List<PetDTOResponse> rows = jdbc.query(sql, params, ROW_MAPPER);
+        metrics.record(Query.LIST_PAGE, start, rows.size());
+        return rows;
+    }
+
+    /** Mascota por id solo si pertenece al dueño, con su versión (ETag). */
+    public Optional<VersionedPet> findByIdAndOwnerId(Long id, Long ownerId) {
+        long start = System.nanoTime();
+        var params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("ownerId", ownerId);
+        List<VersionedPet> rows = jdbc.query(
+                VERSIONED_COLUMNS + "where id_pet = :id and owner_id = :ownerId",
+                params,
+                (rs, rowNum) -> new VersionedPet(ROW_MAPPER.mapRow(rs, rowNum), rs.getLong("version")));
+        metrics.record(Query.FIND_BY_ID, start, rows.size());
+        return rows.stream().findFirst();
+    }
+
+    /** Solo la versión (para If-None-Match sin leer la fila completa). */
+    public Optional<Long> findVersion(Long id, Long ownerId) {
+        long start = System.nanoTime();
+        var params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("ownerId", ownerId);
+        List<Long> rows = jdbc.queryForList(
+                "select version from pets where id_pet = :id and owner_id = :ownerId", params, Long.class);
+        metrics.record(Query.FIND_VERSION, start, rows.size());
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Recorre todas las mascotas del dueño (en orden de id) con un cursor de solo avance.
+     * - fetchSize filas por viaje a la BD (en MySQL requiere useCursorFetch=true en la URL;
+     *   sin él Connector/J cargaría el resultado entero en memoria).
+     * - Cada fila se entrega a 'sink' y se descarta: el heap no crece con el número de filas.
+     * @param species filtro opcional (null = todas)
+     */
+    public void forEachByOwner(Long ownerId, String species, int fetchSize, Consumer<PetDTOResponse> sink) {
+        long start = System.nanoTime();
+        long[] rows = {0};
+        String sql = COLUMNS + "where owner_id = ?" + (species != null ? " and species = ?" : "") + " order by id_pet";
+        jdbc.getJdbcTemplate().query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, ownerId);
+            if (species != null) {
+                ps.setString(2, species);
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            sink.accept(ROW_MAPPER.mapRow(rs, rs.getRow()));
+            rows[0]++;
+        });
+        // incluye el tiempo de escribir al cliente: el cursor avanza al ritmo del sink
+        metrics.record(Query.EXPORT, start, rows[0]);
+    }
+
+    /** Mascota y versión de la fila leída. */
+    public record VersionedPet(PetDTOResponse pet, long version) {}
+}
@@ -1,40 +1,42 @@
 package Marisol_Mancera.fitpet.pet;
 
-import java.util.List;
-import java.util.Optional;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 /**
- * Repositorio de mascotas con queries derivadas por Spring Data JPA.
- * 
+ * Escrituras de una mascota del dueño con Spring Data JPA: save() al crear y un único
+ * UPDATE/DELETE condicionado por owner.id (FK pets.owner_id, sin join a users) y versión.
+ * Las lecturas van por PetReadRepository y los lotes por PetBatchRepository (JDBC).
  */
 public interface PetRepository extends JpaRepository<PetEntity, Long> {
 
     /**
-     * Encuentra todas las mascotas de un usuario por su username.
-     * @param username - email del usuario (usado como username)
-     * @return lista de mascotas del usuario
-     */
-    List<PetEntity> findByOwner_Username(String username);
-
-    /**
-     * Encuentra una mascota por ID solo si pertenece al usuario especificado.
-     * Usado para garantizar ownership antes de operaciones sensibles (update, delete, get).
+     * Sustituye los campos de la mascota del dueño en un único UPDATE (sin SELECT previo)
+     * e incrementa la versión.
      * 
-     * @param id - ID de la mascota
-     * @param username - email del usuario (usado como username)
-     * @return Optional con la mascota si existe y pertenece al usuario
+     * @param version - versión esperada (If-Match); null = sin condición
+     * @return filas afectadas: 0 si no existe, no es del dueño o la versión no coincide
      */
-    Optional<PetEntity> findByIdAndOwner_Username(Long id, String username);
-    
+    @Modifying
+    @Query("""
+            update PetEntity p set p.name = :name, p.species = :species, p.breed = :breed, p.sex = :sex,
+                p.birthDate = :birthDate, p.weightKg = :weightKg, p.version = p.version + 1
+            where p.id = :id and p.owner.id = :ownerId and p.version = coalesce(:version, p.version)""")
+    int updateMine(Long id, Long ownerId, Long version, String name, String species, String breed, String sex,
+            LocalDate birthDate, BigDecimal weightKg);
+
     /**
-     * Encuentra mascotas de un usuario filtradas por especie.
-     * 
-     * @param username - email del usuario (usado como username)
-     * @param species - especie a filtrar (ej: "Dog", "Cat")
-     * @return lista de mascotas del usuario de la especie especificada
+     * Borra la mascota del dueño en un único DELETE (sin cargar la entidad).
      * 
+     * @param version - versión esperada (If-Match); null = sin condición
+     * @return filas afectadas: 0 si no existe, no es del dueño o la versión no coincide
      */
-    List<PetEntity> findByOwner_UsernameAndSpecies(String username, String species);
-}
\ No newline at end of file
+    @Modifying
+    @Query("delete from PetEntity p where p.id = :id and p.owner.id = :ownerId "
+            + "and p.version = coalesce(:version, p.version)")
+    int deleteMine(Long id, Long ownerId, Long version);
+}
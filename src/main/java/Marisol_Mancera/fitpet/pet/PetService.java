@@ -1,14 +1,36 @@
 package Marisol_Mancera.fitpet.pet;
 
 
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import Marisol_Mancera.fitpet.common.http.ETags;
+import Marisol_Mancera.fitpet.pet.PetReadRepository.VersionedPet;
+import Marisol_Mancera.fitpet.pet.cache.PetCacheInvalidator;
+import Marisol_Mancera.fitpet.pet.cache.PetListCache;
 import Marisol_Mancera.fitpet.pet.dto.PetCreateRequest;
+import Marisol_Mancera.fitpet.pet.dto.PetDTOResponse;
+import Marisol_Mancera.fitpet.pet.dto.PetPage;
+import Marisol_Mancera.fitpet.security.OwnerPrincipal;
 import Marisol_Mancera.fitpet.user.UserEntity;
 import Marisol_Mancera.fitpet.user.UserRepository;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -16,15 +38,27 @@ import lombok.RequiredArgsConstructor;
 public class PetService {
 
     private final PetRepository petRepository;
+    private final PetReadRepository petReadRepository;
     private final UserRepository userRepository;
+    private final PetChangeCounter petChangeCounter;
+    private final PetListCache petListCache;
+    private final PetCacheInvalidator petCacheInvalidator;
+    private final PetPatchRepository petPatchRepository;
+    private final StaleOwnerTranslator staleOwnerTranslator;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${pets.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${pets.page.max-size:200}")
+    private int maxPageSize;
 
     @Transactional
     public PetEntity createForCurrentOwner(PetCreateRequest req) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
-
-        UserEntity owner = userRepository.findByUsername(username)
-                .orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
+        // Referencia por id (sin SELECT de users ni de sus roles): solo se necesita la FK
+        Long ownerId = OwnerPrincipal.current().id();
+        UserEntity owner = userRepository.getReferenceById(ownerId);
 
         PetEntity entity = PetEntity.builder()
                 .owner(owner)
@@ -36,7 +70,242 @@ public class PetService {
                 .weightKg(req.weightKg())
                 .build();
 
-        return petRepository.save(entity);
+        try {
+            PetEntity saved = petRepository.save(entity);
+            changed(ownerId);
+            return saved;
+        } catch (DataIntegrityViolationException ex) {
+            // uid de un usuario ya borrado: 401, no 500
+            throw staleOwnerTranslator.translate(ownerId, ex);
+        }
+    }
+
+    /**
+     * Versión del listado del dueño (base del ETag de GET /api/v1/pets).
+     * El controlador la lee antes que las filas: si entra un cambio entre medias, el ETag
+     * queda por detrás del cuerpo y el siguiente sondeo recibe un 200, nunca un 304 obsoleto.
+     * Se sirve de PetListCache mientras el dueño no escriba (un 304 no toca la BD).
+     */
+    public long listVersion(Long ownerId) {
+        Long cached = petListCache.version(ownerId);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = petListCache.stamp(ownerId);
+        long version = petChangeCounter.current(ownerId);
+        petListCache.putVersion(ownerId, stamp, version);
+        return version;
+    }
+
+    /**
+     * Página de mascotas del dueño por keyset sobre id_pet.
+     * - cursor: valor opaco de la página anterior (null = primera página).
+     * - limit: tamaño pedido, acotado a [1, pets.page.max-size] (null = pets.page.default-size).
+     * Se pide una fila de más para saber si hay siguiente página sin un COUNT.
+     */
+    public PetPage listMine(Long ownerId, String species, String cursor, Integer limit) {
+        int size = Math.max(1, Math.min(limit != null ? limit : defaultPageSize, maxPageSize));
+        long afterId = cursor != null && !cursor.isBlank() ? PetCursor.decode(cursor, species).lastId() : 0L;
+
+        PetPage cached = petListCache.page(ownerId, species, afterId, size);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = petListCache.stamp(ownerId);
+
+        // Lectura directa a DTO (JDBC): sin entidades gestionadas ni proxies
+        List<PetDTOResponse> rows = petReadRepository.findPage(ownerId, species, afterId, size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<PetDTOResponse> items = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? new PetCursor(items.get(size - 1).id(), species).encode() : null;
+        var page = new PetPage(items, nextCursor);
+        petListCache.putPage(ownerId, stamp, species, afterId, size, page);
+        return page;
+    }
+
+    /**
+     * Mascota del dueño por id (lectura directa a DTO) con su versión.
+     * @throws ResponseStatusException 404 si no existe o no es suya
+     */
+    public VersionedPet getMine(Long id, Long ownerId) {
+        VersionedPet cached = petListCache.pet(ownerId, id);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = petListCache.stamp(ownerId);
+        VersionedPet pet = petReadRepository.findByIdAndOwnerId(id, ownerId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Pet not found"));
+        petListCache.putPet(ownerId, stamp, pet);
+        return pet;
+    }
+
+    /**
+     * Solo la versión de la mascota (If-None-Match sin leer la fila; de caché si está).
+     * @throws ResponseStatusException 404 si no existe o no es suya
+     */
+    public long versionOf(Long id, Long ownerId) {
+        VersionedPet cached = petListCache.pet(ownerId, id);
+        return cached != null ? cached.version() : currentVersion(id, ownerId);
+    }
+
+    /**
+     * Resultado de un PUT: la mascota tal como quedó y su nueva versión
+     * (null si la actualización fue sin If-Match: no se relee la fila para conocerla).
+     */
+    public record UpdatedPet(PetDTOResponse pet, Long version) {}
+
+    /**
+     * Sustituye los campos de la mascota del dueño con un único UPDATE filtrado por dueño
+     * (y por versión si llega If-Match); las filas afectadas deciden el 404/412.
+     * @param ifMatch cabecera If-Match (null = sin condición)
+     * @throws ResponseStatusException 404 si no es suya, 412 si If-Match no coincide con la versión actual
+     */
+    @Transactional
+    public UpdatedPet updateMine(Long id, Long ownerId, PetCreateRequest req, String ifMatch) {
+        Long expected = expectedVersion(id, ownerId, ifMatch);
+
+        // Normaliza trim en strings (igual que en el alta)
+        var pet = new PetDTOResponse(id, ownerId, req.name().trim(), req.species().trim(), req.breed().trim(),
+                req.sex().trim(), req.birthDate(), req.weightKg());
+        int updated = petRepository.updateMine(id, ownerId, expected, pet.name(), pet.species(), pet.breed(),
+                pet.sex(), pet.birthDate(), pet.weightKg());
+        if (updated == 0) {
+            throw missed(id, ownerId, expected);
+        }
+        changed(ownerId);
+        return new UpdatedPet(pet, expected != null ? expected + 1 : null);
     }
-}
 
+    /**
+     * Borra la mascota del dueño con un único DELETE filtrado por dueño (y por versión si llega If-Match).
+     * @param ifMatch cabecera If-Match (null = sin condición)
+     * @throws ResponseStatusException 404 si no es suya, 412 si If-Match no coincide con la versión actual
+     */
+    @Transactional
+    public void deleteMine(Long id, Long ownerId, String ifMatch) {
+        Long expected = expectedVersion(id, ownerId, ifMatch);
+        if (petRepository.deleteMine(id, ownerId, expected) == 0) {
+            throw missed(id, ownerId, expected);
+        }
+        changed(ownerId);
+    }
+
+    /**
+     * Aplica un JSON Merge Patch (RFC 7396) a la mascota del dueño con un único UPDATE
+     * de las columnas presentes en el parche.
+     * - Cada campo se valida con las mismas reglas que PetCreateRequest; null no borra nada
+     *   (todos los campos son obligatorios) y falla como "must not be null".
+     * - Un parche vacío no escribe: solo comprueba que la mascota existe (y If-Match).
+     * @param ifMatch cabecera If-Match (null = sin condición)
+     * @return nueva versión, o null si no se conoce (parche sin If-Match)
+     * @throws ResponseStatusException 400 si el parche no es válido, 404 si no es suya,
+     *         412 si If-Match no coincide con la versión actual
+     */
+    @Transactional
+    public Long patchMine(Long id, Long ownerId, JsonNode patch, String ifMatch) {
+        Map<String, Object> changes = parsePatch(patch);
+        Long expected = expectedVersion(id, ownerId, ifMatch);
+        if (changes.isEmpty()) {
+            long current = currentVersion(id, ownerId);
+            if (expected != null && expected != current) {
+                throw preconditionFailed();
+            }
+            return current;
+        }
+        if (petPatchRepository.patch(id, ownerId, expected, changes) == 0) {
+            throw missed(id, ownerId, expected);
+        }
+        changed(ownerId);
+        return expected != null ? expected + 1 : null;
+    }
+
+    /** Campos del parche convertidos, normalizados (trim) y validados, en el orden recibido. */
+    private Map<String, Object> parsePatch(JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw badPatch("Merge patch must be a JSON object");
+        }
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (var field : patch.properties()) {
+            String property = field.getKey();
+            Class<?> type = switch (property) {
+                case "name", "species", "breed", "sex" -> String.class;
+                case "birthDate" -> LocalDate.class;
+                case "weightKg" -> BigDecimal.class;
+                default -> throw badPatch(property + ": unknown field");
+            };
+            Object value = convert(property, field.getValue(), type);
+            if (value instanceof String text) {
+                value = text.trim();
+            }
+            Set<ConstraintViolation<PetCreateRequest>> violations =
+                    validator.validateValue(PetCreateRequest.class, property, value);
+            if (!violations.isEmpty()) {
+                throw badPatch(property + ": " + violations.iterator().next().getMessage());
+            }
+            changes.put(property, value);
+        }
+        return changes;
+    }
+
+    private Object convert(String property, JsonNode value, Class<?> type) {
+        if (value.isNull()) {
+            return null;
+        }
+        if (type == String.class && !value.isTextual()) {
+            throw badPatch(property + ": must be a string");
+        }
+        try {
+            return objectMapper.treeToValue(value, type);
+        } catch (JsonProcessingException | IllegalArgumentException ex) {
+            throw badPatch(property + ": invalid value");
+        }
+    }
+
+    private static ResponseStatusException badPatch(String message) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+    }
+
+    /**
+     * Versión que debe tener la fila para escribir: null sin If-Match (o con "*"), la del ETag
+     * si es uno solo. Con una lista de ETags se compara contra la versión leída (una consulta más).
+     */
+    private Long expectedVersion(Long id, Long ownerId, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Long version = ETags.versionOf(ifMatch);
+        if (version != null) {
+            return version;
+        }
+        long current = currentVersion(id, ownerId);
+        if (!ETags.ifMatchAllows(ifMatch, ETags.of(current))) {
+            throw preconditionFailed();
+        }
+        return current;
+    }
+
+    /** Versión leída de BD (las escrituras no se fían de la caché). */
+    private long currentVersion(Long id, Long ownerId) {
+        return petReadRepository.findVersion(id, ownerId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Pet not found"));
+    }
+
+    /** Tras cada escritura: nueva versión del listado del dueño y fuera su caché (aquí y en los demás nodos). */
+    private void changed(Long ownerId) {
+        petChangeCounter.increment(ownerId);
+        petCacheInvalidator.ownerChanged(ownerId);
+    }
+
+    /** Sin filas afectadas: solo si había versión esperada hace falta mirar si la mascota existe (404 vs 412). */
+    private ResponseStatusException missed(Long id, Long ownerId, Long expected) {
+        if (expected != null && petReadRepository.findVersion(id, ownerId).isPresent()) {
+            return preconditionFailed();
+        }
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "Pet not found");
+    }
+
+    private static ResponseStatusException preconditionFailed() {
+        return new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Pet was modified by another request");
+    }
+}
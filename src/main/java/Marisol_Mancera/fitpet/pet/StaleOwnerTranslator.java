@@ -0,0 +1,35 @@
+package Marisol_Mancera.fitpet.pet;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * El dueño de las altas sale del claim uid del JWT, sin consultar users.
+ * Si el usuario se borró después de emitir el token, el INSERT en pets falla por fk_pets_owner:
+ * esa violación se traduce en 401 (InvalidBearerTokenException, como un sub desconocido en
+ * OwnerJwtAuthenticationConverter) en lugar de un 500. Solo se consulta users en ese camino de error.
+ */
+@Component
+@RequiredArgsConstructor
+class StaleOwnerTranslator {
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /** Excepción a lanzar: 401 si el dueño ya no existe; si existe, la violación original. */
+    RuntimeException translate(Long ownerId, DataIntegrityViolationException ex) {
+        // JDBC y no UserRepository: la sesión de Hibernate puede tener la entidad fallida pendiente
+        Integer owners = jdbc.queryForObject("select count(*) from users where id_user = :ownerId",
+                new MapSqlParameterSource("ownerId", ownerId), Integer.class);
+        if (owners != null && owners > 0) {
+            return ex;
+        }
+        var stale = new InvalidBearerTokenException("Unknown token subject");
+        stale.initCause(ex);
+        return stale;
+    }
+}
@@ -0,0 +1,28 @@
+package Marisol_Mancera.fitpet.pet.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongConsumer;
+
+/**
+ * Canal dentro de la JVM: reparte cada aviso a los demás suscriptores de forma síncrona.
+ * Con una sola caché no hay nadie más a quien avisar; sirve para un único nodo y para
+ * tener varias cachés coherentes en el mismo proceso (p. ej. tests).
+ */
+public class InProcessInvalidationChannel implements PetCacheInvalidationChannel {
+
+    private final List<LongConsumer> listeners = new CopyOnWriteArrayList<>();
+
+    /** Avisa a todos los suscriptores; el origen ya invalidó y repetirlo es inocuo. */
+    @Override
+    public void publish(long ownerId) {
+        for (LongConsumer listener : listeners) {
+            listener.accept(ownerId);
+        }
+    }
+
+    @Override
+    public void subscribe(LongConsumer listener) {
+        listeners.add(listener);
+    }
+}
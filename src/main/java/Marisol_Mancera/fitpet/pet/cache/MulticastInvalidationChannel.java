@@ -0,0 +1,131 @@
+package Marisol_Mancera.fitpet.pet.cache;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Canal entre instancias por UDP multicast (sin broker): cada aviso es un datagrama de
+ * 16 bytes (id de nodo + owner id) a pets.cache.multicast.group:port.
+ * - Se ignoran los datagramas del propio nodo.
+ * - UDP puede perder paquetes: el TTL de la caché acota cuánto dura un dato viejo.
+ * - Un hilo daemon recibe y entrega los avisos; close() lo para (cierre del contexto).
+ */
+public class MulticastInvalidationChannel implements PetCacheInvalidationChannel, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(MulticastInvalidationChannel.class);
+    private static final int MESSAGE_BYTES = 16;
+
+    private final long nodeId = new SecureRandom().nextLong();
+    private final InetSocketAddress group;
+    private final NetworkInterface networkInterface;
+    private final MulticastSocket socket;
+    private final List<LongConsumer> listeners = new CopyOnWriteArrayList<>();
+    private final Thread receiver;
+
+    /**
+     * @param networkInterface interfaz por la que se une al grupo (null = la del sistema por defecto)
+     * @param timeToLive saltos que puede dar el datagrama (1 = solo la red local)
+     */
+    public MulticastInvalidationChannel(InetAddress group, int port, NetworkInterface networkInterface,
+            int timeToLive) throws IOException {
+        this.group = new InetSocketAddress(group, port);
+        this.networkInterface = networkInterface != null ? networkInterface : defaultInterface();
+        this.socket = new MulticastSocket(port);
+        socket.setTimeToLive(timeToLive);
+        socket.joinGroup(this.group, this.networkInterface);
+        this.receiver = new Thread(this::receive, "pet-cache-invalidation");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    @Override
+    public void publish(long ownerId) {
+        byte[] message = ByteBuffer.allocate(MESSAGE_BYTES).putLong(nodeId).putLong(ownerId).array();
+        try {
+            socket.send(new DatagramPacket(message, message.length, group));
+        } catch (IOException ex) {
+            // no se reintenta: el TTL de la caché de los demás nodos acota el dato viejo
+            log.warn("Could not publish pet cache invalidation for owner {}: {}", ownerId, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(LongConsumer listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void close() {
+        receiver.interrupt();
+        try {
+            socket.leaveGroup(group, networkInterface);
+        } catch (IOException ex) {
+            log.debug("Could not leave multicast group {}: {}", group, ex.getMessage());
+        }
+        socket.close();
+    }
+
+    private void receive() {
+        byte[] buffer = new byte[MESSAGE_BYTES];
+        var packet = new DatagramPacket(buffer, buffer.length);
+        while (!socket.isClosed()) {
+            try {
+                packet.setLength(buffer.length);
+                socket.receive(packet);
+                if (packet.getLength() != MESSAGE_BYTES) {
+                    continue;
+                }
+                ByteBuffer message = ByteBuffer.wrap(buffer);
+                if (message.getLong() == nodeId) {
+                    continue;
+                }
+                long ownerId = message.getLong();
+                for (LongConsumer listener : listeners) {
+                    listener.accept(ownerId);
+                }
+            } catch (SocketException ex) {
+                if (!socket.isClosed()) {
+                    log.warn("Pet cache invalidation receiver stopped: {}", ex.getMessage());
+                }
+                return;
+            } catch (IOException | RuntimeException ex) {
+                log.warn("Could not handle pet cache invalidation: {}", ex.getMessage());
+            }
+        }
+    }
+
+    private static NetworkInterface defaultInterface() throws IOException {
+        try (var probe = new MulticastSocket()) {
+            NetworkInterface nif = probe.getNetworkInterface();
+            if (nif == null || nif.getIndex() == 0) {
+                // sin interfaz explícita el SO elige; en Linux suele ser la de la ruta por defecto
+                nif = NetworkInterface.networkInterfaces()
+                        .filter(MulticastInvalidationChannel::usable)
+                        .findFirst()
+                        .orElseThrow(() -> new SocketException("No multicast-capable network interface"));
+            }
+            return nif;
+        }
+    }
+
+    private static boolean usable(NetworkInterface nif) {
+        try {
+            return nif.isUp() && nif.supportsMulticast() && !nif.isLoopback();
+        } catch (SocketException ex) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package Marisol_Mancera.fitpet.pet.cache;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Canal por el que viajan las invalidaciones de PetListCache entre instancias.
+ * - publish: tras una escritura confirmada, avisa del dueño cambiado (el nodo que escribe
+ *   ya invalidó su propia caché; el canal no le devuelve su mensaje).
+ * - subscribe: receptor de los avisos de los demás; invalida la caché local.
+ * Una invalidación perdida se cubre con el TTL de la caché (pets.cache.ttl).
+ * Implementaciones: InProcessInvalidationChannel (una sola instancia o varias cachés en la
+ * misma JVM) y MulticastInvalidationChannel (UDP multicast en la red del clúster). Otro
+ * transporte (Redis pub/sub, un broker...) basta con declararlo como bean de este tipo.
+ */
+public interface PetCacheInvalidationChannel {
+
+    void publish(long ownerId);
+
+    void subscribe(LongConsumer listener);
+}
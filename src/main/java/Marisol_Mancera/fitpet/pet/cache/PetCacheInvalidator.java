@@ -0,0 +1,45 @@
+package Marisol_Mancera.fitpet.pet.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Invalidación de PetListCache tras escribir mascotas de un dueño.
+ * - Se invalida en el acto (las lecturas del propio hilo ya no ven la caché) y otra vez
+ *   tras el commit: una carga que leyó filas sin confirmar entre medias no sobrevive.
+ * - El aviso a las demás instancias sale después del commit (antes verían los datos viejos
+ *   y volverían a cachearlos). Sin transacción activa, todo en el acto.
+ * - Los avisos que llegan por el canal invalidan solo la caché local.
+ */
+@Component
+public class PetCacheInvalidator {
+
+    private final PetListCache cache;
+    private final PetCacheInvalidationChannel channel;
+
+    public PetCacheInvalidator(PetListCache cache, PetCacheInvalidationChannel channel) {
+        this.cache = cache;
+        this.channel = channel;
+        channel.subscribe(cache::invalidate);
+    }
+
+    /** Llamar en cada escritura de mascotas del dueño (dentro o fuera de la transacción). */
+    public void ownerChanged(Long ownerId) {
+        cache.invalidate(ownerId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            channel.publish(ownerId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // también en rollback: la invalidación temprana pudo frenar cargas válidas, nada más
+                cache.invalidate(ownerId);
+                if (status == STATUS_COMMITTED) {
+                    channel.publish(ownerId);
+                }
+            }
+        });
+    }
+}
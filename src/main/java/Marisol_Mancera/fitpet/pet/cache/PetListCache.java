@@ -0,0 +1,280 @@
+package Marisol_Mancera.fitpet.pet.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import Marisol_Mancera.fitpet.pet.PetReadRepository.VersionedPet;
+import Marisol_Mancera.fitpet.pet.dto.PetDTOResponse;
+import Marisol_Mancera.fitpet.pet.dto.PetPage;
+
+/**
+ * Caché en memoria de lo que lee cada dueño: versión del listado (ETag), páginas del listado
+ * y mascotas sueltas, todo colgado de una entrada por owner id.
+ * - Acotada por peso (bytes estimados de los DTO), no por nº de entradas: un dueño con
+ *   miles de mascotas pesa lo que ocupa.
+ * - Cada entrada caduca a los 'ttl' de crearse, aunque nadie la invalide (red de seguridad
+ *   si se pierde una invalidación de otro nodo).
+ * - invalidate(ownerId) retira la entrada completa. Para que una lectura lenta no deje en caché
+ *   datos anteriores a una escritura, cada carga toma un sello (stamp) antes de ir a BD y solo
+ *   se guarda si ninguna invalidación del mismo dueño ocurrió entre medias.
+ * - Contadores de hit/miss/evicción/invalidación accesibles vía stats().
+ */
+public class PetListCache {
+
+    // Sellos por franjas de owner id: una invalidación solo frena las cargas de su franja
+    private static final int STRIPES = 64;
+    // Coste fijo estimado de una entrada, una página o un DTO (cabeceras, referencias, mapas)
+    private static final long ENTRY_OVERHEAD = 256;
+    private static final long PAGE_OVERHEAD = 96;
+    private static final long PET_OVERHEAD = 160;
+
+    private final long maxWeight;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+    private final AtomicLong weight = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public PetListCache(long maxWeightBytes, Duration ttl) {
+        this(maxWeightBytes, ttl, Clock.systemUTC());
+    }
+
+    PetListCache(long maxWeightBytes, Duration ttl, Clock clock) {
+        if (maxWeightBytes <= 0) {
+            throw new IllegalArgumentException("maxWeightBytes must be > 0");
+        }
+        this.maxWeight = maxWeightBytes;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /** Sello a tomar antes de leer de BD; se pasa después al put correspondiente. */
+    public long stamp(Long ownerId) {
+        return stamps.get(stripe(ownerId));
+    }
+
+    /** Versión del listado del dueño, o null si no está en caché. */
+    public Long version(Long ownerId) {
+        Entry entry = live(ownerId);
+        Long version = entry != null ? entry.version : null;
+        count(version != null);
+        return version;
+    }
+
+    /** Guarda la versión del listado leída con el sello 'stamp'. */
+    public void putVersion(Long ownerId, long stamp, long version) {
+        put(ownerId, stamp, entry -> {
+            if (entry.version != null) {
+                return false;
+            }
+            entry.version = version;
+            return true;
+        }, 0);
+    }
+
+    /** Página cacheada para (species, afterId, size), o null. */
+    public PetPage page(Long ownerId, String species, long afterId, int size) {
+        Entry entry = live(ownerId);
+        PetPage page = entry != null ? entry.pages.get(pageKey(species, afterId, size)) : null;
+        count(page != null);
+        return page;
+    }
+
+    /** Guarda una página leída con el sello 'stamp'. */
+    public void putPage(Long ownerId, long stamp, String species, long afterId, int size, PetPage page) {
+        var copy = new PetPage(List.copyOf(page.items()), page.nextCursor());
+        long pageWeight = PAGE_OVERHEAD + weigh(copy.nextCursor());
+        for (PetDTOResponse pet : copy.items()) {
+            pageWeight += weigh(pet);
+        }
+        String key = pageKey(species, afterId, size);
+        put(ownerId, stamp, entry -> entry.pages.putIfAbsent(key, copy) == null, pageWeight);
+    }
+
+    /** Mascota cacheada del dueño, o null. */
+    public VersionedPet pet(Long ownerId, Long id) {
+        Entry entry = live(ownerId);
+        VersionedPet pet = entry != null ? entry.pets.get(id) : null;
+        count(pet != null);
+        return pet;
+    }
+
+    /** Guarda una mascota leída con el sello 'stamp'. */
+    public void putPet(Long ownerId, long stamp, VersionedPet pet) {
+        put(ownerId, stamp, entry -> entry.pets.putIfAbsent(pet.pet().id(), pet) == null, weigh(pet.pet()));
+    }
+
+    /** Retira todo lo cacheado del dueño y frena las cargas en curso de su franja. */
+    public void invalidate(Long ownerId) {
+        stamps.incrementAndGet(stripe(ownerId));
+        Entry entry = entries.remove(ownerId);
+        if (entry != null) {
+            release(entry);
+            invalidations.increment();
+        }
+    }
+
+    /** Vacía la caché completa. */
+    public void invalidateAll() {
+        for (int i = 0; i < STRIPES; i++) {
+            stamps.incrementAndGet(i);
+        }
+        for (Long ownerId : List.copyOf(entries.keySet())) {
+            invalidate(ownerId);
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), invalidations.sum(),
+                entries.size(), weight.get());
+    }
+
+    /** Instantánea de contadores de la caché (weightBytes = peso estimado actual). */
+    public record Stats(long hits, long misses, long evictions, long invalidations,
+                        int owners, long weightBytes) {}
+
+    /**
+     * Alta en la entrada del dueño (creándola si hace falta) si el sello sigue vigente.
+     * Todo lo que cuelga de una entrada se leyó sin escrituras del dueño entre medias,
+     * así que la versión y las páginas de una misma entrada son coherentes entre sí.
+     */
+    private void put(Long ownerId, long stamp, Predicate<Entry> put, long addedWeight) {
+        if (stamp(ownerId) != stamp) {
+            return;
+        }
+        Entry entry = live(ownerId);
+        if (entry == null) {
+            Entry created = new Entry(clock.instant().plus(ttl));
+            entry = entries.putIfAbsent(ownerId, created);
+            if (entry == null) {
+                entry = created;
+                weight.addAndGet(ENTRY_OVERHEAD);
+            }
+        }
+        boolean added = entry.add(put, addedWeight);
+        recheck(ownerId, stamp, entry);
+        if (added) {
+            makeRoomIfNeeded();
+        }
+    }
+
+    private Entry live(Long ownerId) {
+        Entry entry = entries.get(ownerId);
+        if (entry == null) {
+            return null;
+        }
+        if (clock.instant().isBefore(entry.expiresAt)) {
+            return entry;
+        }
+        if (entries.remove(ownerId, entry)) {
+            release(entry);
+            evictions.increment();
+        }
+        return null;
+    }
+
+    /** Si una invalidación se cruzó con el put, la entrada puede llevar datos viejos: fuera. */
+    private void recheck(Long ownerId, long stamp, Entry entry) {
+        if (stamp(ownerId) != stamp && entries.remove(ownerId, entry)) {
+            release(entry);
+        }
+    }
+
+    private void release(Entry entry) {
+        weight.addAndGet(-entry.close());
+    }
+
+    /**
+     * Mantiene el peso acotado: primero purga caducadas y, si aún se pasa, descarta entradas
+     * arbitrarias hasta quedar en ~90% del máximo para amortizar el barrido.
+     */
+    private void makeRoomIfNeeded() {
+        if (weight.get() <= maxWeight) {
+            return;
+        }
+        Instant now = clock.instant();
+        entries.forEach((ownerId, entry) -> {
+            if (!now.isBefore(entry.expiresAt) && entries.remove(ownerId, entry)) {
+                release(entry);
+                evictions.increment();
+            }
+        });
+        long target = maxWeight - maxWeight / 10;
+        Iterator<Map.Entry<Long, Entry>> it = entries.entrySet().iterator();
+        while (weight.get() > target && it.hasNext()) {
+            var next = it.next();
+            if (entries.remove(next.getKey(), next.getValue())) {
+                release(next.getValue());
+                evictions.increment();
+            }
+        }
+    }
+
+    private void count(boolean hit) {
+        (hit ? hits : misses).increment();
+    }
+
+    private static int stripe(Long ownerId) {
+        return (int) (ownerId ^ (ownerId >>> 32)) & (STRIPES - 1);
+    }
+
+    private static String pageKey(String species, long afterId, int size) {
+        return (species != null ? species : "") + '|' + afterId + '|' + size;
+    }
+
+    static long weigh(PetDTOResponse pet) {
+        return PET_OVERHEAD + weigh(pet.name()) + weigh(pet.species()) + weigh(pet.breed()) + weigh(pet.sex());
+    }
+
+    private static long weigh(String text) {
+        // cabecera de String + array de bytes (LATIN1 en el caso habitual)
+        return text != null ? 40 + text.length() : 0;
+    }
+
+    /** Todo lo cacheado de un dueño. Las altas se serializan con el cierre para no descuadrar el peso. */
+    private final class Entry {
+        final Instant expiresAt;
+        final Map<String, PetPage> pages = new ConcurrentHashMap<>();
+        final Map<Long, VersionedPet> pets = new ConcurrentHashMap<>();
+        volatile Long version;
+        private long weight = ENTRY_OVERHEAD;
+        private boolean closed;
+
+        Entry(Instant expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+
+        /** Ejecuta el alta y suma su peso; false si la entrada ya salió de la caché o el alta no hizo nada. */
+        synchronized boolean add(Predicate<Entry> put, long added) {
+            if (closed || !put.test(this)) {
+                return false;
+            }
+            weight += added;
+            PetListCache.this.weight.addAndGet(added);
+            return true;
+        }
+
+        /** Marca la entrada como retirada y devuelve el peso a descontar. */
+        synchronized long close() {
+            if (closed) {
+                return 0;
+            }
+            closed = true;
+            return weight;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package Marisol_Mancera.fitpet.pet.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Elemento de DELETE /api/v1/pets:batch.
+ * - version (opcional): ETag conocido por el cliente; si no coincide, ese elemento responde 412.
+ */
+public record PetBatchDelete(
+        @NotNull Long id,
+        Long version
+) { }
@@ -0,0 +1,32 @@
+package Marisol_Mancera.fitpet.pet.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de una operación por lotes: un elemento por cada elemento de la petición, en el mismo orden.
+ * - status: código HTTP que habría tenido la operación individual (201, 200, 204, 400, 404, 412).
+ * - id / version: mascota afectada y su versión tras la operación (null si no aplica).
+ * - error: motivo del fallo (null si ha ido bien).
+ */
+public record PetBatchResult(int succeeded, int failed, List<Item> items) {
+
+    public static PetBatchResult of(List<Item> items) {
+        int ok = (int) items.stream().filter(Item::succeeded).count();
+        return new PetBatchResult(ok, items.size() - ok, items);
+    }
+
+    public record Item(int index, int status, Long id, Long version, String error) {
+
+        public static Item ok(int index, int status, Long id, Long version) {
+            return new Item(index, status, id, version, null);
+        }
+
+        public static Item failed(int index, int status, Long id, String error) {
+            return new Item(index, status, id, null, error);
+        }
+
+        public boolean succeeded() {
+            return status < 400;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package Marisol_Mancera.fitpet.pet.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Elemento de PUT /api/v1/pets:batch.
+ * - version (opcional): ETag conocido por el cliente; si no coincide, ese elemento responde 412.
+ */
+public record PetBatchUpdate(
+        @NotNull Long id,
+        Long version,
+        @NotNull @Valid PetCreateRequest pet
+) { }
@@ -0,0 +1,20 @@
+package Marisol_Mancera.fitpet.pet.dto;
+
+import java.time.Instant;
+
+/**
+ * Estado de una importación de mascotas.
+ * - status: PENDING (sin fichero aún), RUNNING, COMPLETED o FAILED (fichero ilegible; ver error).
+ * - rows: registros leídos hasta ahora; imported + failed = rows al terminar.
+ * - Las filas rechazadas se descargan en GET /api/v1/pets/imports/{id}/errors.
+ */
+public record PetImportProgress(
+        String id,
+        String status,
+        long rows,
+        long imported,
+        long failed,
+        Instant createdAt,
+        Instant finishedAt,
+        String error
+) { }
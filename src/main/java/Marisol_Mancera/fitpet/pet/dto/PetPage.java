@@ -0,0 +1,11 @@
+package Marisol_Mancera.fitpet.pet.dto;
+
+import java.util.List;
+
+/**
+ * Página de mascotas; nextCursor es null en la última página.
+ */
+public record PetPage(
+        List<PetDTOResponse> items,
+        String nextCursor
+) { }
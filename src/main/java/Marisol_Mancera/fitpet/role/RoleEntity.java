@@ -4,14 +4,22 @@ package Marisol_Mancera.fitpet.role;
 import jakarta.persistence.*;
 import lombok.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 /**
  * Entidad RoleEntity actualizada con Lombok para coherencia con UserEntity.
  * - Usa IDENTITY para la PK.
  * - Campo name único.
  * - Compatible con la relación ManyToMany en UserEntity.
+ * - Datos de referencia: caché de segundo nivel READ_ONLY (se crean en RoleSeeder y no cambian).
  */
 @Entity
 @Table(name = "roles")
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "roles")
+@NaturalIdCache(region = "roles-by-name")
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -24,6 +32,7 @@ public class RoleEntity {
     @Column(name = "id_role")
     private Long id;
 
+    @NaturalId
     @Column(nullable = false, unique = true, length = 60)
     private String name;
 }
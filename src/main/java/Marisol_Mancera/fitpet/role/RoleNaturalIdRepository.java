@@ -0,0 +1,12 @@
+package Marisol_Mancera.fitpet.role;
+
+import java.util.Optional;
+
+/**
+ * Búsqueda de roles por su natural id (name).
+ * Fragmento de RoleRepository: la implementación usa la caché de natural ids de Hibernate.
+ */
+public interface RoleNaturalIdRepository {
+
+    Optional<RoleEntity> findByName(String name);
+}
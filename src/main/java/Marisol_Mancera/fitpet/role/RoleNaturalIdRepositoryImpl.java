@@ -0,0 +1,30 @@
+package Marisol_Mancera.fitpet.role;
+
+import java.util.Optional;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * findByName con Session.bySimpleNaturalId: el registro pide ROLE_USER en cada alta
+ * y se sirve de las regiones roles-by-name / roles sin SQL.
+ */
+class RoleNaturalIdRepositoryImpl implements RoleNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<RoleEntity> findByName(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(RoleEntity.class)
+                .loadOptional(name);
+    }
+}
@@ -2,13 +2,10 @@ package Marisol_Mancera.fitpet.role;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 
-import java.util.Optional;
-
 /**
  * Acceso a datos de roles.
- * Permite buscar roles por nombre para evitar IDs mágicos.
+ * Permite buscar roles por nombre para evitar IDs mágicos
+ * (findByName va por la natural id cacheada, ver RoleNaturalIdRepository).
  */
-public interface RoleRepository extends JpaRepository<RoleEntity, Long> {
-
-    Optional<RoleEntity> findByName(String name);
+public interface RoleRepository extends JpaRepository<RoleEntity, Long>, RoleNaturalIdRepository {
 }
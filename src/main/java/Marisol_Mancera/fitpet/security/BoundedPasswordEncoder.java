@@ -0,0 +1,131 @@
+package Marisol_Mancera.fitpet.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import Marisol_Mancera.fitpet.common.error.ServiceUnavailableException;
+
+/**
+ * PasswordEncoder que ejecuta el hash (BCrypt) en un pool dedicado y acotado.
+ * - Nº fijo de hilos: el coste de CPU de auth queda limitado aunque haya una avalancha de logins.
+ * - Cola con profundidad máxima: si se llena, se rechaza al instante con
+ *   ServiceUnavailableException (503 + Retry-After) en lugar de encolar sin límite.
+ * - Expone profundidad de cola, rechazos y latencia de hash vía stats().
+ * upgradeEncoding no hashea, así que se delega directamente.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+
+    private final LongAdder hashes = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAccumulator maxHashNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder rejected = new LongAdder();
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long retryAfterSeconds) {
+        if (threads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("threads and queueCapacity must be > 0");
+        }
+        this.delegate = delegate;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public Stats stats() {
+        long count = hashes.sum();
+        return new Stats(
+                executor.getQueue().size(),
+                executor.getActiveCount(),
+                rejected.sum(),
+                count,
+                count == 0 ? 0 : hashNanos.sum() / count,
+                maxHashNanos.get());
+    }
+
+    /**
+     * Instantánea de métricas del pool de hashing.
+     * Latencias en nanosegundos.
+     */
+    public record Stats(int queueDepth, int activeThreads, long rejected,
+                        long hashes, long meanHashNanos, long maxHashNanos) {}
+
+    /** Detiene el pool al cerrar el contexto (Spring infiere 'shutdown' como destroy method). */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T submit(Callable<T> hashing) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timed(hashing));
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Authentication service is busy, retry later", retryAfterSeconds);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        }
+    }
+
+    private <T> T timed(Callable<T> hashing) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return hashing.call();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            hashes.increment();
+            hashNanos.add(elapsed);
+            maxHashNanos.accumulate(elapsed);
+        }
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+        private final AtomicInteger seq = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "password-hashing-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
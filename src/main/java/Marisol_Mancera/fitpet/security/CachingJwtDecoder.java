@@ -0,0 +1,161 @@
+package Marisol_Mancera.fitpet.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * Decorador de JwtDecoder con caché acotada de tokens ya verificados.
+ * - La clave es el SHA-256 del token (no guardamos el token en claro).
+ * - Cada entrada caduca en el 'exp' del propio token o, si es antes, en el retireAt de la clave
+ *   que lo firmó: un acierto de caché no se salta la retirada de claves de SigningKeyRing.
+ * - Un token repetido se sirve sin volver a comprobar la firma HS512 ni parsear claims.
+ * - invalidate(token) permite retirar un token concreto (logout/revocación).
+ * - Contadores de hit/miss/evicción accesibles vía stats().
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final int maxEntries;
+    private final Clock clock;
+    private final Function<Jwt, Instant> keyRetirement;
+    private final Map<ByteBuffer, Entry> cache = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maxEntries) {
+        this(delegate, maxEntries, jwt -> null);
+    }
+
+    /**
+     * @param keyRetirement retireAt de la clave que firmó el token (null = sin retirada),
+     *                      p. ej. SigningKeyRing::retireAtOf
+     */
+    public CachingJwtDecoder(JwtDecoder delegate, int maxEntries, Function<Jwt, Instant> keyRetirement) {
+        this(delegate, maxEntries, keyRetirement, Clock.systemUTC());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, int maxEntries, Clock clock) {
+        this(delegate, maxEntries, jwt -> null, clock);
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, int maxEntries, Function<Jwt, Instant> keyRetirement, Clock clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be > 0");
+        }
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.keyRetirement = keyRetirement;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        ByteBuffer key = digest(token);
+        Instant now = clock.instant();
+
+        Entry cached = cache.get(key);
+        if (cached != null) {
+            if (cached.isLive(now)) {
+                hits.increment();
+                return cached.jwt();
+            }
+            // Caducado o clave retirada: se retira y se deja que el delegado lo rechace con su mensaje habitual
+            if (cache.remove(key, cached)) {
+                evictions.increment();
+            }
+        }
+
+        misses.increment();
+        Jwt decoded = delegate.decode(token); // firma + claims + validadores (exp, nbf...)
+        if (decoded.getExpiresAt() != null) {
+            makeRoomIfNeeded(now);
+            cache.put(key, new Entry(decoded, liveUntil(decoded)));
+        }
+        return decoded;
+    }
+
+    /** Retira un token concreto de la caché (p. ej. tras revocarlo). */
+    public void invalidate(String token) {
+        if (cache.remove(digest(token)) != null) {
+            evictions.increment();
+        }
+    }
+
+    /** Vacía la caché completa (p. ej. tras rotar claves). */
+    public void invalidateAll() {
+        int size = cache.size();
+        cache.clear();
+        evictions.add(size);
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), cache.size());
+    }
+
+    /** Instantánea de contadores de la caché. */
+    public record Stats(long hits, long misses, long evictions, int size) {}
+
+    private Instant liveUntil(Jwt jwt) {
+        Instant retireAt = keyRetirement.apply(jwt);
+        return retireAt != null && retireAt.isBefore(jwt.getExpiresAt()) ? retireAt : jwt.getExpiresAt();
+    }
+
+    /** Token verificado y el instante hasta el que puede servirse sin volver al delegado. */
+    private record Entry(Jwt jwt, Instant liveUntil) {
+
+        boolean isLive(Instant now) {
+            return now.isBefore(liveUntil);
+        }
+    }
+
+    /**
+     * Mantiene el tamaño acotado: primero purga caducados y, si aún no hay hueco,
+     * descarta entradas arbitrarias (~10%) para amortizar el coste del barrido.
+     */
+    private void makeRoomIfNeeded(Instant now) {
+        if (cache.size() < maxEntries) {
+            return;
+        }
+        cache.entrySet().removeIf(e -> {
+            boolean expired = !e.getValue().isLive(now);
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+        if (cache.size() < maxEntries) {
+            return;
+        }
+        int toDrop = cache.size() - maxEntries + Math.max(1, maxEntries / 10);
+        Iterator<ByteBuffer> it = cache.keySet().iterator();
+        while (toDrop-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(md.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package Marisol_Mancera.fitpet.security;
+
+import java.security.GeneralSecurityException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * HS512 con un Mac HmacSHA512 por hilo, inicializado una sola vez.
+ */
+final class HmacJwsSigner implements JwsSigner {
+
+    private final String keyId;
+    private final ThreadLocal<Mac> macs;
+
+    HmacJwsSigner(byte[] secret, String keyId) {
+        SecretKeySpec key = new SecretKeySpec(secret, "HmacSHA512");
+        this.keyId = keyId;
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA512");
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException ex) {
+                throw new IllegalStateException("HmacSHA512 not available", ex);
+            }
+        });
+        // Falla pronto si la clave no es válida
+        macs.get();
+    }
+
+    @Override
+    public String algorithm() {
+        return "HS512";
+    }
+
+    @Override
+    public String keyId() {
+        return keyId;
+    }
+
+    @Override
+    public int signatureLength() {
+        return 64;
+    }
+
+    @Override
+    public void sign(byte[] input, int length, byte[] signature) {
+        Mac mac = macs.get();
+        mac.update(input, 0, length);
+        try {
+            mac.doFinal(signature, 0);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Unable to sign JWT", ex);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package Marisol_Mancera.fitpet.security;
+
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.Signature;
+
+/**
+ * ES256 / EdDSA con java.security.Signature del JDK (sin dependencias extra).
+ * Un Signature por hilo, inicializado con la clave privada una sola vez.
+ */
+final class JdkSignatureJwsSigner implements JwsSigner {
+
+    private final String algorithm;
+    private final String keyId;
+    private final ThreadLocal<Signature> signatures;
+
+    JdkSignatureJwsSigner(String algorithm, String jcaAlgorithm, PrivateKey privateKey, String keyId) {
+        this.algorithm = algorithm;
+        this.keyId = keyId;
+        this.signatures = ThreadLocal.withInitial(() -> {
+            try {
+                Signature signature = Signature.getInstance(jcaAlgorithm);
+                signature.initSign(privateKey);
+                return signature;
+            } catch (GeneralSecurityException ex) {
+                throw new IllegalStateException(jcaAlgorithm + " not available", ex);
+            }
+        });
+        // Falla pronto si la clave no es válida
+        signatures.get();
+    }
+
+    @Override
+    public String algorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public String keyId() {
+        return keyId;
+    }
+
+    @Override
+    public int signatureLength() {
+        return 64;
+    }
+
+    @Override
+    public void sign(byte[] input, int length, byte[] signature) {
+        Signature jca = signatures.get();
+        try {
+            jca.update(input, 0, length);
+            int written = jca.sign(signature, 0, signature.length);
+            if (written != signature.length) {
+                throw new IllegalStateException("Unexpected " + algorithm + " signature length " + written);
+            }
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Unable to sign JWT", ex);
+        }
+    }
+}
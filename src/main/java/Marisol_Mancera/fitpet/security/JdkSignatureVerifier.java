@@ -0,0 +1,67 @@
+package Marisol_Mancera.fitpet.security;
+
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Set;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.util.Base64URL;
+
+/**
+ * JWSVerifier de Nimbus para ES256 / EdDSA sobre java.security.Signature.
+ * - ES256 con SHA256withECDSAinP1363Format: la firma JWS (R||S) se verifica tal cual, sin pasar a DER.
+ * - Ed25519 nativo del JDK: evita la dependencia opcional (Tink) del verificador de Nimbus.
+ * Un Signature por hilo con la clave pública ya cargada.
+ */
+final class JdkSignatureVerifier implements JWSVerifier {
+
+    private final JWSAlgorithm algorithm;
+    private final ThreadLocal<Signature> signatures;
+    private final JCAContext jcaContext = new JCAContext();
+
+    JdkSignatureVerifier(JWSAlgorithm algorithm, PublicKey publicKey) {
+        this.algorithm = algorithm;
+        String jcaAlgorithm = JWSAlgorithm.ES256.equals(algorithm) ? "SHA256withECDSAinP1363Format" : "Ed25519";
+        this.signatures = ThreadLocal.withInitial(() -> {
+            try {
+                Signature signature = Signature.getInstance(jcaAlgorithm);
+                signature.initVerify(publicKey);
+                return signature;
+            } catch (GeneralSecurityException ex) {
+                throw new IllegalStateException(jcaAlgorithm + " not available", ex);
+            }
+        });
+        signatures.get();
+    }
+
+    @Override
+    public boolean verify(JWSHeader header, byte[] signingInput, Base64URL signature) throws JOSEException {
+        if (!algorithm.equals(header.getAlgorithm())) {
+            return false;
+        }
+        Signature jca = signatures.get();
+        try {
+            jca.update(signingInput);
+            return jca.verify(signature.decode());
+        } catch (GeneralSecurityException ex) {
+            // firma mal formada: se trata como inválida y se descarta el Signature por si quedó a medias
+            signatures.remove();
+            return false;
+        }
+    }
+
+    @Override
+    public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+        return Set.of(algorithm);
+    }
+
+    @Override
+    public JCAContext getJCAContext() {
+        return jcaContext;
+    }
+}
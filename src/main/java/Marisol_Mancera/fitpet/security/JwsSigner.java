@@ -0,0 +1,35 @@
+package Marisol_Mancera.fitpet.security;
+
+import java.security.PrivateKey;
+
+/**
+ * Firma del "header.payload" de un JWS compacto.
+ * Las tres variantes producen 64 bytes: HS512 (HMAC-SHA512), ES256 (R||S de P-256)
+ * y EdDSA (Ed25519), así que el emisor reutiliza el mismo buffer por hilo.
+ */
+public interface JwsSigner {
+
+    /** Valor de 'alg' en la cabecera. */
+    String algorithm();
+
+    /** Valor de 'kid' en la cabecera (null = sin kid). */
+    String keyId();
+
+    int signatureLength();
+
+    /** Firma input[0, length) y escribe signatureLength() bytes en signature. */
+    void sign(byte[] input, int length, byte[] signature);
+
+    static JwsSigner hs512(byte[] secret, String keyId) {
+        return new HmacJwsSigner(secret, keyId);
+    }
+
+    static JwsSigner es256(PrivateKey privateKey, String keyId) {
+        // formato P1363 = R||S de 32+32 bytes, el que exige JWS (no DER)
+        return new JdkSignatureJwsSigner("ES256", "SHA256withECDSAinP1363Format", privateKey, keyId);
+    }
+
+    static JwsSigner ed25519(PrivateKey privateKey, String keyId) {
+        return new JdkSignatureJwsSigner("EdDSA", "Ed25519", privateKey, keyId);
+    }
+}
@@ -0,0 +1,314 @@
+package Marisol_Mancera.fitpet.security;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+import Marisol_Mancera.fitpet.role.RoleEntity;
+
+/**
+ * Emisor de JWT dedicado (camino rápido de login).
+ * - Claims: sub (email), uid (id de usuario), jti, iat, exp y scope.
+ * - jti: 128 bits aleatorios en base64url, identifica el token para revocarlo.
+ * - Cabecera precalculada: {"alg":...,"kid":...} ya codificada en base64url.
+ * - Scope cacheado por conjunto de roles (ROLE_X -> X, separados por espacio).
+ * - La firma la hace un JwsSigner (HS512, ES256 o EdDSA) con estado criptográfico por hilo.
+ * - La serialización compacta se escribe en un buffer por hilo reutilizado;
+ *   la única reserva por token es el String final.
+ * El resultado es un JWS estándar que valida el JwtDecoder de JwtConfig.
+ */
+public class JwsTokenIssuer {
+
+    // potencia de 2: el hueco es hash & (MAX_CACHED_SCOPES - 1)
+    private static final int MAX_CACHED_SCOPES = 256;
+
+    private final JwsSigner signer;
+    private final byte[] encodedHeader;
+    private final ThreadLocal<Scratch> scratch;
+    private final CachedScope[] scopeCache = new CachedScope[MAX_CACHED_SCOPES];
+
+    /** Emisor HS512 sin kid. */
+    public JwsTokenIssuer(byte[] keyBytes) {
+        this(keyBytes, null);
+    }
+
+    /**
+     * Emisor HS512.
+     * @param keyId kid que se añade a la cabecera (null = sin kid)
+     */
+    public JwsTokenIssuer(byte[] keyBytes, String keyId) {
+        this(JwsSigner.hs512(keyBytes, keyId));
+    }
+
+    public JwsTokenIssuer(JwsSigner signer) {
+        this.signer = signer;
+        this.encodedHeader = Base64Url.encode(headerJson(signer.algorithm(), signer.keyId())
+                .getBytes(StandardCharsets.UTF_8));
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(signer.signatureLength()));
+    }
+
+    /**
+     * Emite un JWT con sub, jti, iat, exp y scope.
+     */
+    public String issue(String subject, String scope, Instant issuedAt, Instant expiresAt) {
+        return issue(subject, null, scope, issuedAt, expiresAt);
+    }
+
+    /**
+     * Emite un JWT con sub, uid (id numérico del usuario, si se indica), jti, iat, exp y scope.
+     */
+    public String issue(String subject, Long userId, String scope, Instant issuedAt, Instant expiresAt) {
+        Scratch s = scratch.get();
+
+        // 1) claims JSON
+        ByteBuf json = s.json.reset();
+        json.putAscii("{\"sub\":").putJsonString(subject);
+        if (userId != null) {
+            json.putAscii(",\"uid\":").putLong(userId);
+        }
+        // jti: no necesita ser secreto (el token va firmado), solo único
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        putLongBytes(s.tokenId, 0, random.nextLong());
+        putLongBytes(s.tokenId, 8, random.nextLong());
+        json.putAscii(",\"jti\":\"").putBase64Url(s.tokenId, s.tokenId.length).put((byte) '"');
+        json.putAscii(",\"iat\":").putLong(issuedAt.getEpochSecond())
+                .putAscii(",\"exp\":").putLong(expiresAt.getEpochSecond())
+                .putAscii(",\"scope\":").putJsonString(scope)
+                .put((byte) '}');
+
+        // 2) header.payload
+        ByteBuf out = s.out.reset();
+        out.putBytes(encodedHeader, encodedHeader.length).put((byte) '.');
+        out.putBase64Url(json.bytes, json.length);
+
+        // 3) firma sobre "header.payload"
+        signer.sign(out.bytes, out.length, s.signature);
+        out.put((byte) '.').putBase64Url(s.signature, s.signature.length);
+
+        return new String(out.bytes, 0, out.length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Scope para un conjunto de roles: ROLE_X -> X, ordenados y separados por espacio.
+     * Se cachea por conjunto de nombres (hay muy pocas combinaciones distintas) en una tabla
+     * de MAX_CACHED_SCOPES huecos indexada por un hash de los nombres que no depende del orden:
+     * un acierto no reserva nada y una colisión solo sustituye su hueco.
+     */
+    public String scopeFor(Collection<RoleEntity> roles) {
+        if (roles == null || roles.isEmpty()) {
+            return "";
+        }
+        int hash = 0;
+        for (RoleEntity role : roles) {
+            hash += role.getName().hashCode();
+        }
+        int slot = (hash ^ (hash >>> 16)) & (MAX_CACHED_SCOPES - 1);
+        CachedScope cached = scopeCache[slot];
+        if (cached != null && cached.matches(roles)) {
+            return cached.scope();
+        }
+        Set<String> names = new TreeSet<>();
+        for (RoleEntity role : roles) {
+            names.add(role.getName());
+        }
+        StringBuilder sb = new StringBuilder();
+        for (String roleName : names) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(roleName.startsWith("ROLE_") ? roleName.substring(5) : roleName);
+        }
+        String scope = sb.toString();
+        scopeCache[slot] = new CachedScope(Set.copyOf(names), scope);
+        return scope;
+    }
+
+    /** Entrada inmutable de la tabla de scopes (publicación segura sin volatile). */
+    private record CachedScope(Set<String> names, String scope) {
+        boolean matches(Collection<RoleEntity> roles) {
+            if (names.size() != roles.size()) {
+                return false;
+            }
+            for (RoleEntity role : roles) {
+                if (!names.contains(role.getName())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static String headerJson(String algorithm, String keyId) {
+        ByteBuf buf = new ByteBuf(64);
+        buf.putAscii("{\"alg\":").putJsonString(algorithm);
+        if (keyId != null) {
+            buf.putAscii(",\"kid\":").putJsonString(keyId);
+        }
+        buf.put((byte) '}');
+        return new String(buf.bytes, 0, buf.length, StandardCharsets.UTF_8);
+    }
+
+    private static void putLongBytes(byte[] dst, int offset, long v) {
+        for (int i = 7; i >= 0; i--) {
+            dst[offset + i] = (byte) v;
+            v >>>= 8;
+        }
+    }
+
+    /** Buffers reutilizados por hilo. */
+    private static final class Scratch {
+        final ByteBuf json = new ByteBuf(256);
+        final ByteBuf out = new ByteBuf(512);
+        final byte[] signature;
+        final byte[] tokenId = new byte[16];
+
+        Scratch(int signatureLength) {
+            this.signature = new byte[signatureLength];
+        }
+    }
+
+    /** Buffer de bytes creciente con escritura JSON/base64url sin objetos intermedios. */
+    private static final class ByteBuf {
+        byte[] bytes;
+        int length;
+
+        ByteBuf(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        ByteBuf reset() {
+            length = 0;
+            return this;
+        }
+
+        ByteBuf put(byte b) {
+            ensure(1);
+            bytes[length++] = b;
+            return this;
+        }
+
+        ByteBuf putBytes(byte[] src, int len) {
+            ensure(len);
+            System.arraycopy(src, 0, bytes, length, len);
+            length += len;
+            return this;
+        }
+
+        ByteBuf putAscii(String s) {
+            int len = s.length();
+            ensure(len);
+            for (int i = 0; i < len; i++) {
+                bytes[length++] = (byte) s.charAt(i);
+            }
+            return this;
+        }
+
+        ByteBuf putLong(long v) {
+            if (v == 0) {
+                return put((byte) '0');
+            }
+            if (v < 0) {
+                put((byte) '-');
+                v = -v;
+            }
+            ensure(20);
+            int start = length;
+            while (v > 0) {
+                bytes[length++] = (byte) ('0' + (v % 10));
+                v /= 10;
+            }
+            // dígitos escritos al revés
+            for (int i = start, j = length - 1; i < j; i++, j--) {
+                byte t = bytes[i];
+                bytes[i] = bytes[j];
+                bytes[j] = t;
+            }
+            return this;
+        }
+
+        /** Cadena JSON entre comillas, con escapes y codificación UTF-8. */
+        ByteBuf putJsonString(String s) {
+            put((byte) '"');
+            int len = s.length();
+            for (int i = 0; i < len; i++) {
+                char c = s.charAt(i);
+                if (c == '"' || c == '\\') {
+                    put((byte) '\\').put((byte) c);
+                } else if (c < 0x20) {
+                    putAscii("\\u00").put(HEX[c >> 4]).put(HEX[c & 0xF]);
+                } else if (c < 0x80) {
+                    put((byte) c);
+                } else if (c < 0x800) {
+                    put((byte) (0xC0 | (c >> 6))).put((byte) (0x80 | (c & 0x3F)));
+                } else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, s.charAt(++i));
+                    put((byte) (0xF0 | (cp >> 18)))
+                            .put((byte) (0x80 | ((cp >> 12) & 0x3F)))
+                            .put((byte) (0x80 | ((cp >> 6) & 0x3F)))
+                            .put((byte) (0x80 | (cp & 0x3F)));
+                } else {
+                    put((byte) (0xE0 | (c >> 12)))
+                            .put((byte) (0x80 | ((c >> 6) & 0x3F)))
+                            .put((byte) (0x80 | (c & 0x3F)));
+                }
+            }
+            return put((byte) '"');
+        }
+
+        ByteBuf putBase64Url(byte[] src, int len) {
+            ensure((len + 2) / 3 * 4);
+            length = Base64Url.encodeInto(src, len, bytes, length);
+            return this;
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+
+        private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /** Base64url sin padding (RFC 7515) escribiendo en un array existente. */
+    static final class Base64Url {
+        private static final byte[] ALPHABET =
+                "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+
+        private Base64Url() {}
+
+        static byte[] encode(byte[] src) {
+            byte[] dst = new byte[(src.length + 2) / 3 * 4];
+            return Arrays.copyOf(dst, encodeInto(src, src.length, dst, 0));
+        }
+
+        /** @return nueva posición de escritura en dst */
+        static int encodeInto(byte[] src, int len, byte[] dst, int pos) {
+            int i = 0;
+            int full = len - len % 3;
+            while (i < full) {
+                int bits = (src[i++] & 0xFF) << 16 | (src[i++] & 0xFF) << 8 | (src[i++] & 0xFF);
+                dst[pos++] = ALPHABET[(bits >>> 18) & 0x3F];
+                dst[pos++] = ALPHABET[(bits >>> 12) & 0x3F];
+                dst[pos++] = ALPHABET[(bits >>> 6) & 0x3F];
+                dst[pos++] = ALPHABET[bits & 0x3F];
+            }
+            int rest = len - full;
+            if (rest == 1) {
+                int bits = (src[i] & 0xFF) << 16;
+                dst[pos++] = ALPHABET[(bits >>> 18) & 0x3F];
+                dst[pos++] = ALPHABET[(bits >>> 12) & 0x3F];
+            } else if (rest == 2) {
+                int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8;
+                dst[pos++] = ALPHABET[(bits >>> 18) & 0x3F];
+                dst[pos++] = ALPHABET[(bits >>> 12) & 0x3F];
+                dst[pos++] = ALPHABET[(bits >>> 6) & 0x3F];
+            }
+            return pos;
+        }
+    }
+}
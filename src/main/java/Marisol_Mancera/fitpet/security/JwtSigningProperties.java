@@ -0,0 +1,37 @@
+package Marisol_Mancera.fitpet.security;
+
+import java.time.Instant;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Claves de firma con identificador (prefijo jwt.signing).
+ * - active-kid: clave con la que se emiten los tokens nuevos (por defecto la de jwt.key).
+ * - keys.<kid>.algorithm: HS512 (por defecto), ES256 o EdDSA (Ed25519).
+ * - keys.<kid>.secret: clave HS512 en base64 (64 bytes).
+ * - keys.<kid>.private-key / public-key: ES256/EdDSA en base64 (PKCS#8 / X.509).
+ *   Sin private-key ni public-key se genera un par efímero al arrancar (solo desarrollo).
+ *   Solo public-key: la clave valida pero no puede ser la activa.
+ * - keys.<kid>.retire-at: a partir de ese instante deja de validar. Para rotar sin
+ *   re-login masivo: activar la nueva y retirar la anterior pasado al menos jwt.access-token-ttl.
+ * La clave de jwt.key se registra siempre como 'default' y valida también los tokens sin kid.
+ */
+@ConfigurationProperties(prefix = "jwt.signing")
+public record JwtSigningProperties(
+        String activeKid,
+        Map<String, Key> keys
+) {
+    public JwtSigningProperties {
+        keys = keys == null ? Map.of() : Map.copyOf(keys);
+    }
+
+    public record Key(
+            @DefaultValue("HS512") String algorithm,
+            String secret,
+            String privateKey,
+            String publicKey,
+            Instant retireAt
+    ) {}
+}
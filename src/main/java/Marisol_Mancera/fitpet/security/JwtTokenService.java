@@ -1,39 +1,61 @@
 package Marisol_Mancera.fitpet.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
-import org.springframework.security.oauth2.jwt.*;
 import org.springframework.stereotype.Service;
 
+import Marisol_Mancera.fitpet.common.error.ServiceUnavailableException;
 import Marisol_Mancera.fitpet.user.UserEntity;
 import Marisol_Mancera.fitpet.user.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
+import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Servicio de autenticación y emisión de JWT.
- * - Verifica credenciales (username/password) contra la BD.
- * - Construye claims estándar + 'scope' en base a los roles del usuario.
- * - Firma el token usando el JwtEncoder configurado (HS512).
- * 
- * Modificado: Tiempo de expiración aumentado a 2 horas para desarrollo.
+ * - Verifica credenciales (username/password) contra la BD y rehashea si el hash está fuera de política.
+ * - Construye claims estándar + 'uid' (id del usuario) + 'scope' en base a los roles del usuario.
+ * - Firma el token con JwsTokenIssuer (cabecera precalculada, clave activa del SigningKeyRing).
+ * - TTL del access token configurable con jwt.access-token-ttl (por defecto 2 horas).
+ * - Métricas: fitpet.auth.authenticate (outcome success|unknown_user|bad_password|busy|error)
+ *   y fitpet.jwt.issue.
  */
 @Service
 public class JwtTokenService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final JwtEncoder jwtEncoder;
+    private final JwsTokenIssuer tokenIssuer;
+    private final PasswordRehashService passwordRehashService;
+    private final Duration accessTokenTtl;
+    private final Map<String, Timer> authenticateTimers;
+    private final Timer issueTimer;
 
     public JwtTokenService(UserRepository userRepository,
                         PasswordEncoder passwordEncoder,
-                        JwtEncoder jwtEncoder) {
+                        JwsTokenIssuer tokenIssuer,
+                        PasswordRehashService passwordRehashService,
+                        @Value("${jwt.access-token-ttl:PT2H}") Duration accessTokenTtl,
+                        MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.jwtEncoder = jwtEncoder;
+        this.tokenIssuer = tokenIssuer;
+        this.passwordRehashService = passwordRehashService;
+        this.accessTokenTtl = accessTokenTtl;
+        this.authenticateTimers = Map.of(
+                "success", authenticateTimer(meterRegistry, "success"),
+                "unknown_user", authenticateTimer(meterRegistry, "unknown_user"),
+                "bad_password", authenticateTimer(meterRegistry, "bad_password"),
+                "busy", authenticateTimer(meterRegistry, "busy"),
+                "error", authenticateTimer(meterRegistry, "error"));
+        this.issueTimer = Timer.builder("fitpet.jwt.issue")
+                .description("Construcción y firma de un access token")
+                .register(meterRegistry);
     }
 
     /**
@@ -41,30 +63,61 @@ public class JwtTokenService {
      * @throws BadCredentialsException
      */
     public String loginAndGenerateToken(String username, String rawPassword) {
-        UserEntity user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new BadCredentialsException("Invalid credentials"));
+        return generateToken(authenticate(username, rawPassword));
+    }
 
-        if (!passwordEncoder.matches(rawPassword, user.getPassword())) {
-            throw new BadCredentialsException("Invalid credentials");
+    /**
+     * Verifica credenciales y devuelve el usuario.
+     * @throws BadCredentialsException
+     */
+    public UserEntity authenticate(String username, String rawPassword) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            UserEntity user = userRepository.findByUsername(username).orElse(null);
+            if (user == null) {
+                outcome = "unknown_user";
+                throw new BadCredentialsException("Invalid credentials");
+            }
+            if (!passwordEncoder.matches(rawPassword, user.getPassword())) {
+                outcome = "bad_password";
+                throw new BadCredentialsException("Invalid credentials");
+            }
+            passwordRehashService.rehashIfNeeded(user, rawPassword);
+            outcome = "success";
+            return user;
+        } catch (ServiceUnavailableException ex) {
+            outcome = "busy";
+            throw ex;
+        } finally {
+            authenticateTimers.get(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
+    }
 
-        // Mapeamos ROLE_X -> X para scope (espacio separado)
-        String scope = user.getRoles() == null ? "" :
-                user.getRoles().stream()
-                        .map(r -> r.getName())
-                        .map(roleName -> roleName.startsWith("ROLE_") ? roleName.substring(5) : roleName)
-                        .collect(Collectors.joining(" "));
+    /**
+     * Emite un access token para un usuario ya autenticado (login o refresh).
+     */
+    public String generateToken(UserEntity user) {
+        // Mapeamos ROLE_X -> X para scope (espacio separado, cacheado por conjunto de roles)
+        String scope = tokenIssuer.scopeFor(user.getRoles());
 
-        Instant now = Instant.now();
-        JwtClaimsSet claims = JwtClaimsSet.builder()
-                .subject(user.getUsername())
-                .issuedAt(now)
-                .expiresAt(now.plus(2, ChronoUnit.HOURS)) // TTL: 2 horas (desarrollo)
-                .claim("scope", scope)
-                .build();
+        long start = System.nanoTime();
+        try {
+            Instant now = Instant.now();
+            return tokenIssuer.issue(user.getUsername(), user.getId(), scope, now, now.plus(accessTokenTtl));
+        } finally {
+            issueTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public Duration accessTokenTtl() {
+        return accessTokenTtl;
+    }
 
-        // Firmar con HS512 (header lo gestionará el encoder/decoder configurado)
-        JwsHeader jws = JwsHeader.with(MacAlgorithm.HS512).build();
-        return jwtEncoder.encode(JwtEncoderParameters.from(jws, claims)).getTokenValue();
+    private static Timer authenticateTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("fitpet.auth.authenticate")
+                .description("Verificación de credenciales: búsqueda del usuario + hash")
+                .tag("outcome", outcome)
+                .register(registry);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,26 @@
+package Marisol_Mancera.fitpet.security;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+/**
+ * JwtAuthenticationToken cuyo principal es un OwnerPrincipal en lugar del Jwt.
+ * getName() sigue devolviendo el username y getToken() el Jwt original.
+ */
+public class OwnerAuthenticationToken extends JwtAuthenticationToken {
+
+    private final OwnerPrincipal owner;
+
+    public OwnerAuthenticationToken(Jwt jwt, Collection<? extends GrantedAuthority> authorities, OwnerPrincipal owner) {
+        super(jwt, authorities, owner.username());
+        this.owner = owner;
+    }
+
+    @Override
+    public OwnerPrincipal getPrincipal() {
+        return owner;
+    }
+}
@@ -0,0 +1,56 @@
+package Marisol_Mancera.fitpet.security;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import Marisol_Mancera.fitpet.user.UserRepository;
+
+/**
+ * Convierte un Jwt validado en OwnerAuthenticationToken.
+ * - Authorities: claim "scope" con prefijo SCOPE_ (igual que antes).
+ * - Id de usuario: claim "uid"; los tokens emitidos antes de incluirlo
+ *   se resuelven por username (una consulta por id) hasta que caduquen.
+ * - Si el usuario ya no existe: 401 (InvalidBearerTokenException).
+ */
+public class OwnerJwtAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+
+    static final String USER_ID_CLAIM = "uid";
+
+    private final JwtGrantedAuthoritiesConverter authoritiesConverter = new JwtGrantedAuthoritiesConverter();
+    private final UserRepository userRepository;
+
+    public OwnerJwtAuthenticationConverter(UserRepository userRepository) {
+        this.userRepository = userRepository;
+        authoritiesConverter.setAuthoritiesClaimName("scope");
+        authoritiesConverter.setAuthorityPrefix("SCOPE_");
+    }
+
+    @Override
+    public AbstractAuthenticationToken convert(Jwt jwt) {
+        String username = jwt.getSubject();
+        Long userId = userIdOf(jwt);
+        if (userId == null) {
+            userId = userRepository.findIdByUsername(username)
+                    .orElseThrow(() -> new InvalidBearerTokenException("Unknown token subject"));
+        }
+        return new OwnerAuthenticationToken(jwt, authoritiesConverter.convert(jwt), new OwnerPrincipal(userId, username));
+    }
+
+    private static Long userIdOf(Jwt jwt) {
+        Object uid = jwt.getClaims().get(USER_ID_CLAIM);
+        if (uid instanceof Number number) {
+            return number.longValue();
+        }
+        if (uid instanceof String text && !text.isBlank()) {
+            try {
+                return Long.valueOf(text);
+            } catch (NumberFormatException ex) {
+                throw new InvalidBearerTokenException("Malformed uid claim");
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,31 @@
+package Marisol_Mancera.fitpet.security;
+
+import java.security.Principal;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Principal tipado del usuario autenticado por JWT.
+ * - id: id_user (claim 'uid'), usado para filtrar por owner_id sin join a users.
+ * - username: email (claim 'sub').
+ */
+public record OwnerPrincipal(Long id, String username) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    /**
+     * Principal de la petición en curso.
+     * @throws IllegalStateException si la autenticación no procede de un JWT de usuario
+     */
+    public static OwnerPrincipal current() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof OwnerPrincipal owner) {
+            return owner;
+        }
+        throw new IllegalStateException("Authenticated owner not available");
+    }
+}
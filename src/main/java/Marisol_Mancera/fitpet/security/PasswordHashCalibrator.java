@@ -0,0 +1,49 @@
+package Marisol_Mancera.fitpet.security;
+
+import java.time.Duration;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Calibración del coste BCrypt en el arranque.
+ * - Mide el hash con el coste mínimo en la máquina actual.
+ * - Cada +1 de coste duplica el tiempo: elige el coste cuyo tiempo estimado
+ *   se acerca más a la latencia objetivo, dentro de [min, max].
+ */
+public final class PasswordHashCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibration-Str0ng!Pass";
+    private static final int SAMPLES = 3;
+
+    private PasswordHashCalibrator() {}
+
+    public static int calibrateStrength(Duration target, int minStrength, int maxStrength) {
+        if (minStrength < 4 || maxStrength > 31 || minStrength > maxStrength) {
+            throw new IllegalArgumentException("BCrypt strength bounds must satisfy 4 <= min <= max <= 31");
+        }
+        long measured = measureNanos(minStrength);
+        return strengthFor(target.toNanos(), measured, minStrength, maxStrength);
+    }
+
+    /** Coste para la latencia objetivo sabiendo lo que tarda un hash con 'baseStrength'. */
+    static int strengthFor(long targetNanos, long baseNanos, int baseStrength, int maxStrength) {
+        if (targetNanos <= baseNanos || baseNanos <= 0) {
+            return baseStrength;
+        }
+        double doublings = Math.log((double) targetNanos / baseNanos) / Math.log(2);
+        return (int) Math.min(maxStrength, baseStrength + Math.round(doublings));
+    }
+
+    /** Mejor de varias muestras tras un hash de calentamiento. */
+    private static long measureNanos(int strength) {
+        var encoder = new BCryptPasswordEncoder(strength);
+        encoder.encode(SAMPLE_PASSWORD);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
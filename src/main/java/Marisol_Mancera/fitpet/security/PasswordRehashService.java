@@ -0,0 +1,39 @@
+package Marisol_Mancera.fitpet.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import Marisol_Mancera.fitpet.common.error.ServiceUnavailableException;
+import Marisol_Mancera.fitpet.user.UserEntity;
+import Marisol_Mancera.fitpet.user.UserRepository;
+
+/**
+ * Rehash tras un login correcto.
+ * - Si el hash guardado está fuera de política (coste BCrypt inferior al calibrado
+ *   o sin prefijo {bcrypt} de algoritmo), se vuelve a hashear con la contraseña en claro
+ *   que acabamos de verificar y se persiste.
+ * - Es una mejora oportunista: si el pool de hashing está saturado se deja para el próximo login.
+ */
+@Service
+public class PasswordRehashService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final UserRepository userRepository;
+
+    public PasswordRehashService(PasswordEncoder passwordEncoder, UserRepository userRepository) {
+        this.passwordEncoder = passwordEncoder;
+        this.userRepository = userRepository;
+    }
+
+    public void rehashIfNeeded(UserEntity user, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+        try {
+            user.setPassword(passwordEncoder.encode(rawPassword));
+            userRepository.save(user);
+        } catch (ServiceUnavailableException busy) {
+            // sin hueco en el pool: el login ya es válido, se reintenta en el siguiente
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package Marisol_Mancera.fitpet.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro de Bloom concurrente para claves de tokens revocados.
+ * - mightContain() son k lecturas de un AtomicLongArray: sin locks ni reservas.
+ * - put() fija bits con CAS; nunca hay falsos negativos, solo falsos positivos (~fpp).
+ * - No admite borrado: las claves caducadas se podan reconstruyendo un filtro nuevo.
+ */
+public final class RevocationBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long numBits;
+    private final int numHashes;
+    private final LongAdder insertions = new LongAdder();
+
+    private RevocationBloomFilter(long numBits, int numHashes) {
+        this.words = new AtomicLongArray((int) ((numBits + 63) >>> 6));
+        this.numBits = (long) words.length() << 6;
+        this.numHashes = numHashes;
+    }
+
+    /**
+     * Dimensiona el filtro para 'expectedInsertions' claves con tasa de falsos positivos 'fpp'.
+     */
+    public static RevocationBloomFilter create(int expectedInsertions, double fpp) {
+        if (expectedInsertions <= 0 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("expectedInsertions must be > 0 and fpp in (0, 1)");
+        }
+        double ln2 = Math.log(2);
+        long bits = Math.max(64, (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (ln2 * ln2)));
+        int hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * ln2));
+        return new RevocationBloomFilter(bits, hashes);
+    }
+
+    public void put(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            long bit = index(h1 + i * h2);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(word, current, current | mask));
+        }
+        insertions.increment();
+    }
+
+    public boolean mightContain(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            long bit = index(h1 + i * h2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Claves insertadas (con repeticiones) desde que se creó el filtro. */
+    public long insertions() {
+        return insertions.sum();
+    }
+
+    // Doble hashing de Kirsch-Mitzenmacher: h1 + i*h2 recorre las k posiciones
+    private long index(int combined) {
+        return (combined & 0x7fffffffL) % numBits;
+    }
+
+    /** FNV-1a de 64 bits sobre los chars + finalizador de MurmurHash3 para dispersar bien ambas mitades. */
+    private static long hash64(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0, n = key.length(); i < n; i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,33 @@
+package Marisol_Mancera.fitpet.security;
+
+import java.util.function.Predicate;
+
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * Decorador que rechaza tokens revocados después de verificarlos (o servirlos de caché).
+ * La comprobación va fuera de CachingJwtDecoder para que también se aplique a los aciertos de caché.
+ * Un token revocado produce BadJwtException, que el resource server traduce a 401.
+ */
+public class RevocationCheckingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Predicate<Jwt> revoked;
+
+    public RevocationCheckingJwtDecoder(JwtDecoder delegate, Predicate<Jwt> revoked) {
+        this.delegate = delegate;
+        this.revoked = revoked;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        Jwt jwt = delegate.decode(token);
+        if (revoked.test(jwt)) {
+            throw new BadJwtException("Token has been revoked");
+        }
+        return jwt;
+    }
+}
@@ -0,0 +1,280 @@
+package Marisol_Mancera.fitpet.security;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.oauth2.jwt.JoseHeaderNames;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.proc.JWSKeySelector;
+import com.nimbusds.jose.proc.JWSVerifierFactory;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
+/**
+ * Conjunto de claves de firma indexado por 'kid'.
+ * - Verificación: una búsqueda en un mapa inmutable kid -> verificador preconstruido;
+ *   no se prueban claves en secuencia, el coste no depende de cuántas haya activas.
+ * - Algoritmos: HS512 (secreto compartido), ES256 y EdDSA (Ed25519, solo JDK).
+ * - Tokens sin 'kid' (emitidos antes de la rotación): clave 'default' (jwt.key).
+ * - Una clave con retireAt en el pasado deja de validar (401) sin reiniciar; CachingJwtDecoder
+ *   limita sus entradas a retireAtOf(jwt) para que la caché no la mantenga viva.
+ * - jwks(): claves públicas vigentes para que otros servicios verifiquen sin el secreto.
+ */
+public class SigningKeyRing {
+
+    public static final String DEFAULT_KID = "default";
+
+    private static final Logger log = LoggerFactory.getLogger(SigningKeyRing.class);
+    private static final Set<JWSAlgorithm> SUPPORTED = Set.of(JWSAlgorithm.HS512, JWSAlgorithm.ES256, JWSAlgorithm.EdDSA);
+
+    private final Map<String, SigningKey> keys;
+    private final SigningKey active;
+    private final Clock clock;
+
+    public SigningKeyRing(Map<String, SigningKey> keys, String activeKid) {
+        this(keys, activeKid, Clock.systemUTC());
+    }
+
+    SigningKeyRing(Map<String, SigningKey> keys, String activeKid, Clock clock) {
+        this.keys = Map.copyOf(keys);
+        this.clock = clock;
+        this.active = this.keys.get(activeKid);
+        if (active == null) {
+            throw new IllegalStateException("Active signing key '" + activeKid + "' is not configured");
+        }
+        if (active.signer() == null) {
+            throw new IllegalStateException("Active signing key '" + activeKid + "' has no private key");
+        }
+        if (active.isRetiredAt(clock.instant())) {
+            throw new IllegalStateException("Active signing key '" + activeKid + "' is already retired");
+        }
+    }
+
+    /**
+     * Construye el anillo a partir de jwt.key (kid 'default') y jwt.signing.*.
+     */
+    public static SigningKeyRing from(String defaultBase64Secret, JwtSigningProperties properties) {
+        Map<String, SigningKey> keys = new HashMap<>();
+        keys.put(DEFAULT_KID, SigningKey.hmac(DEFAULT_KID, Base64.getDecoder().decode(defaultBase64Secret), null));
+        properties.keys().forEach((kid, key) -> keys.put(kid, fromProperties(kid, key, defaultBase64Secret)));
+        String activeKid = properties.activeKid() != null ? properties.activeKid() : DEFAULT_KID;
+        return new SigningKeyRing(keys, activeKid);
+    }
+
+    private static SigningKey fromProperties(String kid, JwtSigningProperties.Key key, String defaultBase64Secret) {
+        JWSAlgorithm algorithm = JWSAlgorithm.parse(key.algorithm());
+        if (JWSAlgorithm.HS512.equals(algorithm)) {
+            // keys.default.retire-at puede declararse sin secret: se usa el de jwt.key
+            String secret = key.secret() != null ? key.secret() : DEFAULT_KID.equals(kid) ? defaultBase64Secret : null;
+            if (secret == null) {
+                throw new IllegalStateException("Signing key '" + kid + "' has no secret");
+            }
+            return SigningKey.hmac(kid, Base64.getDecoder().decode(secret), key.retireAt());
+        }
+        if (!SUPPORTED.contains(algorithm)) {
+            throw new IllegalStateException("Unsupported algorithm " + algorithm + " for signing key '" + kid + "'");
+        }
+        if (key.privateKey() == null && key.publicKey() == null) {
+            log.warn("Signing key '{}' ({}) has no key material: generating an ephemeral key pair. "
+                    + "Tokens will not survive a restart nor validate on other instances.", kid, algorithm);
+            return SigningKey.asymmetric(kid, algorithm, generateKeyPair(algorithm), key.retireAt());
+        }
+        if (key.publicKey() == null) {
+            throw new IllegalStateException("Signing key '" + kid + "' needs public-key");
+        }
+        try {
+            KeyFactory factory = KeyFactory.getInstance(jcaKeyAlgorithm(algorithm));
+            PublicKey publicKey = factory.generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(key.publicKey())));
+            PrivateKey privateKey = key.privateKey() == null ? null
+                    : factory.generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(key.privateKey())));
+            return SigningKey.asymmetric(kid, algorithm, new KeyPair(publicKey, privateKey), key.retireAt());
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Invalid " + algorithm + " key '" + kid + "'", ex);
+        }
+    }
+
+    /** Par de claves nuevo para ES256 (P-256) o EdDSA (Ed25519). */
+    public static KeyPair generateKeyPair(JWSAlgorithm algorithm) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(jcaKeyAlgorithm(algorithm));
+            if (JWSAlgorithm.ES256.equals(algorithm)) {
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+            }
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Unable to generate " + algorithm + " key pair", ex);
+        }
+    }
+
+    private static String jcaKeyAlgorithm(JWSAlgorithm algorithm) {
+        return JWSAlgorithm.ES256.equals(algorithm) ? "EC" : "Ed25519";
+    }
+
+    /** Clave con la que se firman los tokens nuevos. */
+    public SigningKey active() {
+        return active;
+    }
+
+    /** Clave vigente para un kid (null = 'default'), o null si no existe o está retirada. */
+    public SigningKey forVerification(String kid) {
+        SigningKey key = keys.get(kid != null ? kid : DEFAULT_KID);
+        if (key == null || key.isRetiredAt(clock.instant())) {
+            return null;
+        }
+        return key;
+    }
+
+    /** retireAt de la clave que firmó un token ya verificado (por su 'kid'), o null si no se retira. */
+    public Instant retireAtOf(Jwt jwt) {
+        Object kid = jwt.getHeaders().get(JoseHeaderNames.KID);
+        SigningKey key = keys.get(kid != null ? kid.toString() : DEFAULT_KID);
+        return key != null ? key.retireAt() : null;
+    }
+
+    /** JWK Set con las claves públicas vigentes (las HS512 nunca se publican). */
+    public Map<String, Object> jwks() {
+        Instant now = clock.instant();
+        List<JWK> published = new ArrayList<>();
+        for (SigningKey key : keys.values()) {
+            if (key.publicJwk() != null && !key.isRetiredAt(now)) {
+                published.add(key.publicJwk());
+            }
+        }
+        return new JWKSet(published).toJSONObject();
+    }
+
+    /**
+     * JwtDecoder de Nimbus que resuelve clave y verificador por kid.
+     * Las validaciones de exp/nbf las aplica NimbusJwtDecoder (JwtValidators por defecto).
+     */
+    public JwtDecoder jwtDecoder() {
+        var processor = new DefaultJWTProcessor<SecurityContext>();
+        processor.setJWSKeySelector(keySelector());
+        processor.setJWSVerifierFactory(new KeyRingVerifierFactory());
+        // exp/nbf se validan en NimbusJwtDecoder; evitamos el doble chequeo
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        return new NimbusJwtDecoder(processor);
+    }
+
+    private JWSKeySelector<SecurityContext> keySelector() {
+        return (header, context) -> {
+            SigningKey key = forVerification(header.getKeyID());
+            if (key == null || !key.algorithm().equals(header.getAlgorithm())) {
+                return List.of();
+            }
+            return List.of(key.verificationKey());
+        };
+    }
+
+    /** Devuelve el verificador ya construido del kid en lugar de crear uno por token. */
+    private final class KeyRingVerifierFactory implements JWSVerifierFactory {
+
+        private final JCAContext jcaContext = new JCAContext();
+
+        @Override
+        public JWSVerifier createJWSVerifier(JWSHeader header, Key key) throws JOSEException {
+            SigningKey signingKey = forVerification(header.getKeyID());
+            if (signingKey == null) {
+                throw new JOSEException("No signing key for kid " + header.getKeyID());
+            }
+            return signingKey.verifier();
+        }
+
+        @Override
+        public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+            return SUPPORTED;
+        }
+
+        @Override
+        public JCAContext getJCAContext() {
+            return jcaContext;
+        }
+    }
+
+    /**
+     * Clave de firma con su verificador preconstruido.
+     * signer es null para claves solo de verificación; publicJwk es null para HS512.
+     */
+    public record SigningKey(String id, JWSAlgorithm algorithm, Key verificationKey, JWSVerifier verifier,
+                             JwsSigner signer, JWK publicJwk, Instant retireAt) {
+
+        public static SigningKey hmac(String id, byte[] secretBytes, Instant retireAt) {
+            try {
+                return new SigningKey(id, JWSAlgorithm.HS512, new SecretKeySpec(secretBytes, "HmacSHA512"),
+                        new MACVerifier(secretBytes), JwsSigner.hs512(secretBytes, id), null, retireAt);
+            } catch (JOSEException ex) {
+                throw new IllegalStateException("Invalid HS512 key '" + id + "'", ex);
+            }
+        }
+
+        /** ES256 o EdDSA; keyPair.getPrivate() puede ser null (solo verificación). */
+        public static SigningKey asymmetric(String id, JWSAlgorithm algorithm, KeyPair keyPair, Instant retireAt) {
+            PublicKey publicKey = keyPair.getPublic();
+            PrivateKey privateKey = keyPair.getPrivate();
+            JwsSigner signer = null;
+            JWK jwk;
+            if (JWSAlgorithm.ES256.equals(algorithm)) {
+                signer = privateKey == null ? null : JwsSigner.es256(privateKey, id);
+                jwk = new ECKey.Builder(Curve.P_256, (ECPublicKey) publicKey)
+                        .keyID(id).algorithm(algorithm).keyUse(KeyUse.SIGNATURE).build();
+            } else if (JWSAlgorithm.EdDSA.equals(algorithm)) {
+                signer = privateKey == null ? null : JwsSigner.ed25519(privateKey, id);
+                jwk = new OctetKeyPair.Builder(Curve.Ed25519, Base64URL.encode(rawEd25519(publicKey)))
+                        .keyID(id).algorithm(algorithm).keyUse(KeyUse.SIGNATURE).build();
+            } else {
+                throw new IllegalArgumentException("Unsupported asymmetric algorithm " + algorithm);
+            }
+            return new SigningKey(id, algorithm, publicKey, new JdkSignatureVerifier(algorithm, publicKey),
+                    signer, jwk, retireAt);
+        }
+
+        public boolean isRetiredAt(Instant now) {
+            return retireAt != null && !now.isBefore(retireAt);
+        }
+
+        // X.509 de Ed25519 = cabecera fija de 12 bytes + clave pública cruda de 32 bytes
+        private static byte[] rawEd25519(PublicKey publicKey) {
+            byte[] encoded = publicKey.getEncoded();
+            return Arrays.copyOfRange(encoded, encoded.length - 32, encoded.length);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package Marisol_Mancera.fitpet.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Decorador de JwtDecoder que mide cada decodificación (timer 'fitpet.jwt.decode').
+ * - outcome=valid: token aceptado (acierto de caché o verificación completa).
+ * - outcome=invalid: firma, expiración, formato o revocación -> el resource server responde 401.
+ */
+public class TimedJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Timer valid;
+    private final Timer invalid;
+
+    public TimedJwtDecoder(JwtDecoder delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.valid = timer(registry, "valid");
+        this.invalid = timer(registry, "invalid");
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        long start = System.nanoTime();
+        Timer outcome = invalid;
+        try {
+            Jwt jwt = delegate.decode(token);
+            outcome = valid;
+            return jwt;
+        } finally {
+            outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Timer timer(MeterRegistry registry, String outcome) {
+        return Timer.builder("fitpet.jwt.decode")
+                .description("Decodificación y validación del Bearer JWT")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,61 @@
+package Marisol_Mancera.fitpet.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Decorador de PasswordEncoder que mide cada hash (timer 'fitpet.password.hash').
+ * - operation=encode|matches; en matches, outcome=match|mismatch (encode va con outcome=ok).
+ * - Va por dentro de BoundedPasswordEncoder: mide el coste de BCrypt en el hilo del pool,
+ *   sin la espera en cola (esa se ve en fitpet.password.queue.depth).
+ * upgradeEncoding no hashea, así que no se mide.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encode;
+    private final Timer match;
+    private final Timer mismatch;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.encode = timer(registry, "encode", "ok");
+        this.match = timer(registry, "matches", "match");
+        this.mismatch = timer(registry, "matches", "mismatch");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long start = System.nanoTime();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            encode.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        (matches ? match : mismatch).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static Timer timer(MeterRegistry registry, String operation, String outcome) {
+        return Timer.builder("fitpet.password.hash")
+                .description("Coste del hash de contraseñas (BCrypt) en el pool de hashing")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
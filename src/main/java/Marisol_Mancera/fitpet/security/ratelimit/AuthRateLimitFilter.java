@@ -0,0 +1,215 @@
+package Marisol_Mancera.fitpet.security.ratelimit;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import Marisol_Mancera.fitpet.common.error.GlobalExceptionHandler.Problem;
+import Marisol_Mancera.fitpet.dtos.LoginRequest;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Filtro de la cadena de seguridad que limita login/token/registro antes de
+ * cualquier acceso a BD o hash BCrypt.
+ * - Cubeta por IP (remoteAddr) y cubeta por email normalizado del cuerpo JSON.
+ * - La ruta se compara ya decodificada y normalizada, con los mismos PathPattern que SecurityConfig
+ *   y Spring MVC: /api/v1/auth/%6Cogin llega al controlador de login y cuenta en su cubeta.
+ * - El cuerpo se lee una vez (acotado a maxBodyBytes) y se re-expone al controlador.
+ * - Si se supera el límite: 429 + Retry-After con el Problem Object habitual.
+ * No es un @Component: se registra solo en SecurityConfig para no duplicarlo como filtro de servlet.
+ */
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    private final TokenBucketRateLimiter limiter;
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Map<String, RequestMatcher> matchers = new LinkedHashMap<>();
+
+    public AuthRateLimitFilter(TokenBucketRateLimiter limiter, RateLimitProperties properties,
+                               ObjectMapper objectMapper) {
+        this.limiter = limiter;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        var paths = PathPatternRequestMatcher.withDefaults();
+        properties.endpoints().forEach((name, endpoint) ->
+                matchers.put(name, paths.matcher(HttpMethod.POST, endpoint.path())));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return endpointFor(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Map.Entry<String, RateLimitProperties.Endpoint> endpoint = endpointFor(request);
+        String name = endpoint.getKey();
+        RateLimitProperties.Endpoint limits = endpoint.getValue();
+
+        if (limits.perIp() != null) {
+            long waitNanos = limiter.tryAcquire(name + "|ip|" + request.getRemoteAddr(), limits.perIp());
+            if (waitNanos > 0) {
+                reject(response, waitNanos);
+                return;
+            }
+        }
+
+        HttpServletRequest downstream = request;
+        if (limits.perEmail() != null) {
+            byte[] body = readBody(request);
+            if (body == null) {
+                writeProblem(response, HttpStatus.PAYLOAD_TOO_LARGE, "PAYLOAD_TOO_LARGE", "Request body too large");
+                return;
+            }
+            downstream = new CachedBodyRequest(request, body);
+            String email = emailOf(body);
+            if (email != null) {
+                long waitNanos = limiter.tryAcquire(name + "|email|" + email, limits.perEmail());
+                if (waitNanos > 0) {
+                    reject(response, waitNanos);
+                    return;
+                }
+            }
+        }
+
+        chain.doFilter(downstream, response);
+    }
+
+    private Map.Entry<String, RateLimitProperties.Endpoint> endpointFor(HttpServletRequest request) {
+        for (var entry : properties.endpoints().entrySet()) {
+            if (matchers.get(entry.getKey()).matches(request)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /** Lee el cuerpo completo; null si supera maxBodyBytes (un login legítimo ocupa unos cientos de bytes). */
+    private byte[] readBody(HttpServletRequest request) throws IOException {
+        int max = properties.maxBodyBytes();
+        if (request.getContentLengthLong() > max) {
+            return null;
+        }
+        byte[] body = request.getInputStream().readNBytes(max + 1);
+        return body.length > max ? null : body;
+    }
+
+    /** Email normalizado del cuerpo, o null si el JSON no es válido (el controlador responderá 400). */
+    private String emailOf(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            if (email == null || !email.isTextual()) {
+                return null;
+            }
+            return new LoginRequest(email.asText(), null).normalizedEmail();
+        } catch (IOException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        // redondeo hacia arriba a segundos enteros
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        writeProblem(response, HttpStatus.TOO_MANY_REQUESTS, "TOO_MANY_REQUESTS", "Too many attempts, retry later");
+    }
+
+    private void writeProblem(HttpServletResponse response, HttpStatus status, String code, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new Problem(code, message));
+    }
+
+    /** Request con el cuerpo ya leído para que el controlador pueda deserializarlo. */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            var in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /** El cuerpo ya está en memoria: todo está disponible al registrar el listener. */
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException | RuntimeException ex) {
+                        listener.onError(ex);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
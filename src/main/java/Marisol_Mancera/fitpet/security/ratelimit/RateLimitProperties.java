@@ -0,0 +1,35 @@
+package Marisol_Mancera.fitpet.security.ratelimit;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuración del limitador de auth (prefijo auth.rate-limit).
+ * Cada endpoint declara su ruta y dos cubetas independientes:
+ *  - per-ip: por IP de cliente.
+ *  - per-email: por email normalizado del cuerpo (LoginRequest.normalizedEmail).
+ * Una cubeta admite 'capacity' peticiones de ráfaga y se rellena por completo en 'refill-period'.
+ */
+@ConfigurationProperties(prefix = "auth.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100000") int maxTrackedKeys,
+        @DefaultValue("8192") int maxBodyBytes,
+        Map<String, Endpoint> endpoints
+) {
+    public RateLimitProperties {
+        endpoints = endpoints == null ? Map.of() : Map.copyOf(endpoints);
+    }
+
+    public record Endpoint(String path, Bucket perIp, Bucket perEmail) {}
+
+    public record Bucket(int capacity, Duration refillPeriod) {
+        /** Intervalo entre permisos en nanosegundos (ritmo de relleno). */
+        public long emissionIntervalNanos() {
+            return refillPeriod.toNanos() / capacity;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package Marisol_Mancera.fitpet.security.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket sin bloqueos (variante GCRA).
+ * - Cada clave guarda un único long: el instante teórico de la próxima llegada (TAT).
+ * - Adquirir = un CAS sobre ese long; no hay locks ni objetos por petición.
+ * - Una clave cuyo TAT ya pasó tiene la cubeta llena, así que se puede descartar
+ *   sin cambiar el comportamiento: el barrido de inactivas es amortizado (cada N llamadas)
+ *   o inmediato si se supera maxTrackedKeys (como mucho uno cada FULL_SWEEP_BACKOFF_NANOS).
+ * - Con la tabla llena de claves activas, una clave nueva se rechaza (falla cerrado):
+ *   rotar IPs o emails para llenarla no abre paso a peticiones sin límite.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int SWEEP_EVERY = 4096;
+    // con la tabla llena, cada barrido recorre todas las claves: no más de uno cada 100 ms
+    private static final long FULL_SWEEP_BACKOFF_NANOS = 100_000_000L;
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final int maxTrackedKeys;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger callsSinceSweep = new AtomicInteger();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final AtomicLong lastFullSweep;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public TokenBucketRateLimiter(int maxTrackedKeys) {
+        this(maxTrackedKeys, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(int maxTrackedKeys, LongSupplier nanoClock) {
+        this.maxTrackedKeys = maxTrackedKeys;
+        this.nanoClock = nanoClock;
+        this.lastFullSweep = new AtomicLong(nanoClock.getAsLong() - FULL_SWEEP_BACKOFF_NANOS);
+    }
+
+    /**
+     * Intenta consumir un permiso de la cubeta 'key'.
+     * @return 0 si se admite; si no, nanosegundos hasta el próximo permiso.
+     */
+    public long tryAcquire(String key, RateLimitProperties.Bucket bucket) {
+        long now = nanoClock.getAsLong();
+        maybeSweep(now);
+
+        long interval = bucket.emissionIntervalNanos();
+        long burst = interval * bucket.capacity();
+
+        AtomicLong tat = buckets.get(key);
+        if (tat == null) {
+            if (buckets.size() >= maxTrackedKeys) {
+                // Tabla llena de claves activas: la clave nueva espera a que alguna quede inactiva
+                rejected.increment();
+                return interval;
+            }
+            tat = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long current = tat.get();
+            long base = Math.max(current, now);
+            long next = base + interval;
+            if (next - now > burst) {
+                rejected.increment();
+                return next - now - burst;
+            }
+            if (tat.compareAndSet(current, next)) {
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(allowed.sum(), rejected.sum(), buckets.size());
+    }
+
+    /** Instantánea de contadores del limitador. */
+    public record Stats(long allowed, long rejected, int trackedKeys) {}
+
+    private void maybeSweep(long now) {
+        boolean full = buckets.size() >= maxTrackedKeys && now - lastFullSweep.get() >= FULL_SWEEP_BACKOFF_NANOS;
+        boolean due = callsSinceSweep.incrementAndGet() >= SWEEP_EVERY || full;
+        if (!due || !sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            callsSinceSweep.set(0);
+            if (full) {
+                lastFullSweep.set(now);
+            }
+            // TAT en el pasado = cubeta llena = clave inactiva
+            buckets.values().removeIf(tat -> tat.get() - now <= 0);
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
@@ -3,6 +3,11 @@ package Marisol_Mancera.fitpet.user;
 import jakarta.persistence.*;
 import lombok.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import java.util.Set;
 
 import Marisol_Mancera.fitpet.role.RoleEntity;
@@ -11,11 +16,15 @@ import Marisol_Mancera.fitpet.role.RoleEntity;
  * Entidad User alineada con el ejemplo del profesor.
  * - Lombok se usa para reducir boilerplate (constructores, getters/setters, builder).
  * - Mantiene la relación ManyToMany con RoleEntity.
+ * - Caché de segundo nivel (ehcache.xml): entidad, colección de roles y username como
+ *   natural id, para que UserRepository.findByUsername no lance SQL en caliente.
  *
  * Comentarios en español para facilitar integración.
  */
 @Entity
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-by-username")
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -28,7 +37,8 @@ public class UserEntity {
     @Column(name = "id_user")
     private Long id;
 
-    // username = mail del usuario
+    // username = mail del usuario (inmutable: es la clave natural de la caché)
+    @NaturalId
     @Column(nullable = false, unique = true, length = 180)
     private String username;
 
@@ -36,8 +46,9 @@ public class UserEntity {
     @Column(nullable = false)
     private String password;
 
-    // Relación ManyToMany con roles, fetch eager 
+    // Relación ManyToMany con roles, fetch eager (la colección también va en caché)
     @ManyToMany(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users-roles")
     @JoinTable(
         name = "roles_users",
         joinColumns = @JoinColumn(name = "user_id"),
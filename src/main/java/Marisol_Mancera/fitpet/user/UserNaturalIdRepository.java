@@ -0,0 +1,12 @@
+package Marisol_Mancera.fitpet.user;
+
+import java.util.Optional;
+
+/**
+ * Búsqueda de usuarios por su natural id (username).
+ * Fragmento de UserRepository: la implementación usa la caché de natural ids de Hibernate.
+ */
+public interface UserNaturalIdRepository {
+
+    Optional<UserEntity> findByUsername(String username);//para buscar un usuario por su nombre de usuario
+}
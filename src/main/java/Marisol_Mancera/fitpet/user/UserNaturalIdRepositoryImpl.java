@@ -0,0 +1,31 @@
+package Marisol_Mancera.fitpet.user;
+
+import java.util.Optional;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * findByUsername con Session.bySimpleNaturalId: username → id sale de la región
+ * users-by-username y la entidad (con sus roles) de users / users-roles / roles.
+ * En caliente no lanza SQL; una consulta derivada iría siempre a BD.
+ */
+class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<UserEntity> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(UserEntity.class)
+                .loadOptional(username);
+    }
+}
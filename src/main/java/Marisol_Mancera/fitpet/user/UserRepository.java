@@ -4,10 +4,17 @@ package Marisol_Mancera.fitpet.user;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
-public interface UserRepository extends JpaRepository<UserEntity, Long> {
+/**
+ * Usuarios. findByUsername va por la natural id cacheada (UserNaturalIdRepository);
+ * existsByUsername y findIdByUsername siguen siendo consultas (índice único de username).
+ */
+public interface UserRepository extends JpaRepository<UserEntity, Long>, UserNaturalIdRepository {
 
     boolean existsByUsername(String username);
 
-    Optional<UserEntity> findByUsername(String username);//para buscar un usuario por su nombre de usuario
+    // Solo el id (sin roles EAGER): resuelve el owner de tokens sin claim uid
+    @Query("select u.id from UserEntity u where u.username = :username")
+    Optional<Long> findIdByUsername(String username);
 }
@@ -0,0 +1,45 @@
+-- Esquema inicial (el que generaba ddl-auto antes de pasar a migraciones).
+-- IF NOT EXISTS: en una BD MySQL ya creada por Hibernate esta versión no cambia nada
+-- (spring.flyway.baseline-on-migrate con baseline-version=0).
+-- SQL común a MySQL y H2 (MODE=MySQL).
+
+CREATE TABLE IF NOT EXISTS users (
+    id_user                 BIGINT       NOT NULL AUTO_INCREMENT,
+    username                VARCHAR(180) NOT NULL,
+    password                VARCHAR(255) NOT NULL,
+    account_non_expired     BOOLEAN      NOT NULL,
+    account_non_locked      BOOLEAN      NOT NULL,
+    credentials_non_expired BOOLEAN      NOT NULL,
+    enabled                 BOOLEAN      NOT NULL,
+    CONSTRAINT pk_users PRIMARY KEY (id_user),
+    -- índice único que resuelve findByUsername / existsByUsername / findIdByUsername
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE IF NOT EXISTS roles (
+    id_role BIGINT      NOT NULL AUTO_INCREMENT,
+    name    VARCHAR(60) NOT NULL,
+    CONSTRAINT pk_roles PRIMARY KEY (id_role),
+    CONSTRAINT uk_roles_name UNIQUE (name)
+);
+
+CREATE TABLE IF NOT EXISTS roles_users (
+    user_id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL,
+    CONSTRAINT pk_roles_users PRIMARY KEY (user_id, role_id),
+    CONSTRAINT fk_roles_users_user FOREIGN KEY (user_id) REFERENCES users (id_user),
+    CONSTRAINT fk_roles_users_role FOREIGN KEY (role_id) REFERENCES roles (id_role)
+);
+
+CREATE TABLE IF NOT EXISTS pets (
+    id_pet     BIGINT         NOT NULL AUTO_INCREMENT,
+    owner_id   BIGINT         NOT NULL,
+    name       VARCHAR(255)   NOT NULL,
+    species    VARCHAR(255)   NOT NULL,
+    breed      VARCHAR(255)   NOT NULL,
+    sex        VARCHAR(255)   NOT NULL,
+    birth_date DATE           NOT NULL,
+    weight_kg  DECIMAL(10, 2) NOT NULL,
+    CONSTRAINT pk_pets PRIMARY KEY (id_pet),
+    CONSTRAINT fk_pets_owner FOREIGN KEY (owner_id) REFERENCES users (id_user)
+);
@@ -0,0 +1,31 @@
+-- Refresh tokens opacos (solo se guarda el SHA-256) y tabla de revocación de JWT.
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id_refresh_token BIGINT      NOT NULL AUTO_INCREMENT,
+    token_hash       CHAR(64)    NOT NULL,
+    user_id          BIGINT      NOT NULL,
+    expires_at       DATETIME(6) NOT NULL,
+    revoked          BOOLEAN     NOT NULL,
+    CONSTRAINT pk_refresh_tokens PRIMARY KEY (id_refresh_token),
+    -- findByTokenHash
+    CONSTRAINT uk_refresh_tokens_hash UNIQUE (token_hash),
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users (id_user)
+);
+
+-- revokeAllForUser
+CREATE INDEX idx_refresh_tokens_user ON refresh_tokens (user_id);
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    id_revoked_token BIGINT       NOT NULL AUTO_INCREMENT,
+    token_key        VARCHAR(200) NOT NULL,
+    revoked_at       DATETIME(6)  NOT NULL,
+    expires_at       DATETIME(6)  NOT NULL,
+    CONSTRAINT pk_revoked_tokens PRIMARY KEY (id_revoked_token)
+);
+
+-- existsByTokenKey / findLatestRevokedAt
+CREATE INDEX idx_revoked_tokens_key ON revoked_tokens (token_key);
+-- findLiveKeysRevokedSince (sincronización incremental)
+CREATE INDEX idx_revoked_tokens_revoked_at ON revoked_tokens (revoked_at);
+-- findLiveKeys / deleteExpired
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
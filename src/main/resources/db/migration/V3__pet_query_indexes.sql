@@ -0,0 +1,12 @@
+-- Índices con la forma de las consultas de PetRepository / PetReadRepository.
+-- Todas filtran por owner_id; las keyset además recorren id_pet en orden,
+-- así que el índice compuesto sirve a la vez de filtro y de ORDER BY (sin filesort).
+
+-- findByOwner_Id, findByIdAndOwner_Id, findByOwner_IdAndIdGreaterThanOrderByIdAsc
+CREATE INDEX idx_pets_owner_id_pet ON pets (owner_id, id_pet);
+
+-- findByOwner_IdAndSpecies, findByOwner_IdAndSpeciesAndIdGreaterThanOrderByIdAsc
+CREATE INDEX idx_pets_owner_species_id_pet ON pets (owner_id, species, id_pet);
+
+-- La carga EAGER de roles va por user_id (cubierta por la PK); este cubre la FK role_id
+CREATE INDEX idx_roles_users_role ON roles_users (role_id);
@@ -0,0 +1,13 @@
+-- Bloqueo optimista de mascotas (@Version) y contador de cambios por dueño.
+-- pets.version: ETag de GET /api/v1/pets/{id} y condición de If-Match en PUT/DELETE.
+-- pet_owner_changes: se incrementa en cada alta/cambio/baja de mascotas del dueño;
+-- es el ETag del listado, así un If-None-Match se resuelve leyendo una sola fila por PK.
+
+ALTER TABLE pets ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE pet_owner_changes (
+    owner_id     BIGINT NOT NULL,
+    change_count BIGINT NOT NULL,
+    CONSTRAINT pk_pet_owner_changes PRIMARY KEY (owner_id),
+    CONSTRAINT fk_pet_owner_changes_owner FOREIGN KEY (owner_id) REFERENCES users (id_user)
+);
@@ -0,0 +1,6 @@
+-- Los refresh tokens se borran con su usuario: sin ON DELETE CASCADE, borrar un usuario
+-- que ha iniciado sesión alguna vez falla por fk_refresh_tokens_user.
+
+ALTER TABLE refresh_tokens DROP CONSTRAINT fk_refresh_tokens_user;
+ALTER TABLE refresh_tokens ADD CONSTRAINT fk_refresh_tokens_user
+    FOREIGN KEY (user_id) REFERENCES users (id_user) ON DELETE CASCADE;
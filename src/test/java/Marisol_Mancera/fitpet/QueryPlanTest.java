@@ -0,0 +1,169 @@
+package Marisol_Mancera.fitpet;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Plan de ejecución de las consultas de los repositorios sobre el esquema de Flyway.
+ * - H2 en modo MySQL con las migraciones reales (no el esquema de Hibernate).
+ * - Cada SQL reproduce la forma de la consulta que genera Hibernate o el repositorio JDBC;
+ *   los joins se comprueban por su tabla de entrada (el lado unido va siempre por PK).
+ * - Falla si alguna recorre la tabla entera (tableScan): al añadir una consulta nueva
+ *   a un repositorio hay que añadirla aquí y, si hace falta, su índice en una migración.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:queryplan;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+// sin rollback por test: los datos se siembran una vez y se comparten
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QueryPlanTest {
+
+    private static final String PET_COLUMNS =
+            "select id_pet, owner_id, name, species, breed, sex, birth_date, weight_kg from pets ";
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    /**
+     * Datos suficientes para que el optimizador de H2 tenga estadísticas realistas
+     * (con tablas vacías cualquier plan cuesta lo mismo).
+     */
+    @BeforeEach
+    void seed() {
+        if (jdbc.queryForObject("select count(*) from users", Long.class) > 0) {
+            return;
+        }
+        jdbc.update("insert into roles (name) values ('ROLE_USER'), ('ROLE_ADMIN')");
+        for (int u = 1; u <= 100; u++) {
+            jdbc.update("insert into users (username, password, account_non_expired, account_non_locked, "
+                    + "credentials_non_expired, enabled) values (?, 'x', true, true, true, true)",
+                    "owner" + u + "@example.com");
+        }
+        jdbc.update("insert into roles_users (user_id, role_id) select id_user, 1 from users");
+        String[] species = {"Dog", "Cat", "Bird", "Rabbit"};
+        jdbc.batchUpdate("insert into pets (owner_id, name, species, breed, sex, birth_date, weight_kg) "
+                        + "values (?, ?, ?, 'Mixed', 'F', DATE '2020-01-01', 4.50)",
+                IntStream.range(0, 5_000)
+                        .mapToObj(i -> new Object[] {(long) (i % 100) + 1, "pet" + i, species[i % species.length]})
+                        .toList());
+        jdbc.batchUpdate("insert into refresh_tokens (token_hash, user_id, expires_at, revoked) "
+                        + "values (?, ?, TIMESTAMP '2030-01-01 00:00:00', false)",
+                IntStream.range(0, 1_000)
+                        .mapToObj(i -> new Object[] {String.format("%064x", i), (long) (i % 100) + 1})
+                        .toList());
+        jdbc.batchUpdate("insert into revoked_tokens (token_key, revoked_at, expires_at) "
+                        + "values (?, TIMESTAMP '2026-01-01 00:00:00', TIMESTAMP '2030-01-01 00:00:00')",
+                IntStream.range(0, 1_000)
+                        .mapToObj(i -> new Object[] {"jti:" + i})
+                        .toList());
+        jdbc.execute("analyze");
+    }
+
+    static Stream<Arguments> repositoryQueries() {
+        return Stream.of(
+                // PetReadRepository
+                Arguments.of("PetReadRepository.findPage",
+                        PET_COLUMNS + "where owner_id = 7 and id_pet > 100 order by id_pet limit 51"),
+                Arguments.of("PetReadRepository.findPage (species)",
+                        PET_COLUMNS + "where owner_id = 7 and species = 'Dog' and id_pet > 100 "
+                                + "order by id_pet limit 51"),
+                Arguments.of("PetReadRepository.findByIdAndOwnerId",
+                        "select id_pet, owner_id, name, species, breed, sex, birth_date, weight_kg, version "
+                                + "from pets where id_pet = 42 and owner_id = 7"),
+                Arguments.of("PetReadRepository.findVersion",
+                        "select version from pets where id_pet = 42 and owner_id = 7"),
+                Arguments.of("PetReadRepository.forEachByOwner",
+                        PET_COLUMNS + "where owner_id = 7 order by id_pet"),
+                Arguments.of("PetReadRepository.forEachByOwner (species)",
+                        PET_COLUMNS + "where owner_id = 7 and species = 'Dog' order by id_pet"),
+                // PetRepository / PetPatchRepository
+                Arguments.of("PetRepository.updateMine",
+                        "update pets set name = 'Rex', version = version + 1 "
+                                + "where id_pet = 42 and owner_id = 7 and version = coalesce(3, version)"),
+                Arguments.of("PetRepository.deleteMine",
+                        "delete from pets where id_pet = 42 and owner_id = 7 and version = coalesce(null, version)"),
+                Arguments.of("PetPatchRepository.patch",
+                        "update pets set weight_kg = 5.00, version = version + 1 "
+                                + "where id_pet = 42 and owner_id = 7 and version = coalesce(3, version)"),
+                // PetBatchRepository (una sentencia por elemento del lote)
+                Arguments.of("PetBatchRepository.findVersions",
+                        "select id_pet, version from pets where owner_id = 7 and id_pet in (42, 142, 242)"),
+                Arguments.of("PetBatchRepository.updateAll",
+                        "update pets set name = 'Rex', species = 'Dog', breed = 'Mixed', sex = 'F', "
+                                + "birth_date = DATE '2020-01-01', weight_kg = 4.50, version = version + 1 "
+                                + "where id_pet = 42 and owner_id = 7 and version = coalesce(null, version)"),
+                Arguments.of("PetBatchRepository.deleteAll",
+                        "delete from pets where id_pet = 42 and owner_id = 7 and version = coalesce(3, version)"),
+                // PetChangeCounter / StaleOwnerTranslator
+                Arguments.of("PetChangeCounter.current",
+                        "select change_count from pet_owner_changes where owner_id = 7"),
+                Arguments.of("PetChangeCounter.increment",
+                        "update pet_owner_changes set change_count = change_count + 1 where owner_id = 7"),
+                Arguments.of("StaleOwnerTranslator.translate",
+                        "select count(*) from users where id_user = 7"),
+                // UserRepository (+ carga EAGER de roles)
+                Arguments.of("UserRepository.findByUsername",
+                        "select id_user, username, password, enabled from users "
+                                + "where username = 'owner7@example.com'"),
+                Arguments.of("UserRepository.existsByUsername",
+                        "select id_user from users where username = 'owner7@example.com' limit 1"),
+                Arguments.of("UserRepository.findIdByUsername",
+                        "select id_user from users where username = 'owner7@example.com'"),
+                Arguments.of("UserEntity.roles",
+                        "select role_id from roles_users where user_id = 7"),
+                Arguments.of("RoleRepository.findByName",
+                        "select id_role, name from roles where name = 'ROLE_USER'"),
+                // Tokens
+                Arguments.of("RefreshTokenRepository.findByTokenHash",
+                        "select id_refresh_token, user_id, expires_at, revoked from refresh_tokens "
+                                + "where token_hash = '" + String.format("%064x", 7) + "'"),
+                Arguments.of("RefreshTokenRepository.revokeIfActive",
+                        "update refresh_tokens set revoked = true where id_refresh_token = 7 and revoked = false"),
+                Arguments.of("RefreshTokenRepository.revokeMine",
+                        "update refresh_tokens set revoked = true where token_hash = '" + String.format("%064x", 7)
+                                + "' and user_id = 7"),
+                Arguments.of("RefreshTokenRepository.revokeAllForUser",
+                        "update refresh_tokens set revoked = true where user_id = 7 and revoked = false"),
+                Arguments.of("RevokedTokenRepository.existsByTokenKey",
+                        "select id_revoked_token from revoked_tokens where token_key = 'jti:7' limit 1"),
+                Arguments.of("RevokedTokenRepository.findLatestRevokedAt",
+                        "select max(revoked_at) from revoked_tokens where token_key = 'sub:owner7@example.com'"),
+                // findLiveKeys queda fuera: la reconstrucción del filtro lee a propósito todas las filas vigentes
+                Arguments.of("RevokedTokenRepository.findLiveKeysRevokedSince",
+                        "select token_key from revoked_tokens where revoked_at >= TIMESTAMP '2026-06-01 00:00:00' "
+                                + "and expires_at > TIMESTAMP '2026-06-01 00:00:00'"),
+                Arguments.of("RevokedTokenRepository.deleteExpired",
+                        "delete from revoked_tokens where expires_at <= TIMESTAMP '2026-06-01 00:00:00'"));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    @DisplayName("Cada consulta de repositorio usa un índice (sin recorrido completo de tabla)")
+    void should_use_an_index_for_every_repository_query(String query, String sql) {
+        String plan = jdbc.queryForObject("explain " + sql, String.class);
+
+        assertThat(query + " -> " + plan, plan, not(containsString("tableScan")));
+    }
+}
@@ -9,6 +9,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
@@ -26,8 +27,12 @@ import org.springframework.web.context.WebApplicationContext;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import Marisol_Mancera.fitpet.common.jdbc.QueryBudget;
+import Marisol_Mancera.fitpet.common.jdbc.QueryCountConfig;
+
 @SpringBootTest
 @TestPropertySource(properties = "api-endpoint=/api/v1")
+@Import(QueryCountConfig.class)
 class AuthControllerTest {
 
     @Autowired
@@ -41,6 +46,7 @@ class AuthControllerTest {
     void setUp() {
         mockMvc = MockMvcBuilders.webAppContextSetup(context)
                 .apply(SecurityMockMvcConfigurers.springSecurity())
+                .apply(QueryBudget.enforce())
                 .build();
     }
 
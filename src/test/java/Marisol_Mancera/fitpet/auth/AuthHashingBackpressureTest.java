@@ -0,0 +1,101 @@
+package Marisol_Mancera.fitpet.auth;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import Marisol_Mancera.fitpet.security.BoundedPasswordEncoder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Control de admisión del pool de hashing de extremo a extremo: con el único hilo ocupado
+ * y la cola llena, el registro responde 503 + Retry-After sin esperar a BCrypt.
+ */
+@SpringBootTest(properties = {
+        "auth.hashing.threads=1",
+        "auth.hashing.queue-capacity=1",
+        "auth.hashing.retry-after-seconds=7",
+        "auth.rate-limit.enabled=false"})
+@AutoConfigureMockMvc
+class AuthHashingBackpressureTest {
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    BoundedPasswordEncoder passwordEncoder;
+
+    @Test
+    @DisplayName("503 + Retry-After en /registro cuando el pool de hashing y su cola están llenos")
+    void should_return_503_with_retry_after_when_hashing_pool_is_saturated() throws Exception {
+        var release = new CountDownLatch(1);
+        var blocking = new BlockingPassword(release);
+        var running = CompletableFuture.runAsync(() -> passwordEncoder.encode(blocking));
+        CompletableFuture<Void> queued = null;
+        try {
+            waitUntil(() -> passwordEncoder.stats().activeThreads() == 1);
+            queued = CompletableFuture.runAsync(() -> passwordEncoder.encode(blocking));
+            waitUntil(() -> passwordEncoder.stats().queueDepth() == 1);
+
+            mockMvc.perform(post("/api/v1/auth/registro")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"email\":\"ocupado@example.com\",\"password\":\"Str0ng!Pass\"}"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "7"))
+                    .andExpect(jsonPath("$.code").value("SERVICE_UNAVAILABLE"));
+        } finally {
+            release.countDown();
+        }
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    /** BCrypt lee la contraseña (toString) ya en el hilo del pool: lo ocupa hasta liberar el latch. */
+    private record BlockingPassword(CountDownLatch release) implements CharSequence {
+
+        @Override
+        public String toString() {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return "Str0ng!Pass";
+        }
+
+        @Override
+        public int length() {
+            return toString().length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return toString().charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+    }
+}
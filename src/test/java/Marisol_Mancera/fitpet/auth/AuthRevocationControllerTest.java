@@ -0,0 +1,129 @@
+package Marisol_Mancera.fitpet.auth;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * /auth/logout y /auth/revoke-all de extremo a extremo: el token revocado deja de valer
+ * en la siguiente petición (401, no 500) aunque siga en la caché del decoder.
+ */
+@SpringBootTest(properties = "auth.rate-limit.enabled=false")
+@AutoConfigureMockMvc
+class AuthRevocationControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("204 logout: el access token deja de validar (401) y su refresh token también")
+    void should_reject_access_and_refresh_tokens_after_logout() throws Exception {
+        JsonNode tokens = registerAndLogin("logout+" + UUID.randomUUID() + "@example.com");
+        String bearer = "Bearer " + tokens.get("accessToken").asText();
+        String refresh = tokens.get("refreshToken").asText();
+
+        mockMvc.perform(get("/api/v1/pets").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/v1/auth/logout")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"%s\"}".formatted(refresh)))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/pets").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string(HttpHeaders.WWW_AUTHENTICATE, containsString("invalid_token")));
+        mockMvc.perform(refresh(refresh))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("204 logout con el refresh token de otro usuario: no se revoca y su dueño lo sigue usando")
+    void should_not_revoke_refresh_token_of_another_user_on_logout() throws Exception {
+        JsonNode victim = registerAndLogin("victima+" + UUID.randomUUID() + "@example.com");
+        JsonNode caller = registerAndLogin("ajeno+" + UUID.randomUUID() + "@example.com");
+
+        mockMvc.perform(post("/api/v1/auth/logout")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + caller.get("accessToken").asText())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"%s\"}".formatted(victim.get("refreshToken").asText())))
+                .andExpect(status().isNoContent());
+
+        // sin detección de reutilización: la rotación funciona y el access token de la víctima sigue valiendo
+        mockMvc.perform(refresh(victim.get("refreshToken").asText()))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/v1/pets")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + victim.get("accessToken").asText()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("204 revoke-all: todos los tokens previos del usuario responden 401")
+    void should_reject_every_previous_token_after_revoke_all() throws Exception {
+        String email = "revokeall+" + UUID.randomUUID() + "@example.com";
+        JsonNode first = registerAndLogin(email);
+        JsonNode second = login(email);
+        String firstBearer = "Bearer " + first.get("accessToken").asText();
+        String secondBearer = "Bearer " + second.get("accessToken").asText();
+
+        mockMvc.perform(post("/api/v1/auth/revoke-all").header(HttpHeaders.AUTHORIZATION, firstBearer))
+                .andExpect(status().isNoContent());
+
+        // dos veces: la segunda comprobación sale del corte en memoria
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/v1/pets").header(HttpHeaders.AUTHORIZATION, firstBearer))
+                    .andExpect(status().isUnauthorized());
+            mockMvc.perform(get("/api/v1/pets").header(HttpHeaders.AUTHORIZATION, secondBearer))
+                    .andExpect(status().isUnauthorized());
+        }
+        mockMvc.perform(refresh(second.get("refreshToken").asText()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private JsonNode registerAndLogin(String email) throws Exception {
+        mockMvc.perform(post("/api/v1/auth/registro")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(credentials(email)))
+                .andExpect(status().isCreated());
+        return login(email);
+    }
+
+    private JsonNode login(String email) throws Exception {
+        String body = mockMvc.perform(post("/api/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(credentials(email)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static MockHttpServletRequestBuilder refresh(String token) {
+        return post("/api/v1/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"%s\"}".formatted(token));
+    }
+
+    private static String credentials(String email) {
+        return "{\"email\":\"%s\",\"password\":\"Str0ng!Pass\"}".formatted(email);
+    }
+}
@@ -4,14 +4,17 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import Marisol_Mancera.fitpet.dtos.LoginRequest;
 import Marisol_Mancera.fitpet.dtos.RegisterRequest;
 import Marisol_Mancera.fitpet.role.RoleEntity;
 import Marisol_Mancera.fitpet.role.RoleRepository;
 import Marisol_Mancera.fitpet.user.UserEntity;
 import Marisol_Mancera.fitpet.user.UserRepository;
 
+import java.util.Set;
 import java.util.UUID;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -81,4 +84,26 @@ class AuthServiceTest {
         assertThat(saved.getRoles(), is(not(empty())));
         assertThat(saved.getRoles().stream().map(r -> r.getName()).toList(), hasItem("ROLE_USER"));
     }
+
+    @Test
+    @DisplayName("Login correcto con hash heredado (sin prefijo, coste bajo) lo actualiza a la política actual")
+    void should_rehash_legacy_password_on_successful_login() {
+        String email = "legacy+" + UUID.randomUUID() + "@example.com";
+        String rawPassword = "Str0ng!Pass";
+        String legacyHash = new BCryptPasswordEncoder(4).encode(rawPassword);
+
+        userRepository.save(UserEntity.builder()
+                .username(email)
+                .password(legacyHash)
+                .roles(Set.of())
+                .build());
+
+        authService.authenticate(new LoginRequest(email, rawPassword));
+
+        String stored = userRepository.findByUsername(email).orElseThrow().getPassword();
+        assertThat(stored, not(legacyHash));
+        assertThat(stored, startsWith("{bcrypt}"));
+        assertThat(passwordEncoder.upgradeEncoding(stored), is(false));
+        assertThat(passwordEncoder.matches(rawPassword, stored), is(true));
+    }
 }
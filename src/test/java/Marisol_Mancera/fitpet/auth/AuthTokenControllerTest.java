@@ -13,6 +13,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.test.context.support.WithAnonymousUser;
@@ -29,6 +30,8 @@ import static org.testcontainers.shaded.org.hamcrest.CoreMatchers.equalTo;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import Marisol_Mancera.fitpet.common.jdbc.QueryBudget;
+import Marisol_Mancera.fitpet.common.jdbc.QueryCountConfig;
 import Marisol_Mancera.fitpet.role.RoleEntity;
 import Marisol_Mancera.fitpet.role.RoleRepository;
 import Marisol_Mancera.fitpet.user.UserEntity;
@@ -39,6 +42,7 @@ import Marisol_Mancera.fitpet.user.UserRepository;
  * path usa 'api-endpoint=api' => /api/auth/token
  */
 @SpringBootTest
+@Import(QueryCountConfig.class)
 class AuthTokenControllerTest {
 
     @Autowired
@@ -58,6 +62,7 @@ class AuthTokenControllerTest {
     void setUp() {
         mockMvc = MockMvcBuilders.webAppContextSetup(context)
                 .apply(springSecurity())
+                .apply(QueryBudget.enforce())
                 .build();
 
         // Asegurar ROLE_USER (idempotente)
@@ -0,0 +1,126 @@
+package Marisol_Mancera.fitpet.auth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import Marisol_Mancera.fitpet.role.RoleEntity;
+import Marisol_Mancera.fitpet.role.RoleRepository;
+import Marisol_Mancera.fitpet.user.UserEntity;
+import Marisol_Mancera.fitpet.user.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class RefreshTokenServiceTest {
+
+    @Autowired UserRepository userRepository;
+    @Autowired RoleRepository roleRepository;
+    @Autowired RefreshTokenRepository refreshTokenRepository;
+    @Autowired RefreshTokenService refreshTokenService;
+
+    private UserEntity user;
+
+    @BeforeEach
+    void setUp() {
+        RoleEntity roleUser = roleRepository.findByName("ROLE_USER")
+                .orElseGet(() -> roleRepository.save(RoleEntity.builder().name("ROLE_USER").build()));
+
+        user = userRepository.save(UserEntity.builder()
+                .username("refresh+" + UUID.randomUUID() + "@example.com")
+                .password("{noop}irrelevant")
+                .roles(Set.of(roleUser))
+                .build());
+    }
+
+    @Test
+    @DisplayName("Solo se persiste el hash del refresh token, nunca el valor en claro")
+    void should_store_only_token_hash() {
+        String raw = refreshTokenService.issue(user);
+
+        assertThat(refreshTokenRepository.findByTokenHash(raw).isPresent(), is(false));
+        assertThat(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash(raw)).isPresent(), is(true));
+    }
+
+    @Test
+    @DisplayName("Rotar devuelve un token nuevo del mismo usuario y revoca el anterior")
+    void should_rotate_token_and_revoke_previous() {
+        String first = refreshTokenService.issue(user);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(first);
+
+        assertThat(rotation.user().getId(), is(user.getId()));
+        assertThat(rotation.refreshToken(), not(first));
+        assertThat(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash(first))
+                .orElseThrow().isRevoked(), is(true));
+    }
+
+    @Test
+    @DisplayName("Reutilizar un token ya rotado da 401 y revoca toda la familia del usuario")
+    void should_revoke_all_tokens_on_reuse() {
+        String first = refreshTokenService.issue(user);
+        String second = refreshTokenService.rotate(first).refreshToken();
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate(first));
+        // el token vigente también queda invalidado
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate(second));
+    }
+
+    @Test
+    @DisplayName("Dos rotaciones simultáneas del mismo token: solo una gana y la otra cuenta como reutilización")
+    void should_let_only_one_concurrent_rotation_win() throws Exception {
+        String token = refreshTokenService.issue(user);
+        var start = new CountDownLatch(1);
+        Callable<String> rotation = () -> {
+            start.await();
+            return refreshTokenService.rotate(token).refreshToken();
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(rotation);
+            Future<String> second = executor.submit(rotation);
+            start.countDown();
+
+            List<String> issued = new ArrayList<>();
+            int reused = 0;
+            for (Future<String> result : List.of(first, second)) {
+                try {
+                    issued.add(result.get(10, TimeUnit.SECONDS));
+                } catch (ExecutionException ex) {
+                    assertThat(ex.getCause(), instanceOf(BadCredentialsException.class));
+                    reused++;
+                }
+            }
+
+            assertThat(issued, hasSize(1));
+            assertThat(reused, is(1));
+            // la reutilización revoca también el token que emitió la rotación ganadora
+            assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate(issued.get(0)));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Un refresh token desconocido da 401")
+    void should_reject_unknown_token() {
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("no-existe"));
+    }
+}
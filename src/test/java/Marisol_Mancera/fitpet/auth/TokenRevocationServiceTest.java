@@ -0,0 +1,87 @@
+package Marisol_Mancera.fitpet.auth;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import Marisol_Mancera.fitpet.security.JwsTokenIssuer;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class TokenRevocationServiceTest {
+
+    @Autowired JwsTokenIssuer tokenIssuer;
+    @Autowired JwtDecoder jwtDecoder;
+    @Autowired TokenRevocationService tokenRevocationService;
+
+    private String issue(String subject, Instant issuedAt) {
+        return tokenIssuer.issue(subject, "USER", issuedAt, issuedAt.plus(1, ChronoUnit.HOURS));
+    }
+
+    @Test
+    @DisplayName("Un token revocado deja de validar aunque esté en la caché del decoder")
+    void should_reject_revoked_token_even_if_cached() {
+        String token = issue("logout+" + UUID.randomUUID() + "@example.com", Instant.now());
+        Jwt jwt = jwtDecoder.decode(token); // queda cacheado
+
+        tokenRevocationService.revoke(jwt);
+
+        assertThrows(BadJwtException.class, () -> jwtDecoder.decode(token));
+    }
+
+    @Test
+    @DisplayName("Revocar todo invalida los tokens anteriores del usuario pero no los de otros")
+    void should_revoke_all_previous_tokens_of_user() {
+        String subject = "revoke+" + UUID.randomUUID() + "@example.com";
+        Instant earlier = Instant.now().minusSeconds(60);
+        String first = issue(subject, earlier);
+        String second = issue(subject, earlier.plusSeconds(1));
+        String other = issue("other+" + UUID.randomUUID() + "@example.com", earlier);
+
+        tokenRevocationService.revokeAllForUser(-1L, subject);
+
+        assertThrows(BadJwtException.class, () -> jwtDecoder.decode(first));
+        assertThrows(BadJwtException.class, () -> jwtDecoder.decode(second));
+        assertThat(jwtDecoder.decode(other).getSubject(), startsWith("other+"));
+    }
+
+    @Test
+    @DisplayName("La reconstrucción del filtro conserva las revocaciones vigentes")
+    void should_keep_revocations_after_rebuild() {
+        String token = issue("rebuild+" + UUID.randomUUID() + "@example.com", Instant.now());
+        tokenRevocationService.revoke(jwtDecoder.decode(token));
+
+        tokenRevocationService.rebuild();
+
+        assertThrows(BadJwtException.class, () -> jwtDecoder.decode(token));
+    }
+
+    @Test
+    @DisplayName("Tras revocar todo, el corte del usuario se resuelve en memoria sin volver a BD")
+    void should_check_revoke_all_cutoff_without_storage_lookups() {
+        String subject = "cutoff+" + UUID.randomUUID() + "@example.com";
+        Instant now = Instant.now();
+        String before = issue(subject, now.minusSeconds(60));
+        String after = issue(subject, now.plusSeconds(60));
+
+        tokenRevocationService.revokeAllForUser(-1L, subject);
+        long lookups = tokenRevocationService.stats().storageLookups();
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(BadJwtException.class, () -> jwtDecoder.decode(before));
+            assertThat(jwtDecoder.decode(after).getSubject(), is(subject));
+        }
+        assertThat(tokenRevocationService.stats().storageLookups(), is(lookups));
+    }
+}
@@ -0,0 +1,48 @@
+package Marisol_Mancera.fitpet.common.http;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+class ETagsTest {
+
+    @Test
+    @DisplayName("If-None-Match compara en débil y admite listas y *")
+    void should_match_if_none_match_weakly() {
+        String etag = ETags.of(3);
+
+        assertThat(etag, is("\"3\""));
+        assertThat(ETags.noneMatchHits("\"3\"", etag), is(true));
+        assertThat(ETags.noneMatchHits("W/\"3\"", etag), is(true));
+        assertThat(ETags.noneMatchHits("\"1\", \"3\"", etag), is(true));
+        assertThat(ETags.noneMatchHits("*", etag), is(true));
+        assertThat(ETags.noneMatchHits("\"2\"", etag), is(false));
+        assertThat(ETags.noneMatchHits(null, etag), is(false));
+    }
+
+    @Test
+    @DisplayName("If-Match compara en fuerte y sin cabecera no impone condición")
+    void should_match_if_match_strongly() {
+        String etag = ETags.of(3);
+
+        assertThat(ETags.ifMatchAllows(null, etag), is(true));
+        assertThat(ETags.ifMatchAllows("\"3\"", etag), is(true));
+        assertThat(ETags.ifMatchAllows("*", etag), is(true));
+        assertThat(ETags.ifMatchAllows("W/\"3\"", etag), is(false));
+        assertThat(ETags.ifMatchAllows("\"2\"", etag), is(false));
+    }
+
+    @Test
+    @DisplayName("If-Match con un único ETag de versión se traduce a la versión esperada")
+    void should_extract_version_from_single_strong_if_match() {
+        assertThat(ETags.versionOf(" \"7\" "), is(7L));
+        assertThat(ETags.versionOf("W/\"7\""), is(nullValue()));
+        assertThat(ETags.versionOf("\"6\", \"7\""), is(nullValue()));
+        assertThat(ETags.versionOf("*"), is(nullValue()));
+        assertThat(ETags.versionOf("\"abc\""), is(nullValue()));
+        assertThat(ETags.versionOf(null), is(nullValue()));
+    }
+}
@@ -0,0 +1,125 @@
+package Marisol_Mancera.fitpet.common.jdbc;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.test.web.servlet.setup.ConfigurableMockMvcBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcConfigurer;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Presupuesto de sentencias SQL por endpoint para los tests con MockMvc.
+ * - Cada petición se graba con QueryRecorder (desde que se construye hasta que se resuelve,
+ *   filtros de seguridad incluidos) y falla si supera el máximo de su endpoint.
+ * - Falla también si la misma SELECT se repite en una petición (patrón N+1: una consulta
+ *   por fila o por elemento de una colección), mostrando el SQL culpable.
+ * - Un endpoint sin presupuesto falla: al añadir uno nuevo hay que declararlo aquí.
+ * Los presupuestos son máximos, no valores exactos: con PetListCache y la caché de segundo
+ * nivel caliente la misma petición hace legítimamente menos consultas.
+ * Uso: MockMvcBuilders...apply(QueryBudget.enforce()), o @Import(QueryCountConfig.class)
+ * con @AutoConfigureMockMvc. Requiere el DataSource envuelto por QueryCountConfig.
+ */
+public final class QueryBudget implements MockMvcConfigurer {
+
+    /**
+     * Máximo de sentencias por "MÉTODO patrón". Los tokens de PetControllerTest no llevan 'uid':
+     * cada petición autenticada suma la resolución del id por username (1).
+     */
+    private static final Map<String, Integer> BUDGETS = budgets(
+            // auth (1) + INSERT pets + contador del listado (UPDATE; INSERT la primera vez)
+            "POST /api/v1/pets", 4,
+            // auth + versión del listado + página (ambas se saltan con la caché caliente)
+            "GET /api/v1/pets", 3,
+            // auth + versión (If-None-Match) + fila
+            "GET /api/v1/pets/{id}", 3,
+            // auth + versión (If-Match con lista de ETags) + UPDATE + contador (2)
+            "PUT /api/v1/pets/{id}", 5,
+            // auth + versión (If-Match con lista) + PATCH + contador (2)
+            "PATCH /api/v1/pets/{id}", 5,
+            // auth + versión (If-Match con lista) + DELETE + contador (2)
+            "DELETE /api/v1/pets/{id}", 5,
+            // usuario por natural id (resolución + carga con roles en frío) + rehash
+            // (merge: SELECT + UPDATE) + INSERT refresh token
+            "POST /api/v1/auth/login", 6,
+            "POST /api/v1/auth/token", 6,
+            // existsByUsername + rol por natural id (2 en frío) + INSERT users + INSERT roles_users
+            "POST /api/v1/auth/registro", 5);
+
+    private static final PathPatternParser PARSER = PathPatternParser.defaultInstance;
+
+    private QueryBudget() {
+    }
+
+    public static QueryBudget enforce() {
+        return new QueryBudget();
+    }
+
+    @Override
+    public RequestPostProcessor beforeMockMvcCreated(ConfigurableMockMvcBuilder<?> builder,
+            WebApplicationContext context) {
+        builder.alwaysDo(QueryBudget::verify);
+        return request -> {
+            QueryRecorder.start();
+            return request;
+        };
+    }
+
+    private static void verify(MvcResult result) {
+        List<String> statements = QueryRecorder.stop();
+        String method = result.getRequest().getMethod();
+        String path = result.getRequest().getRequestURI();
+        String endpoint = method + " " + path;
+
+        Integer budget = budgetFor(method, path);
+        if (budget == null) {
+            throw new AssertionError("No query budget for " + endpoint
+                    + ": declare it in QueryBudget. Executed " + statements.size() + ":" + listing(statements));
+        }
+        if (statements.size() > budget) {
+            throw new AssertionError(endpoint + " (" + result.getResponse().getStatus() + ") executed "
+                    + statements.size() + " statements, budget is " + budget + ":" + listing(statements));
+        }
+        Map<String, Long> repeated = statements.stream()
+                .filter(sql -> sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select"))
+                .collect(Collectors.groupingBy(Function.identity(), LinkedHashMap::new, Collectors.counting()));
+        repeated.values().removeIf(count -> count < 2);
+        if (!repeated.isEmpty()) {
+            throw new AssertionError(endpoint + " repeats the same SELECT (N+1): " + repeated.entrySet().stream()
+                    .map(e -> "\n  x" + e.getValue() + " " + e.getKey())
+                    .collect(Collectors.joining()));
+        }
+    }
+
+    private static Integer budgetFor(String method, String path) {
+        PathContainer container = PathContainer.parsePath(path);
+        for (var entry : BUDGETS.entrySet()) {
+            String[] key = entry.getKey().split(" ", 2);
+            PathPattern pattern = PARSER.parse(key[1]);
+            if (key[0].equals(method) && pattern.matches(container)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String listing(List<String> statements) {
+        return statements.stream().map(sql -> "\n  " + sql).collect(Collectors.joining());
+    }
+
+    private static Map<String, Integer> budgets(Object... entries) {
+        Map<String, Integer> budgets = new LinkedHashMap<>();
+        for (int i = 0; i < entries.length; i += 2) {
+            budgets.put((String) entries[i], (Integer) entries[i + 1]);
+        }
+        return budgets;
+    }
+}
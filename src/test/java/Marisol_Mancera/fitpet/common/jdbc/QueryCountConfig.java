@@ -0,0 +1,41 @@
+package Marisol_Mancera.fitpet.common.jdbc;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcBuilderCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Envuelve el DataSource con datasource-proxy (QueryRecorder) para que QueryBudget vea
+ * todas las sentencias: las de Hibernate y las de JdbcTemplate (PetReadRepository, contadores).
+ * Con @AutoConfigureMockMvc aplica además QueryBudget al MockMvc inyectado.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class QueryCountConfig {
+
+    @Bean
+    static BeanPostProcessor queryCountingDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new QueryRecorder())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    MockMvcBuilderCustomizer queryBudgetCustomizer() {
+        return builder -> builder.apply(QueryBudget.enforce());
+    }
+}
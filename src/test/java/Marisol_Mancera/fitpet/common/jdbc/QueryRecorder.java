@@ -0,0 +1,46 @@
+package Marisol_Mancera.fitpet.common.jdbc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Listener de datasource-proxy que apunta las sentencias ejecutadas por el hilo actual
+ * entre start() y stop().
+ * - Por hilo: los jobs programados (sincronización de revocaciones, purgas) no se cuelan
+ *   en el recuento de la petición que se está midiendo.
+ * - Cada ejecución cuenta como un viaje a BD; un executeBatch cuenta uno aunque lleve N filas.
+ */
+public class QueryRecorder implements QueryExecutionListener {
+
+    private static final ThreadLocal<List<String>> CURRENT = new ThreadLocal<>();
+
+    /** Empieza a grabar en este hilo (descarta una grabación anterior sin cerrar). */
+    public static void start() {
+        CURRENT.set(new ArrayList<>());
+    }
+
+    /** Deja de grabar y devuelve el SQL ejecutado, en orden; lista vacía si no se estaba grabando. */
+    public static List<String> stop() {
+        List<String> statements = CURRENT.get();
+        CURRENT.remove();
+        return statements != null ? statements : List.of();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        List<String> statements = CURRENT.get();
+        if (statements == null) {
+            return;
+        }
+        String sql = String.join("; ", queryInfoList.stream().map(QueryInfo::getQuery).toList());
+        statements.add(execInfo.isBatch() ? sql + " [batch x" + execInfo.getBatchSize() + "]" : sql);
+    }
+}
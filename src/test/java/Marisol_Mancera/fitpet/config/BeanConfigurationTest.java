@@ -25,5 +25,12 @@ class BeanConfigurationTest {
         assertThat(hash, not(is(raw)));              // el hash no es igual al texto plano
         assertThat(passwordEncoder.matches(raw, hash), is(true)); // el hash valida el raw
     }
-}
 
+    @Test
+    @DisplayName("Por defecto el pool de hashing usa la mitad de las CPUs (mínimo 1)")
+    void should_default_hashing_threads_to_half_of_the_cpus() {
+        assertThat(BeanConfiguration.defaultHashingThreads(1), is(1));
+        assertThat(BeanConfiguration.defaultHashingThreads(2), is(1));
+        assertThat(BeanConfiguration.defaultHashingThreads(8), is(4));
+    }
+}
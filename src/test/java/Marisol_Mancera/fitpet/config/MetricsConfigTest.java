@@ -0,0 +1,113 @@
+package Marisol_Mancera.fitpet.config;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import Marisol_Mancera.fitpet.pet.PetReadRepository;
+import Marisol_Mancera.fitpet.security.JwsTokenIssuer;
+
+/**
+ * Scrape de /actuator/prometheus: solo con scope ADMIN y con los timers del camino caliente,
+ * etiquetados por resultado.
+ */
+@SpringBootTest
+@AutoConfigureObservability
+class MetricsConfigTest {
+
+    @Autowired
+    WebApplicationContext context;
+    @Autowired
+    ObjectMapper mapper;
+    @Autowired
+    PetReadRepository petReadRepository;
+    @Autowired
+    JwsTokenIssuer tokenIssuer;
+
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+    }
+
+    @Test
+    @DisplayName("El scrape con scope ADMIN publica auth, JWT, hash y repositorios por resultado")
+    void should_expose_hot_path_timers_tagged_by_outcome() throws Exception {
+        var body = Map.of("email", "nadie.metricas@example.com", "password", "Str0ng!Pass");
+        mockMvc.perform(post("/api/v1/auth/token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(body)))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/v1/pets").header(HttpHeaders.AUTHORIZATION, "Bearer not.a.jwt"))
+                .andExpect(status().isUnauthorized());
+        petReadRepository.findPage(-1L, null, 0L, 10);
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus")
+                        .header(HttpHeaders.AUTHORIZATION, bearer("ADMIN")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape, matchesPattern(
+                "(?s).*fitpet_auth_authenticate_seconds_count\\{[^}]*outcome=\"unknown_user\"[^}]*} [1-9].*"));
+        assertThat(scrape, matchesPattern(
+                "(?s).*fitpet_jwt_decode_seconds_count\\{[^}]*outcome=\"invalid\"[^}]*} [1-9].*"));
+        assertThat(scrape, containsString("fitpet_jwt_decode_seconds_bucket{"));
+        assertThat(scrape, containsString("fitpet_password_hash_seconds_count{"));
+        assertThat(scrape, matchesPattern(
+                "(?s).*spring_data_repository_invocations_seconds_count\\{[^}]*repository=\"UserRepository\".*"));
+        assertThat(scrape, matchesPattern(
+                "(?s).*fitpet_pets_jdbc_seconds_count\\{[^}]*query=\"list.page\"[^}]*} [1-9].*"));
+        assertThat(scrape, matchesPattern("(?s).*fitpet_pets_jdbc_rows_bucket\\{[^}]*query=\"list.page\".*"));
+        assertThat(scrape, containsString("query=\"batch.insert\""));
+        assertThat(scrape, containsString("query=\"patch\""));
+        assertThat(scrape, containsString("fitpet_password_queue_depth"));
+        assertThat(scrape, containsString("fitpet_pets_cache_gets_total"));
+    }
+
+    @Test
+    @DisplayName("El scrape no es público (401) ni accesible con scope USER (403); health sí es público")
+    void should_require_admin_scope_for_prometheus_scrape() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, bearer("USER")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("El resto de endpoints de actuator no son públicos")
+    void should_not_expose_other_actuator_endpoints() throws Exception {
+        mockMvc.perform(get("/actuator/env"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private String bearer(String scope) {
+        Instant now = Instant.now();
+        return "Bearer " + tokenIssuer.issue("metricas@example.com", 1L, scope, now, now.plus(1, ChronoUnit.HOURS));
+    }
+}
@@ -0,0 +1,60 @@
+package Marisol_Mancera.fitpet.pet;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+
+import Marisol_Mancera.fitpet.user.UserEntity;
+import Marisol_Mancera.fitpet.user.UserRepository;
+
+/**
+ * Cabeceras Authorization de prueba para los endpoints de mascotas: JWT HS512 con scope USER
+ * firmados con el JwtEncoder del contexto.
+ */
+final class OwnerBearers {
+
+        private final JwtEncoder jwtEncoder;
+        private final UserRepository userRepository;
+
+        OwnerBearers(JwtEncoder jwtEncoder, UserRepository userRepository) {
+                this.jwtEncoder = jwtEncoder;
+                this.userRepository = userRepository;
+        }
+
+        /** Token sin claim uid: el convertidor resuelve el dueño por username. */
+        String bearerFor(String username) {
+                return bearerFor(username, null);
+        }
+
+        /** Token con claim uid (el que emite el login): el dueño se toma del claim sin ir a BD. */
+        String bearerFor(String username, Long uid) {
+                var now = Instant.now();
+                var claims = JwtClaimsSet.builder()
+                                .subject(username)
+                                .issuedAt(now)
+                                .expiresAt(now.plus(1, ChronoUnit.HOURS))
+                                .claim("scope", "USER");
+                if (uid != null) {
+                        claims.claim("uid", uid);
+                }
+                var headers = JwsHeader.with(MacAlgorithm.HS512).build();
+                var token = jwtEncoder.encode(JwtEncoderParameters.from(headers, claims.build())).getTokenValue();
+                return "Bearer " + token;
+        }
+
+        /** Guarda un usuario nuevo sin roles y devuelve su Bearer. */
+        String bearerForNewOwner(String username) {
+                userRepository.save(UserEntity.builder()
+                                .username(username)
+                                .password("any")
+                                .roles(Collections.emptySet())
+                                .build());
+                return bearerFor(username);
+        }
+}
@@ -0,0 +1,169 @@
+package Marisol_Mancera.fitpet.pet;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import Marisol_Mancera.fitpet.user.UserRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PetBatchControllerTest {
+
+        @Autowired
+        JwtEncoder jwtEncoder;
+        @Autowired
+        UserRepository userRepository;
+        @Autowired
+        MockMvc mockMvc;
+        @Autowired
+        ObjectMapper objectMapper;
+
+        OwnerBearers bearers;
+
+        @BeforeEach
+        void setUp() {
+                bearers = new OwnerBearers(jwtEncoder, userRepository);
+        }
+
+        @Test
+        @DisplayName("200 alta por lotes: crea los válidos y devuelve 400 solo en el elemento inválido")
+        void should_create_valid_items_and_report_invalid_ones() throws Exception {
+                String bearer = bearers.bearerForNewOwner("refugio@example.com");
+                String birth = LocalDate.now().minusYears(1).toString();
+
+                String batch = """
+                                [
+                                  {"name": " Luna ", "species": "Dog", "breed": "Mixed", "sex": "Female", "birthDate": "%1$s", "weightKg": 7.5},
+                                  {"name": "", "species": "Dog", "breed": "Mixed", "sex": "Male", "birthDate": "%1$s", "weightKg": 7.5},
+                                  {"name": "Sol", "species": "Cat", "breed": "Mixed", "sex": "Male", "birthDate": "%1$s", "weightKg": 3.1}
+                                ]
+                                """.formatted(birth);
+
+                mockMvc.perform(post("/api/v1/pets:batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", bearer)
+                                .content(batch))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.succeeded").value(2))
+                                .andExpect(jsonPath("$.failed").value(1))
+                                .andExpect(jsonPath("$.items", hasSize(3)))
+                                .andExpect(jsonPath("$.items[0].status").value(201))
+                                .andExpect(jsonPath("$.items[0].version").value(0))
+                                .andExpect(jsonPath("$.items[1].status").value(400))
+                                .andExpect(jsonPath("$.items[1].id").value(nullValue()))
+                                .andExpect(jsonPath("$.items[2].status").value(201));
+
+                mockMvc.perform(get("/api/v1/pets")
+                                .header("Authorization", bearer))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(2)))
+                                .andExpect(jsonPath("$[0].name").value("Luna"));
+        }
+
+        @Test
+        @DisplayName("200 cambio y baja por lotes: 200/204 por elemento, 412 con versión antigua y 404 si no es suya")
+        void should_update_and_delete_in_batch_with_per_item_status() throws Exception {
+                String bearer = bearers.bearerForNewOwner("protectora@example.com");
+                String birth = LocalDate.now().minusYears(2).toString();
+
+                String created = mockMvc.perform(post("/api/v1/pets:batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", bearer)
+                                .content("""
+                                                [
+                                                  {"name": "Uno", "species": "Dog", "breed": "Mixed", "sex": "Male", "birthDate": "%1$s", "weightKg": 10},
+                                                  {"name": "Dos", "species": "Dog", "breed": "Mixed", "sex": "Male", "birthDate": "%1$s", "weightKg": 11}
+                                                ]
+                                                """.formatted(birth)))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+                JsonNode items = objectMapper.readTree(created).get("items");
+                long first = items.get(0).get("id").asLong();
+                long second = items.get(1).get("id").asLong();
+
+                String pet = """
+                                {"name": "%s", "species": "Dog", "breed": "Mixed", "sex": "Male", "birthDate": "%s", "weightKg": 12}
+                                """;
+                String updates = "[" + String.join(",",
+                                """
+                                {"id": %d, "version": 0, "pet": %s}""".formatted(first, pet.formatted("Uno bis", birth)),
+                                """
+                                {"id": %d, "version": 7, "pet": %s}""".formatted(second, pet.formatted("Dos bis", birth)),
+                                """
+                                {"id": 999999, "pet": %s}""".formatted(pet.formatted("Ajena", birth))) + "]";
+
+                mockMvc.perform(put("/api/v1/pets:batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", bearer)
+                                .content(updates))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.items[0].status").value(200))
+                                .andExpect(jsonPath("$.items[0].version").value(1))
+                                .andExpect(jsonPath("$.items[1].status").value(412))
+                                .andExpect(jsonPath("$.items[2].status").value(404));
+
+                mockMvc.perform(delete("/api/v1/pets:batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", bearer)
+                                .content("[{\"id\": %d, \"version\": 0}, {\"id\": %d}]".formatted(first, second)))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.items[0].status").value(412))
+                                .andExpect(jsonPath("$.items[1].status").value(204));
+
+                mockMvc.perform(get("/api/v1/pets")
+                                .header("Authorization", bearer))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(1)))
+                                .andExpect(jsonPath("$[0].name").value("Uno bis"));
+        }
+
+        @Test
+        @DisplayName("400 alta por lotes: BAD_REQUEST cuando el lote está vacío")
+        void should_return_400_when_batch_is_empty() throws Exception {
+                String bearer = bearers.bearerForNewOwner("vacio@example.com");
+
+                mockMvc.perform(post("/api/v1/pets:batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", bearer)
+                                .content("[]"))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(jsonPath("$.code").value("BAD_REQUEST"));
+        }
+
+        @Test
+        @DisplayName("401 alta por lotes: el claim uid apunta a un usuario ya borrado (no 500 por la FK)")
+        void should_return_401_when_uid_claim_points_to_deleted_user() throws Exception {
+                bearers.bearerForNewOwner("borrado.lote@example.com");
+                var owner = userRepository.findByUsername("borrado.lote@example.com").orElseThrow();
+                String bearer = bearers.bearerFor(owner.getUsername(), owner.getId());
+                userRepository.delete(owner);
+
+                mockMvc.perform(post("/api/v1/pets:batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", bearer)
+                                .content("""
+                                                [{"name": "Huerfana", "species": "Dog", "breed": "Mixed", "sex": "Female", "birthDate": "%s", "weightKg": 7.5}]
+                                                """.formatted(LocalDate.now().minusYears(1))))
+                                .andExpect(status().isUnauthorized());
+        }
+}
@@ -5,6 +5,7 @@ import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.Objects;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.blankOrNullString;
@@ -16,6 +17,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
 import org.springframework.security.oauth2.jwt.JwsHeader;
@@ -23,8 +25,10 @@ import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
@@ -33,11 +37,16 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.hamcrest.Matchers.endsWith;
 
+import com.jayway.jsonpath.JsonPath;
+
+import Marisol_Mancera.fitpet.common.jdbc.QueryCountConfig;
 import Marisol_Mancera.fitpet.user.UserEntity;
 import Marisol_Mancera.fitpet.user.UserRepository;
 
 @SpringBootTest
 @AutoConfigureMockMvc
+// Cada petición de MockMvc pasa por QueryBudget (máximo de sentencias y detección de N+1)
+@Import(QueryCountConfig.class)
 class PetControllerTest {
 
         @Autowired
@@ -65,7 +74,7 @@ class PetControllerTest {
         void should_create_pet_and_return_201_with_location_and_body() throws Exception {
                 // Arrange
                 var owner = UserEntity.builder()
-                                .username("pajaritopio@example.com")
+                                .username("pajaritopio" + UUID.randomUUID() + "@example.com")
                                 .password("any")
                                 .roles(java.util.Collections.emptySet())
                                 .build();
@@ -89,7 +98,7 @@ class PetControllerTest {
                                 .header("Authorization", bearer)
                                 .content(petJson))
                                 .andExpect(status().isCreated())
-                                .andExpect(header().string("Location", endsWith("/api/v1/pets/1")))
+                                .andExpect(locationOfCreatedPet())
                                 .andExpect(jsonPath("$.id").isNumber())
                                 .andExpect(jsonPath("$.ownerId").value(owner.getId()))
                                 .andExpect(jsonPath("$.name").value("Pony"))
@@ -595,7 +604,7 @@ class PetControllerTest {
                                 .header("Authorization", bearer)
                                 .content(petJson))
                                 .andExpect(status().isCreated())
-                                .andExpect(header().string("Location", endsWith("/api/v1/pets/4")))
+                                .andExpect(locationOfCreatedPet())
                                 .andReturn();
 
                 String location = Objects.requireNonNull(
@@ -665,7 +674,7 @@ class PetControllerTest {
                                 .header("Authorization", bearer)
                                 .content(petJson))
                                 .andExpect(status().isCreated())
-                                .andExpect(header().string("Location", endsWith("/api/v1/pets/17")))
+                                .andExpect(locationOfCreatedPet())
                                 .andExpect(jsonPath("$.name").value("Pony"))
                                 .andExpect(jsonPath("$.species").value("Dog"))
                                 .andExpect(jsonPath("$.breed").value("Beagle"))
@@ -700,7 +709,7 @@ class PetControllerTest {
                                 .header("Authorization", bearer)
                                 .content(petJson))
                                 .andExpect(status().isCreated())
-                                .andExpect(header().string("Location", endsWith("/api/v1/pets/16")))
+                                .andExpect(locationOfCreatedPet())
                                 .andReturn();
 
                 String location = createResult.getResponse().getHeader("Location");
@@ -760,7 +769,7 @@ class PetControllerTest {
                                 .header("Authorization", bearer)
                                 .content(original))
                                 .andExpect(status().isCreated())
-                                .andExpect(header().string("Location", endsWith("/api/v1/pets/5")))
+                                .andExpect(locationOfCreatedPet())
                                 .andReturn();
 
                 String location = created.getResponse().getHeader("Location");
@@ -1004,4 +1013,329 @@ class PetControllerTest {
                                 .andExpect(jsonPath("$[0].species").value("Dog"));
         }
 
+        @Test
+        @DisplayName("200 listar mascotas: pagina por cursor y devuelve X-Next-Cursor hasta la última página")
+        void should_paginate_with_opaque_cursor() throws Exception {
+                var owner = UserEntity.builder()
+                                .username("criadora@example.com")
+                                .password("any")
+                                .roles(Collections.emptySet())
+                                .build();
+                userRepository.save(owner);
+
+                String bearer = bearerFor(owner.getUsername());
+
+                for (String name : new String[] {"Uno", "Dos", "Tres"}) {
+                        String petJson = """
+                                        {
+                                          "name": "%s",
+                                          "species": "Dog",
+                                          "breed": "Beagle",
+                                          "sex": "Female",
+                                          "birthDate": "%s",
+                                          "weightKg": 10.0
+                                        }
+                                        """.formatted(name, LocalDate.now().minusYears(2));
+                        mockMvc.perform(post("/api/v1/pets")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .header("Authorization", bearer)
+                                        .content(petJson))
+                                        .andExpect(status().isCreated());
+                }
+
+                var first = mockMvc.perform(get("/api/v1/pets?limit=2")
+                                .header("Authorization", bearer))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(2)))
+                                .andExpect(jsonPath("$[0].name").value("Uno"))
+                                .andExpect(jsonPath("$[1].name").value("Dos"))
+                                .andExpect(header().string("Link", containsString("rel=\"next\"")))
+                                .andReturn();
+
+                String cursor = first.getResponse().getHeader("X-Next-Cursor");
+                assertThat(cursor).isNotBlank();
+
+                mockMvc.perform(get("/api/v1/pets")
+                                .param("limit", "2")
+                                .param("cursor", cursor)
+                                .header("Authorization", bearer))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(1)))
+                                .andExpect(jsonPath("$[0].name").value("Tres"))
+                                .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+                // cursor emitido sin filtro reutilizado con otro filtro
+                mockMvc.perform(get("/api/v1/pets")
+                                .param("species", "Cat")
+                                .param("cursor", cursor)
+                                .header("Authorization", bearer))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(jsonPath("$.code").value("BAD_REQUEST"));
+        }
+
+        @Test
+        @DisplayName("304 listar mascotas: If-None-Match con el ETag vigente; 200 con ETag nuevo tras un cambio")
+        void should_return_304_for_unchanged_list_and_new_etag_after_change() throws Exception {
+                var owner = UserEntity.builder()
+                                .username("sondeo@example.com")
+                                .password("any")
+                                .roles(Collections.emptySet())
+                                .build();
+                userRepository.save(owner);
+
+                String bearer = bearerFor(owner.getUsername());
+
+                String petJson = """
+                                {
+                                  "name": "Rufo",
+                                  "species": "Dog",
+                                  "breed": "Boxer",
+                                  "sex": "Male",
+                                  "birthDate": "%s",
+                                  "weightKg": 20.0
+                                }
+                                """.formatted(LocalDate.now().minusYears(4));
+                mockMvc.perform(post("/api/v1/pets")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", bearer)
+                                .content(petJson))
+                                .andExpect(status().isCreated())
+                                .andExpect(header().exists("ETag"));
+
+                String etag = mockMvc.perform(get("/api/v1/pets")
+                                .header("Authorization", bearer))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(1)))
+                                .andReturn().getResponse().getHeader("ETag");
+                assertThat(etag).isNotBlank();
+
+                mockMvc.perform(get("/api/v1/pets")
+                                .header("Authorization", bearer)
+                                .header("If-None-Match", etag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(header().string("ETag", etag))
+                                .andExpect(content().string(blankOrNullString()));
+
+                mockMvc.perform(post("/api/v1/pets")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", bearer)
+                                .content(petJson))
+                                .andExpect(status().isCreated());
+
+                String newEtag = mockMvc.perform(get("/api/v1/pets")
+                                .header("Authorization", bearer)
+                                .header("If-None-Match", etag))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(2)))
+                                .andReturn().getResponse().getHeader("ETag");
+                assertThat(newEtag).isNotEqualTo(etag);
+        }
+
+        @Test
+        @DisplayName("412 actualizar/eliminar mascota: If-Match con un ETag antiguo no sobrescribe cambios ajenos")
+        void should_reject_stale_if_match_with_412() throws Exception {
+                var owner = UserEntity.builder()
+                                .username("concurrente@example.com")
+                                .password("any")
+                                .roles(Collections.emptySet())
+                                .build();
+                userRepository.save(owner);
+
+                String bearer = bearerFor(owner.getUsername());
+
+                String petJson = """
+                                {
+                                  "name": "%s",
+                                  "species": "Cat",
+                                  "breed": "Siamese",
+                                  "sex": "Female",
+                                  "birthDate": "%s",
+                                  "weightKg": 3.5
+                                }
+                                """;
+                var created = mockMvc.perform(post("/api/v1/pets")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", bearer)
+                                .content(petJson.formatted("Misi", LocalDate.now().minusYears(2))))
+                                .andExpect(status().isCreated())
+                                .andReturn();
+                String location = created.getResponse().getHeader("Location");
+                String original = created.getResponse().getHeader("ETag");
+
+                mockMvc.perform(get(location)
+                                .header("Authorization", bearer)
+                                .header("If-None-Match", original))
+                                .andExpect(status().isNotModified());
+
+                // primera edición con el ETag vigente: 200 y ETag nuevo
+                String current = mockMvc.perform(put(location)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", bearer)
+                                .header("If-Match", original)
+                                .content(petJson.formatted("Misi I", LocalDate.now().minusYears(2))))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.name").value("Misi I"))
+                                .andReturn().getResponse().getHeader("ETag");
+                assertThat(current).isNotEqualTo(original);
+
+                // segunda edición con el ETag ya superado: 412 y sin cambios
+                mockMvc.perform(put(location)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", bearer)
+                                .header("If-Match", original)
+                                .content(petJson.formatted("Misi II", LocalDate.now().minusYears(2))))
+                                .andExpect(status().isPreconditionFailed())
+                                .andExpect(jsonPath("$.code").value("PRECONDITION_FAILED"));
+
+                mockMvc.perform(delete(location)
+                                .header("Authorization", bearer)
+                                .header("If-Match", original))
+                                .andExpect(status().isPreconditionFailed());
+
+                mockMvc.perform(get(location)
+                                .header("Authorization", bearer))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("ETag", current))
+                                .andExpect(jsonPath("$.name").value("Misi I"));
+
+                mockMvc.perform(delete(location)
+                                .header("Authorization", bearer)
+                                .header("If-Match", current))
+                                .andExpect(status().isNoContent());
+        }
+
+        @Test
+        @DisplayName("204 parche de mascota: merge-patch cambia solo los campos enviados y valida cada uno")
+        void should_apply_merge_patch_to_supplied_fields_only() throws Exception {
+                var owner = UserEntity.builder()
+                                .username("pesaje@example.com")
+                                .password("any")
+                                .roles(Collections.emptySet())
+                                .build();
+                userRepository.save(owner);
+
+                String bearer = bearerFor(owner.getUsername());
+
+                String petJson = """
+                                {
+                                  "name": "Toby",
+                                  "species": "Dog",
+                                  "breed": "Beagle",
+                                  "sex": "Male",
+                                  "birthDate": "%s",
+                                  "weightKg": 12.4
+                                }
+                                """.formatted(LocalDate.now().minusYears(3));
+                var created = mockMvc.perform(post("/api/v1/pets")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", bearer)
+                                .content(petJson))
+                                .andExpect(status().isCreated())
+                                .andReturn();
+                String location = created.getResponse().getHeader("Location");
+                String original = created.getResponse().getHeader("ETag");
+
+                // pesaje: solo weightKg; con If-Match la respuesta trae el ETag nuevo
+                String current = mockMvc.perform(patch(location)
+                                .contentType("application/merge-patch+json")
+                                .header("Authorization", bearer)
+                                .header("If-Match", original)
+                                .content("{\"weightKg\": 12.9}"))
+                                .andExpect(status().isNoContent())
+                                .andExpect(header().exists("ETag"))
+                                .andReturn().getResponse().getHeader("ETag");
+                assertThat(current).isNotEqualTo(original);
+
+                mockMvc.perform(get(location)
+                                .header("Authorization", bearer))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("ETag", current))
+                                .andExpect(jsonPath("$.weightKg").value(12.9))
+                                .andExpect(jsonPath("$.name").value("Toby"))
+                                .andExpect(jsonPath("$.breed").value("Beagle"));
+
+                // mismas reglas que el alta: peso no positivo, null en un campo obligatorio o campo desconocido -> 400
+                for (String invalid : new String[] {"{\"weightKg\": -1}", "{\"name\": null}", "{\"color\": \"black\"}"}) {
+                        mockMvc.perform(patch(location)
+                                        .contentType("application/merge-patch+json")
+                                        .header("Authorization", bearer)
+                                        .content(invalid))
+                                        .andExpect(status().isBadRequest())
+                                        .andExpect(jsonPath("$.code").value("BAD_REQUEST"));
+                }
+
+                // If-Match superado -> 412
+                mockMvc.perform(patch(location)
+                                .contentType("application/merge-patch+json")
+                                .header("Authorization", bearer)
+                                .header("If-Match", original)
+                                .content("{\"weightKg\": 13.1}"))
+                                .andExpect(status().isPreconditionFailed());
+
+                // otro dueño -> 404
+                var stranger = UserEntity.builder()
+                                .username("pesaje.ajeno@example.com")
+                                .password("any")
+                                .roles(Collections.emptySet())
+                                .build();
+                userRepository.save(stranger);
+                mockMvc.perform(patch(location)
+                                .contentType("application/merge-patch+json")
+                                .header("Authorization", bearerFor(stranger.getUsername()))
+                                .content("{\"weightKg\": 13.1}"))
+                                .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("201 crear mascota con claim uid: el dueño se toma del token emitido por el login")
+        void should_create_pet_for_owner_in_uid_claim() throws Exception {
+                var owner = UserEntity.builder()
+                                .username("conuid@example.com")
+                                .password("any")
+                                .roles(Collections.emptySet())
+                                .build();
+                userRepository.save(owner);
+                String bearer = new OwnerBearers(jwtEncoder, userRepository).bearerFor(owner.getUsername(), owner.getId());
+
+                mockMvc.perform(post("/api/v1/pets")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", bearer)
+                                .content(petJson("Uid")))
+                                .andExpect(status().isCreated())
+                                .andExpect(jsonPath("$.ownerId").value(owner.getId()));
+        }
+
+        @Test
+        @DisplayName("401 crear mascota: el claim uid apunta a un usuario ya borrado (no 500 por la FK)")
+        void should_return_401_when_uid_claim_points_to_deleted_user() throws Exception {
+                var owner = UserEntity.builder()
+                                .username("borrado.uid@example.com")
+                                .password("any")
+                                .roles(Collections.emptySet())
+                                .build();
+                userRepository.save(owner);
+                String bearer = new OwnerBearers(jwtEncoder, userRepository).bearerFor(owner.getUsername(), owner.getId());
+                userRepository.delete(owner);
+
+                mockMvc.perform(post("/api/v1/pets")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", bearer)
+                                .content(petJson("Huerfana")))
+                                .andExpect(status().isUnauthorized())
+                                .andExpect(header().string("WWW-Authenticate", containsString("invalid_token")));
+        }
+
+        /** Location apunta al id del cuerpo: el valor depende de las mascotas que ya insertaron otros tests. */
+        private static ResultMatcher locationOfCreatedPet() {
+                return result -> {
+                        Number id = JsonPath.read(result.getResponse().getContentAsString(), "$.id");
+                        header().string("Location", endsWith("/api/v1/pets/" + id)).match(result);
+                };
+        }
+
+        private static String petJson(String name) {
+                return """
+                                {"name": "%s", "species": "Dog", "breed": "Mixed", "sex": "Female", "birthDate": "%s", "weightKg": 7.5}
+                                """.formatted(name, LocalDate.now().minusYears(2));
+        }
 }
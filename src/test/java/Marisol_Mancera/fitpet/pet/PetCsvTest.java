@@ -0,0 +1,28 @@
+package Marisol_Mancera.fitpet.pet;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Marisol_Mancera.fitpet.pet.dto.PetDTOResponse;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class PetCsvTest {
+
+    @Test
+    @DisplayName("Escribe una fila CSV y solo entrecomilla los campos que lo necesitan")
+    void should_quote_only_fields_with_separators_or_quotes() throws Exception {
+        var out = new StringWriter();
+        var pet = new PetDTOResponse(7L, 3L, "Toby, \"el grande\"", "Dog", "Beagle", "Male",
+                LocalDate.of(2020, 5, 1), new BigDecimal("12.50"));
+
+        PetCsv.writeRow(out, pet);
+
+        assertThat(out.toString(), is("7,3,\"Toby, \"\"el grande\"\"\",Dog,Beagle,Male,2020-05-01,12.50\r\n"));
+    }
+}
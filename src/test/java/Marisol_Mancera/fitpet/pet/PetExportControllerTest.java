@@ -0,0 +1,126 @@
+package Marisol_Mancera.fitpet.pet;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import Marisol_Mancera.fitpet.user.UserRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PetExportControllerTest {
+
+        @Autowired
+        JwtEncoder jwtEncoder;
+        @Autowired
+        UserRepository userRepository;
+        @Autowired
+        MockMvc mockMvc;
+        @Autowired
+        PetExportLimiter petExportLimiter;
+
+        OwnerBearers bearers;
+
+        @BeforeEach
+        void setUp() {
+                bearers = new OwnerBearers(jwtEncoder, userRepository);
+        }
+
+        @Test
+        @DisplayName("200 exportar mascotas: CSV y NDJSON en streaming solo con las mascotas del dueño")
+        void should_stream_owner_pets_as_csv_and_ndjson() throws Exception {
+                String bearer = bearers.bearerForNewOwner("exporta@example.com");
+                String birth = LocalDate.now().minusYears(3).toString();
+
+                mockMvc.perform(post("/api/v1/pets:batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", bearer)
+                                .content("""
+                                                [
+                                                  {"name": "Kira, la rápida", "species": "Dog", "breed": "Galgo", "sex": "Female", "birthDate": "%1$s", "weightKg": 25.5},
+                                                  {"name": "Nube", "species": "Cat", "breed": "Persa", "sex": "Female", "birthDate": "%1$s", "weightKg": 4}
+                                                ]
+                                                """.formatted(birth)))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.succeeded").value(2));
+
+                var csv = mockMvc.perform(get("/api/v1/pets/export")
+                                .param("format", "csv")
+                                .header("Authorization", bearer))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+                mockMvc.perform(asyncDispatch(csv))
+                                .andExpect(status().isOk())
+                                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                                .andExpect(header().string("Content-Disposition", containsString("pets.csv")))
+                                .andExpect(content().string(startsWith(PetCsv.HEADER + "\r\n")))
+                                .andExpect(content().string(containsString(",\"Kira, la rápida\",Dog,Galgo,Female,")))
+                                .andExpect(content().string(containsString(",Nube,Cat,Persa,Female,")));
+
+                var ndjson = mockMvc.perform(get("/api/v1/pets/export")
+                                .param("species", "Cat")
+                                .header("Authorization", bearer))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+                mockMvc.perform(asyncDispatch(ndjson))
+                                .andExpect(status().isOk())
+                                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                                .andExpect(content().string(startsWith("{\"id\":")))
+                                .andExpect(content().string(containsString("\"name\":\"Nube\"")));
+        }
+
+        @Test
+        @DisplayName("400 exportar mascotas: BAD_REQUEST con un formato no soportado")
+        void should_return_400_for_unsupported_format() throws Exception {
+                String bearer = bearers.bearerForNewOwner("exportaxml@example.com");
+
+                mockMvc.perform(get("/api/v1/pets/export")
+                                .param("format", "xml")
+                                .header("Authorization", bearer))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(jsonPath("$.code").value("BAD_REQUEST"));
+        }
+
+        @Test
+        @DisplayName("503 exportar mascotas: Retry-After mientras el dueño tiene otra exportación en curso")
+        void should_return_503_while_owner_export_is_in_progress() throws Exception {
+                String bearer = bearers.bearerForNewOwner("exportaocupado@example.com");
+                Long ownerId = userRepository.findByUsername("exportaocupado@example.com").orElseThrow().getId();
+
+                Runnable inProgress = petExportLimiter.acquire(ownerId);
+                try {
+                        mockMvc.perform(get("/api/v1/pets/export")
+                                        .header("Authorization", bearer))
+                                        .andExpect(status().isServiceUnavailable())
+                                        .andExpect(header().string("Retry-After", "10"))
+                                        .andExpect(jsonPath("$.code").value("SERVICE_UNAVAILABLE"));
+                } finally {
+                        inProgress.run();
+                }
+
+                var export = mockMvc.perform(get("/api/v1/pets/export")
+                                .header("Authorization", bearer))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+                mockMvc.perform(asyncDispatch(export))
+                                .andExpect(status().isOk());
+        }
+}
@@ -0,0 +1,43 @@
+package Marisol_Mancera.fitpet.pet;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Marisol_Mancera.fitpet.common.error.ServiceUnavailableException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PetExportLimiterTest {
+
+    @Test
+    @DisplayName("Un dueño no abre más exportaciones que su cupo; otros dueños sí")
+    void should_limit_concurrent_exports_per_owner() {
+        var limiter = new PetExportLimiter(4, 1, 10);
+
+        Runnable first = limiter.acquire(1L);
+        var rejected = assertThrows(ServiceUnavailableException.class, () -> limiter.acquire(1L));
+        assertThat(rejected.getRetryAfterSeconds(), is(10L));
+        Runnable other = limiter.acquire(2L);
+
+        first.run();
+        limiter.acquire(1L).run();
+        other.run();
+    }
+
+    @Test
+    @DisplayName("El nodo no supera pets.export.max-concurrent y liberar dos veces no regala huecos")
+    void should_limit_concurrent_exports_per_node() {
+        var limiter = new PetExportLimiter(2, 1, 10);
+
+        Runnable first = limiter.acquire(1L);
+        limiter.acquire(2L);
+        assertThrows(ServiceUnavailableException.class, () -> limiter.acquire(3L));
+
+        first.run();
+        first.run();
+        limiter.acquire(3L);
+        assertThrows(ServiceUnavailableException.class, () -> limiter.acquire(4L));
+    }
+}
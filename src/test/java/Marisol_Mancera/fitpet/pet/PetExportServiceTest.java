@@ -0,0 +1,71 @@
+package Marisol_Mancera.fitpet.pet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import Marisol_Mancera.fitpet.common.error.ServiceUnavailableException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Hueco de PetExportLimiter cuando el cuerpo de la exportación nunca se ejecuta:
+ * lo devuelve el fin de la petición asíncrona, no el cuerpo.
+ */
+class PetExportServiceTest {
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Si el executor rechaza el cuerpo, el hueco se libera al completar la petición asíncrona")
+    void should_release_slot_when_body_never_runs() throws Exception {
+        var limiter = new PetExportLimiter(4, 1, 10);
+        var service = new PetExportService(null, new ObjectMapper(), limiter);
+        var request = new MockHttpServletRequest("GET", "/api/v1/pets/export");
+        request.setAsyncSupported(true);
+        var response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+
+        StreamingResponseBody body = service.open(1L, null, PetFileFormat.NDJSON);
+
+        var asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+        asyncManager.setTaskExecutor(new RejectingExecutor());
+        asyncManager.startCallableProcessing(() -> {
+            body.writeTo(response.getOutputStream());
+            return null;
+        });
+        // en vuelo hasta que el contenedor da la petición por terminada
+        assertThrows(ServiceUnavailableException.class, () -> limiter.acquire(1L));
+
+        request.getAsyncContext().complete();
+
+        limiter.acquire(1L).run();
+        // un cuerpo que arranca tras el fin de la petición no escribe ni libera otra vez
+        body.writeTo(response.getOutputStream());
+        assertThat(response.getContentAsByteArray().length, is(0));
+    }
+
+    private static final class RejectingExecutor implements AsyncTaskExecutor {
+        @Override
+        public void execute(Runnable task) {
+            throw new TaskRejectedException("Executor saturado");
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package Marisol_Mancera.fitpet.pet;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import Marisol_Mancera.fitpet.user.UserRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PetImportControllerTest {
+
+        @Autowired
+        JwtEncoder jwtEncoder;
+        @Autowired
+        UserRepository userRepository;
+        @Autowired
+        MockMvc mockMvc;
+        @Autowired
+        ObjectMapper objectMapper;
+
+        OwnerBearers bearers;
+
+        @BeforeEach
+        void setUp() {
+                bearers = new OwnerBearers(jwtEncoder, userRepository);
+        }
+
+        private String createImport(String bearer) throws Exception {
+                var response = mockMvc.perform(post("/api/v1/pets/imports")
+                                .header("Authorization", bearer))
+                                .andExpect(status().isCreated())
+                                .andExpect(jsonPath("$.status", is("PENDING")))
+                                .andReturn().getResponse().getContentAsString();
+                return objectMapper.readTree(response).get("id").asText();
+        }
+
+        @Test
+        @DisplayName("CSV: importa las filas válidas y deja las inválidas en el fichero de errores")
+        void should_import_valid_csv_rows_and_report_invalid_ones() throws Exception {
+                String bearer = bearers.bearerForNewOwner("importa.csv@example.com");
+                String birth = LocalDate.now().minusYears(1).toString();
+                String id = createImport(bearer);
+
+                // columnas del export (id, ownerId) se ignoran; "Perla, la gata" va entrecomillado
+                String csv = "id,ownerId,name,species,breed,sex,birthDate,weightKg\r\n"
+                                + "1,99,Luna,Dog,Mixed,Female," + birth + ",7.5\r\n"
+                                + "2,99,,Dog,Mixed,Male," + birth + ",7.5\r\n"
+                                + "3,99,\"Perla, la gata\",Cat,Mixed,Female," + birth + ",3.1\r\n"
+                                + "4,99,Rex,Dog,Mixed,Male,ayer,5\r\n";
+
+                mockMvc.perform(put("/api/v1/pets/imports/{id}", id)
+                                .header("Authorization", bearer)
+                                .contentType("text/csv")
+                                .content(csv))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.status", is("COMPLETED")))
+                                .andExpect(jsonPath("$.rows", is(4)))
+                                .andExpect(jsonPath("$.imported", is(2)))
+                                .andExpect(jsonPath("$.failed", is(2)));
+
+                mockMvc.perform(get("/api/v1/pets").header("Authorization", bearer))
+                                .andExpect(status().isOk())
+                                .andExpect(content().string(containsString("Perla, la gata")));
+
+                mockMvc.perform(get("/api/v1/pets/imports/{id}/errors", id)
+                                .header("Authorization", bearer))
+                                .andExpect(status().isOk())
+                                .andExpect(content().string(containsString("row,error")))
+                                .andExpect(content().string(containsString("2,")))
+                                .andExpect(content().string(containsString("4,")));
+        }
+
+        @Test
+        @DisplayName("NDJSON: una mascota por línea; la misma importación no acepta un segundo fichero")
+        void should_import_ndjson_once() throws Exception {
+                String bearer = bearers.bearerForNewOwner("importa.ndjson@example.com");
+                String birth = LocalDate.now().minusYears(1).toString();
+                String id = createImport(bearer);
+
+                String ndjson = """
+                                {"name": "Kira", "species": "Dog", "breed": "Mixed", "sex": "Female", "birthDate": "%1$s", "weightKg": 9.2}
+                                {"name": "Nube", "species": "Rabbit", "breed": "Mixed", "sex": "Male", "birthDate": "%1$s", "weightKg": 1.4}
+                                """.formatted(birth);
+
+                mockMvc.perform(put("/api/v1/pets/imports/{id}", id)
+                                .header("Authorization", bearer)
+                                .contentType("application/x-ndjson")
+                                .content(ndjson))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.status", is("COMPLETED")))
+                                .andExpect(jsonPath("$.imported", is(2)))
+                                .andExpect(jsonPath("$.failed", is(0)));
+
+                mockMvc.perform(put("/api/v1/pets/imports/{id}", id)
+                                .header("Authorization", bearer)
+                                .contentType("application/x-ndjson")
+                                .content(ndjson))
+                                .andExpect(status().isConflict());
+        }
+
+        @Test
+        @DisplayName("404 al consultar la importación de otro dueño")
+        void should_hide_imports_of_other_owners() throws Exception {
+                String id = createImport(bearers.bearerForNewOwner("importa.a@example.com"));
+
+                mockMvc.perform(get("/api/v1/pets/imports/{id}", id)
+                                .header("Authorization", bearers.bearerForNewOwner("importa.b@example.com")))
+                                .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("429 crear importación: el dueño ya tiene el máximo de importaciones sin terminar")
+        void should_return_429_when_owner_has_too_many_unfinished_imports() throws Exception {
+                String bearer = bearers.bearerForNewOwner("importa.muchas@example.com");
+                String first = createImport(bearer);
+                createImport(bearer);
+                createImport(bearer);
+
+                mockMvc.perform(post("/api/v1/pets/imports")
+                                .header("Authorization", bearer))
+                                .andExpect(status().isTooManyRequests())
+                                .andExpect(jsonPath("$.code", is("TOO_MANY_REQUESTS")));
+
+                // al terminar una, vuelve a haber hueco
+                mockMvc.perform(put("/api/v1/pets/imports/{id}", first)
+                                .header("Authorization", bearer)
+                                .contentType("application/x-ndjson")
+                                .content(""))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.status", is("COMPLETED")));
+                createImport(bearer);
+        }
+}
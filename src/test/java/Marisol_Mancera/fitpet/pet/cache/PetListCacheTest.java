@@ -0,0 +1,129 @@
+package Marisol_Mancera.fitpet.pet.cache;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Marisol_Mancera.fitpet.pet.PetReadRepository.VersionedPet;
+import Marisol_Mancera.fitpet.pet.dto.PetDTOResponse;
+import Marisol_Mancera.fitpet.pet.dto.PetPage;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class PetListCacheTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T10:00:00Z"));
+
+    private static PetDTOResponse pet(long id, long ownerId) {
+        return new PetDTOResponse(id, ownerId, "Luna", "Dog", "Mixed", "Female",
+                LocalDate.of(2020, 1, 1), new BigDecimal("7.50"));
+    }
+
+    @Test
+    @DisplayName("Versión, páginas y mascotas del dueño se sirven desde caché hasta invalidar")
+    void should_serve_owner_data_until_invalidated() {
+        var cache = new PetListCache(1_000_000, Duration.ofMinutes(5), clock);
+        long stamp = cache.stamp(7L);
+        cache.putVersion(7L, stamp, 3);
+        cache.putPage(7L, stamp, null, 0, 50, new PetPage(List.of(pet(1, 7)), null));
+        cache.putPet(7L, stamp, new VersionedPet(pet(1, 7), 0));
+
+        assertThat(cache.version(7L), is(3L));
+        assertThat(cache.page(7L, null, 0, 50).items(), hasSize(1));
+        assertThat(cache.pet(7L, 1L).version(), is(0L));
+        assertThat(cache.page(7L, "Dog", 0, 50), is(nullValue()));
+        assertThat(cache.version(8L), is(nullValue()));
+
+        cache.invalidate(7L);
+
+        assertThat(cache.version(7L), is(nullValue()));
+        assertThat(cache.pet(7L, 1L), is(nullValue()));
+        assertThat(cache.stats().hits(), is(3L));
+        assertThat(cache.stats().invalidations(), is(1L));
+        assertThat(cache.stats().weightBytes(), is(0L));
+    }
+
+    @Test
+    @DisplayName("Una carga que empezó antes de una invalidación no se guarda")
+    void should_drop_loads_that_raced_with_an_invalidation() {
+        var cache = new PetListCache(1_000_000, Duration.ofMinutes(5), clock);
+
+        long stamp = cache.stamp(7L);  // lectura de BD en curso...
+        cache.invalidate(7L);          // ...y una escritura confirmada entre medias
+        cache.putVersion(7L, stamp, 3);
+
+        assertThat(cache.version(7L), is(nullValue()));
+    }
+
+    @Test
+    @DisplayName("Las entradas caducan a los 'ttl' y se acota el peso total")
+    void should_expire_entries_and_bound_weight() {
+        var cache = new PetListCache(20_000, Duration.ofMinutes(5), clock);
+        cache.putVersion(7L, cache.stamp(7L), 3);
+        clock.advance(Duration.ofMinutes(5));
+
+        assertThat(cache.version(7L), is(nullValue()));
+        assertThat(cache.stats().evictions(), is(1L));
+
+        List<PetDTOResponse> items = LongStream.rangeClosed(1, 50).mapToObj(id -> pet(id, 1)).toList();
+        for (long owner = 1; owner <= 20; owner++) {
+            cache.putPage(owner, cache.stamp(owner), null, 0, 50, new PetPage(items, null));
+        }
+
+        assertThat(cache.stats().weightBytes(), lessThanOrEqualTo(20_000L));
+        assertThat(cache.stats().owners(), lessThan(20));
+        assertThat(cache.stats().evictions(), greaterThan(1L));
+    }
+
+    @Test
+    @DisplayName("El canal en proceso reparte la invalidación a las demás cachés")
+    void should_propagate_invalidations_through_in_process_channel() {
+        var channel = new InProcessInvalidationChannel();
+        var nodeA = new PetListCache(1_000_000, Duration.ofMinutes(5), clock);
+        var nodeB = new PetListCache(1_000_000, Duration.ofMinutes(5), clock);
+        channel.subscribe(nodeA::invalidate);
+        channel.subscribe(nodeB::invalidate);
+        nodeB.putVersion(7L, nodeB.stamp(7L), 3);
+
+        channel.publish(7L);
+
+        assertThat(nodeB.version(7L), is(nullValue()));
+    }
+
+    static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant start) {
+            this.now = start;
+        }
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
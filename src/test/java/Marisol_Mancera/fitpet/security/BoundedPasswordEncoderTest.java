@@ -0,0 +1,77 @@
+package Marisol_Mancera.fitpet.security;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import Marisol_Mancera.fitpet.common.error.ServiceUnavailableException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    @DisplayName("Hashea y valida en el pool dedicado registrando latencia")
+    void should_hash_and_match_on_dedicated_pool() {
+        var encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 8, 1);
+        try {
+            String hash = encoder.encode("Str0ng!Pass");
+
+            assertThat(encoder.matches("Str0ng!Pass", hash), is(true));
+            assertThat(encoder.matches("wrong", hash), is(false));
+            assertThat(encoder.stats().hashes(), is(3L));
+            assertThat(encoder.stats().maxHashNanos(), greaterThan(0L));
+        } finally {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Con el pool y la cola llenos rechaza al instante con 503 + Retry-After")
+    void should_reject_when_queue_is_full() throws Exception {
+        var release = new CountDownLatch(1);
+        PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        var encoder = new BoundedPasswordEncoder(blocking, 1, 1, 3);
+        try {
+            var running = CompletableFuture.runAsync(() -> encoder.encode("a"));
+            waitUntil(() -> encoder.stats().activeThreads() == 1);
+            var queued = CompletableFuture.runAsync(() -> encoder.encode("b"));
+            waitUntil(() -> encoder.stats().queueDepth() == 1);
+
+            var ex = assertThrows(ServiceUnavailableException.class, () -> encoder.encode("c"));
+            assertThat(ex.getRetryAfterSeconds(), is(3L));
+            assertThat(encoder.stats().rejected(), is(1L));
+
+            release.countDown();
+            running.get(5, TimeUnit.SECONDS);
+            queued.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            encoder.shutdown();
+        }
+    }
+
+    private static void waitUntil(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
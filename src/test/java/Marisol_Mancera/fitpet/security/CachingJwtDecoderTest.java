@@ -0,0 +1,111 @@
+package Marisol_Mancera.fitpet.security;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class CachingJwtDecoderTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T10:00:00Z"));
+    private final AtomicInteger delegateCalls = new AtomicInteger();
+
+    private final JwtDecoder countingDelegate = token -> {
+        delegateCalls.incrementAndGet();
+        return Jwt.withTokenValue(token)
+                .header("alg", "HS512")
+                .subject("owner@example.com")
+                .issuedAt(clock.instant())
+                .expiresAt(clock.instant().plus(Duration.ofHours(2)))
+                .build();
+    };
+
+    @Test
+    @DisplayName("Un token repetido se sirve desde caché sin volver a llamar al decoder")
+    void should_serve_repeated_token_from_cache() {
+        var decoder = new CachingJwtDecoder(countingDelegate, 100, clock);
+
+        Jwt first = decoder.decode("a.b.c");
+        Jwt second = decoder.decode("a.b.c");
+
+        assertThat(second, sameInstance(first));
+        assertThat(delegateCalls.get(), is(1));
+        assertThat(decoder.stats().hits(), is(1L));
+        assertThat(decoder.stats().misses(), is(1L));
+    }
+
+    @Test
+    @DisplayName("La entrada caduca en el 'exp' del token y se vuelve a verificar")
+    void should_expire_entry_at_token_expiry() {
+        var decoder = new CachingJwtDecoder(countingDelegate, 100, clock);
+
+        decoder.decode("a.b.c");
+        clock.advance(Duration.ofHours(2).plusSeconds(1));
+        decoder.decode("a.b.c");
+
+        assertThat(delegateCalls.get(), is(2));
+        assertThat(decoder.stats().evictions(), greaterThanOrEqualTo(1L));
+    }
+
+    @Test
+    @DisplayName("invalidate() obliga a verificar de nuevo el token")
+    void should_reverify_after_invalidate() {
+        var decoder = new CachingJwtDecoder(countingDelegate, 100, clock);
+
+        decoder.decode("a.b.c");
+        decoder.invalidate("a.b.c");
+        decoder.decode("a.b.c");
+
+        assertThat(delegateCalls.get(), is(2));
+    }
+
+    @Test
+    @DisplayName("La caché no supera el máximo de entradas configurado")
+    void should_stay_bounded() {
+        var decoder = new CachingJwtDecoder(countingDelegate, 10, clock);
+
+        for (int i = 0; i < 50; i++) {
+            decoder.decode("token-" + i);
+        }
+
+        assertThat(decoder.stats().size(), lessThanOrEqualTo(10));
+    }
+
+    /** Reloj controlable desde el test. */
+    static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant start) {
+            this.now = start;
+        }
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
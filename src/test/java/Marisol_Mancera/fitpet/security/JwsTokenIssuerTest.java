@@ -0,0 +1,80 @@
+package Marisol_Mancera.fitpet.security;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import Marisol_Mancera.fitpet.role.RoleEntity;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class JwsTokenIssuerTest {
+
+    private final byte[] key = randomKey();
+    private final JwsTokenIssuer issuer = new JwsTokenIssuer(key);
+    private final NimbusJwtDecoder decoder = NimbusJwtDecoder
+            .withSecretKey(new SecretKeySpec(key, "HmacSHA512"))
+            .macAlgorithm(MacAlgorithm.HS512)
+            .build();
+
+    @Test
+    @DisplayName("El token emitido es un JWS HS512 válido para NimbusJwtDecoder")
+    void should_issue_token_accepted_by_nimbus_decoder() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        String token = issuer.issue("pájaro\"pio@example.com", "USER", now, now.plus(2, ChronoUnit.HOURS));
+        Jwt decoded = decoder.decode(token);
+
+        assertThat(decoded.getHeaders().get("alg").toString(), is("HS512"));
+        assertThat(decoded.getSubject(), is("pájaro\"pio@example.com"));
+        assertThat(decoded.getClaimAsString("scope"), is("USER"));
+        assertThat(decoded.getIssuedAt(), is(now));
+        assertThat(decoded.getExpiresAt(), is(now.plus(2, ChronoUnit.HOURS)));
+        assertThat(decoded.getId(), matchesPattern("[A-Za-z0-9_-]{22}"));
+    }
+
+    @Test
+    @DisplayName("Incluye el claim uid con el id numérico del usuario cuando se indica")
+    void should_include_uid_claim() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        Jwt withUid = decoder.decode(issuer.issue("pio@example.com", 42L, "USER", now, now.plusSeconds(60)));
+        Jwt withoutUid = decoder.decode(issuer.issue("pio@example.com", "USER", now, now.plusSeconds(60)));
+
+        assertThat(((Number) withUid.getClaim("uid")).longValue(), is(42L));
+        assertThat(withoutUid.hasClaim("uid"), is(false));
+    }
+
+    @Test
+    @DisplayName("El scope mapea ROLE_X -> X, ordenado y separado por espacios")
+    void should_build_scope_from_roles() {
+        var roles = Set.of(
+                RoleEntity.builder().name("ROLE_USER").build(),
+                RoleEntity.builder().name("ROLE_ADMIN").build());
+
+        String scope = issuer.scopeFor(roles);
+
+        assertThat(scope, is("ADMIN USER"));
+        assertThat(issuer.scopeFor(roles), sameInstance(scope));
+        assertThat(issuer.scopeFor(Set.of(RoleEntity.builder().name("ROLE_USER").build())), is("USER"));
+        assertThat(issuer.scopeFor(Set.of(RoleEntity.builder().name("ROLE_ADMIN").build(),
+                RoleEntity.builder().name("ROLE_USER").build())), sameInstance(scope));
+        assertThat(issuer.scopeFor(Set.of()), is(""));
+    }
+
+    private static byte[] randomKey() {
+        byte[] bytes = new byte[64];
+        new SecureRandom().nextBytes(bytes);
+        return bytes;
+    }
+}
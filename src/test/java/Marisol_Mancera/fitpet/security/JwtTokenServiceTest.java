@@ -65,4 +65,14 @@ class JwtTokenServiceTest {
         // expiración presente
         assertThat(decoded.getExpiresAt(), notNullValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("El JWT lleva el id del usuario en el claim uid")
+    void should_include_user_id_claim() {
+        Long userId = userRepository.findIdByUsername(email).orElseThrow();
+
+        Jwt decoded = jwtDecoder.decode(tokenService.loginAndGenerateToken(email, rawPassword));
+
+        assertThat(((Number) decoded.getClaim("uid")).longValue(), is(userId));
+    }
+}
@@ -0,0 +1,37 @@
+package Marisol_Mancera.fitpet.security;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PasswordHashCalibratorTest {
+
+    @Test
+    @DisplayName("Cada duplicación de la latencia objetivo suma 1 al coste")
+    void should_add_one_strength_per_doubling() {
+        long base = Duration.ofMillis(10).toNanos();
+
+        assertThat(PasswordHashCalibrator.strengthFor(base, base, 10, 16), is(10));
+        assertThat(PasswordHashCalibrator.strengthFor(base * 4, base, 10, 16), is(12));
+        assertThat(PasswordHashCalibrator.strengthFor(base * 16, base, 10, 16), is(14));
+    }
+
+    @Test
+    @DisplayName("El coste calibrado nunca sale de [min, max]")
+    void should_clamp_strength_to_bounds() {
+        assertThat(PasswordHashCalibrator.calibrateStrength(Duration.ofNanos(1), 4, 6), is(4));
+        assertThat(PasswordHashCalibrator.calibrateStrength(Duration.ofHours(1), 4, 6), is(6));
+    }
+
+    @Test
+    @DisplayName("Rechaza límites de coste inválidos")
+    void should_reject_invalid_bounds() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PasswordHashCalibrator.calibrateStrength(Duration.ofMillis(100), 12, 10));
+    }
+}
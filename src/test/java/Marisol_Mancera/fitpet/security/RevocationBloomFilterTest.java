@@ -0,0 +1,50 @@
+package Marisol_Mancera.fitpet.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class RevocationBloomFilterTest {
+
+    @Test
+    @DisplayName("Nunca da falsos negativos para claves insertadas")
+    void should_contain_every_inserted_key() {
+        var filter = RevocationBloomFilter.create(10_000, 0.001);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("jti:" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("jti:" + i), is(true));
+        }
+        assertThat(filter.insertions(), is(10_000L));
+    }
+
+    @Test
+    @DisplayName("La tasa de falsos positivos se mantiene cerca de la configurada")
+    void should_keep_false_positive_rate_near_target() {
+        var filter = RevocationBloomFilter.create(10_000, 0.001);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("jti:" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("sub:other" + i)) {
+                falsePositives++;
+            }
+        }
+        // objetivo 0,1% -> ~100 sobre 100.000; margen amplio para no ser frágil
+        assertThat(falsePositives, lessThan(300));
+    }
+
+    @Test
+    @DisplayName("Un filtro vacío no contiene nada")
+    void should_be_empty_when_created() {
+        var filter = RevocationBloomFilter.create(100, 0.01);
+
+        assertThat(filter.mightContain("jti:any"), is(false));
+    }
+}
@@ -0,0 +1,135 @@
+package Marisol_Mancera.fitpet.security;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import com.nimbusds.jose.JWSAlgorithm;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SigningKeyRingTest {
+
+    private final byte[] oldSecret = randomKey();
+    private final byte[] newSecret = randomKey();
+    private final Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    private final Instant retireAt = now.plus(1, ChronoUnit.DAYS);
+
+    private SigningKeyRing ringAt(Instant instant) {
+        return new SigningKeyRing(Map.of(
+                SigningKeyRing.DEFAULT_KID, SigningKeyRing.SigningKey.hmac(SigningKeyRing.DEFAULT_KID, oldSecret, retireAt),
+                "2026-10", SigningKeyRing.SigningKey.hmac("2026-10", newSecret, null)),
+                "2026-10", Clock.fixed(instant, ZoneOffset.UTC));
+    }
+
+    private String issue(byte[] secret, String kid) {
+        return new JwsTokenIssuer(secret, kid).issue("pio@example.com", "USER", now, now.plus(2, ChronoUnit.HOURS));
+    }
+
+    @Test
+    @DisplayName("Durante la rotación validan los tokens de la clave nueva, de la anterior y los que no traen kid")
+    void should_verify_tokens_of_every_active_key() {
+        JwtDecoder decoder = ringAt(now).jwtDecoder();
+
+        assertThat(decoder.decode(issue(newSecret, "2026-10")).getHeaders().get("kid"), is("2026-10"));
+        assertThat(decoder.decode(issue(oldSecret, SigningKeyRing.DEFAULT_KID)).getSubject(), is("pio@example.com"));
+        assertThat(decoder.decode(issue(oldSecret, null)).getSubject(), is("pio@example.com"));
+    }
+
+    @Test
+    @DisplayName("Una clave retirada, un kid desconocido o una firma con otra clave dan token inválido")
+    void should_reject_retired_unknown_or_mismatched_keys() {
+        JwtDecoder decoder = ringAt(retireAt).jwtDecoder();
+
+        assertThrows(BadJwtException.class, () -> decoder.decode(issue(oldSecret, SigningKeyRing.DEFAULT_KID)));
+        assertThrows(BadJwtException.class, () -> decoder.decode(issue(newSecret, "otra")));
+        assertThrows(BadJwtException.class, () -> decoder.decode(issue(oldSecret, "2026-10")));
+    }
+
+    @Test
+    @DisplayName("Con la caché del decoder delante, un token ya cacheado deja de validar al retirarse su clave")
+    void should_reject_cached_token_once_its_key_retires() {
+        var clock = new CachingJwtDecoderTest.MutableClock(now);
+        var ring = new SigningKeyRing(Map.of(
+                SigningKeyRing.DEFAULT_KID, SigningKeyRing.SigningKey.hmac(SigningKeyRing.DEFAULT_KID, oldSecret,
+                        now.plus(1, ChronoUnit.HOURS)),
+                "2026-10", SigningKeyRing.SigningKey.hmac("2026-10", newSecret, null)),
+                "2026-10", clock);
+        var decoder = new CachingJwtDecoder(ring.jwtDecoder(), 100, ring::retireAtOf, clock);
+        String retiring = issue(oldSecret, SigningKeyRing.DEFAULT_KID);
+        String current = issue(newSecret, "2026-10");
+        decoder.decode(retiring);
+        decoder.decode(current);
+
+        clock.advance(Duration.ofHours(1));
+
+        assertThrows(BadJwtException.class, () -> decoder.decode(retiring));
+        assertThat(decoder.decode(current).getSubject(), is("pio@example.com"));
+        assertThat(decoder.stats().hits(), is(1L));
+    }
+
+    @Test
+    @DisplayName("La clave activa debe existir y no estar retirada")
+    void should_fail_fast_on_invalid_active_key() {
+        assertThrows(IllegalStateException.class, () -> new SigningKeyRing(
+                Map.of("a", SigningKeyRing.SigningKey.hmac("a", oldSecret, null)), "b"));
+        assertThrows(IllegalStateException.class, () -> new SigningKeyRing(
+                Map.of("a", SigningKeyRing.SigningKey.hmac("a", oldSecret, now)), "a",
+                Clock.fixed(now, ZoneOffset.UTC)));
+    }
+
+    @Test
+    @DisplayName("ES256 y EdDSA: el token firmado con la clave privada valida con la pública del anillo")
+    void should_sign_and_verify_asymmetric_tokens() {
+        var es = SigningKeyRing.SigningKey.asymmetric("es", JWSAlgorithm.ES256,
+                SigningKeyRing.generateKeyPair(JWSAlgorithm.ES256), null);
+        var ed = SigningKeyRing.SigningKey.asymmetric("ed", JWSAlgorithm.EdDSA,
+                SigningKeyRing.generateKeyPair(JWSAlgorithm.EdDSA), null);
+        JwtDecoder decoder = new SigningKeyRing(Map.of("es", es, "ed", ed), "es").jwtDecoder();
+
+        String esToken = new JwsTokenIssuer(es.signer()).issue("pio@example.com", "USER", now, now.plusSeconds(600));
+        String edToken = new JwsTokenIssuer(ed.signer()).issue("pio@example.com", "USER", now, now.plusSeconds(600));
+
+        assertThat(decoder.decode(esToken).getHeaders().get("alg").toString(), is("ES256"));
+        assertThat(decoder.decode(edToken).getHeaders().get("alg").toString(), is("EdDSA"));
+        // firma ES256 presentada con el kid de la clave EdDSA
+        String forged = esToken.replaceFirst("^[^.]+", new JwsTokenIssuer(ed.signer())
+                .issue("x", "USER", now, now.plusSeconds(600)).split("\\.")[0]);
+        assertThrows(BadJwtException.class, () -> decoder.decode(forged));
+    }
+
+    @Test
+    @DisplayName("El JWKS publica solo claves públicas asimétricas vigentes, nunca secretos HS512")
+    @SuppressWarnings("unchecked")
+    void should_publish_only_public_asymmetric_keys() {
+        var es = SigningKeyRing.SigningKey.asymmetric("es", JWSAlgorithm.ES256,
+                SigningKeyRing.generateKeyPair(JWSAlgorithm.ES256), null);
+        var ring = new SigningKeyRing(Map.of(
+                SigningKeyRing.DEFAULT_KID, SigningKeyRing.SigningKey.hmac(SigningKeyRing.DEFAULT_KID, oldSecret, null),
+                "es", es), SigningKeyRing.DEFAULT_KID);
+
+        var keys = (List<Map<String, Object>>) ring.jwks().get("keys");
+
+        assertThat(keys, hasSize(1));
+        assertThat(keys.get(0), allOf(hasEntry("kid", (Object) "es"), hasEntry("kty", (Object) "EC"),
+                not(hasKey("d")), not(hasKey("k"))));
+    }
+
+    private static byte[] randomKey() {
+        byte[] bytes = new byte[64];
+        new SecureRandom().nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,94 @@
+package Marisol_Mancera.fitpet.security.ratelimit;
+
+import java.net.URI;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * AuthRateLimitFilter en la cadena de seguridad real: cuerpo re-expuesto al controlador
+ * y 429 + Retry-After al agotar la cubeta por email o por IP, también con la ruta codificada.
+ */
+@SpringBootTest(properties = {
+        "auth.rate-limit.endpoints.login.per-email.capacity=2",
+        "auth.rate-limit.endpoints.token.per-ip.capacity=2"})
+@AutoConfigureMockMvc
+class AuthRateLimitFilterTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    @DisplayName("429 + Retry-After en /login al agotar la cubeta del email (normalizado)")
+    void should_return_429_with_retry_after_when_email_bucket_is_exhausted() throws Exception {
+        // el cuerpo llega al controlador: credenciales inválidas -> 401 mientras quede cubeta
+        mockMvc.perform(login("limitado@example.com")).andExpect(status().isUnauthorized());
+        mockMvc.perform(login("Limitado@Example.COM")).andExpect(status().isUnauthorized());
+
+        mockMvc.perform(login("limitado@example.com"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, matchesPattern("[1-9][0-9]*")))
+                .andExpect(jsonPath("$.code").value("TOO_MANY_REQUESTS"));
+
+        // otro email no comparte cubeta
+        mockMvc.perform(login("otro-limitado@example.com")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("429 en /token al agotar la cubeta de la IP aunque cambie el email")
+    void should_return_429_when_ip_bucket_is_exhausted() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(token("rotado" + i + "@example.com", "10.1.2.3")).andExpect(status().isUnauthorized());
+        }
+
+        mockMvc.perform(token("rotado2@example.com", "10.1.2.3"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        mockMvc.perform(token("rotado3@example.com", "10.1.2.4")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("429 en /login aunque la ruta llegue codificada (%6Cogin): comparte cubeta con /login")
+    void should_return_429_when_login_path_is_percent_encoded() throws Exception {
+        mockMvc.perform(login("codificado@example.com")).andExpect(status().isUnauthorized());
+        mockMvc.perform(post(URI.create("/api/v1/auth/%6Cogin"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"codificado@example.com\",\"password\":\"Wr0ng!Pass\"}"))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(post(URI.create("/api/v1/auth/%6Cogin"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"codificado@example.com\",\"password\":\"Wr0ng!Pass\"}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    private static MockHttpServletRequestBuilder login(String email) {
+        return post("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"%s\",\"password\":\"Wr0ng!Pass\"}".formatted(email));
+    }
+
+    private static MockHttpServletRequestBuilder token(String email, String remoteAddr) {
+        return post("/api/v1/auth/token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"%s\",\"password\":\"Wr0ng!Pass\"}".formatted(email))
+                .with(request -> {
+                    request.setRemoteAddr(remoteAddr);
+                    return request;
+                });
+    }
+}
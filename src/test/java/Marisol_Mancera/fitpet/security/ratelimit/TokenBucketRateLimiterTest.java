@@ -0,0 +1,87 @@
+package Marisol_Mancera.fitpet.security.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong(1_000_000_000L);
+    private final RateLimitProperties.Bucket fivePerMinute = new RateLimitProperties.Bucket(5, Duration.ofMinutes(1));
+
+    @Test
+    @DisplayName("Admite la ráfaga configurada y rechaza la siguiente con tiempo de espera")
+    void should_allow_burst_then_reject() {
+        var limiter = new TokenBucketRateLimiter(1000, nanos::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("login|email|a@b.com", fivePerMinute), is(0L));
+        }
+        long wait = limiter.tryAcquire("login|email|a@b.com", fivePerMinute);
+
+        assertThat(wait, greaterThan(0L));
+        assertThat(wait, lessThanOrEqualTo(Duration.ofSeconds(12).toNanos()));
+        assertThat(limiter.stats().rejected(), is(1L));
+    }
+
+    @Test
+    @DisplayName("La cubeta se rellena con el paso del tiempo")
+    void should_refill_over_time() {
+        var limiter = new TokenBucketRateLimiter(1000, nanos::get);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("k", fivePerMinute);
+        }
+
+        nanos.addAndGet(Duration.ofSeconds(12).toNanos());
+
+        assertThat(limiter.tryAcquire("k", fivePerMinute), is(0L));
+        assertThat(limiter.tryAcquire("k", fivePerMinute), greaterThan(0L));
+    }
+
+    @Test
+    @DisplayName("Las claves son independientes entre sí")
+    void should_isolate_keys() {
+        var limiter = new TokenBucketRateLimiter(1000, nanos::get);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("login|ip|10.0.0.1", fivePerMinute);
+        }
+
+        assertThat(limiter.tryAcquire("login|ip|10.0.0.2", fivePerMinute), is(0L));
+    }
+
+    @Test
+    @DisplayName("Las cubetas inactivas (llenas) se expulsan al superar el máximo de claves")
+    void should_evict_idle_buckets() {
+        var limiter = new TokenBucketRateLimiter(10, nanos::get);
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("ip|" + i, fivePerMinute);
+        }
+
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        limiter.tryAcquire("ip|new", fivePerMinute);
+
+        assertThat(limiter.stats().trackedKeys(), is(1));
+    }
+
+    @Test
+    @DisplayName("Con la tabla llena de cubetas activas rechaza las claves nuevas (falla cerrado)")
+    void should_reject_new_keys_when_table_is_full_of_active_buckets() {
+        var limiter = new TokenBucketRateLimiter(10, nanos::get);
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("ip|" + i, fivePerMinute);
+        }
+
+        assertThat(limiter.tryAcquire("ip|rotated", fivePerMinute), greaterThan(0L));
+        assertThat(limiter.tryAcquire("ip|0", fivePerMinute), is(0L));
+        assertThat(limiter.stats().trackedKeys(), is(10));
+
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+
+        assertThat(limiter.tryAcquire("ip|rotated", fivePerMinute), is(0L));
+    }
+}
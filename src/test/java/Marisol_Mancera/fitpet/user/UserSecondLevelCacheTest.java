@@ -0,0 +1,69 @@
+package Marisol_Mancera.fitpet.user;
+
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import Marisol_Mancera.fitpet.role.RoleEntity;
+import Marisol_Mancera.fitpet.role.RoleRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@DataJpaTest
+// sin transacción envolvente: cada llamada al repositorio abre su propia sesión,
+// como en una petición real, y solo la caché de segundo nivel puede evitar el SQL
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserSecondLevelCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach // sin rollback: deja vacía la BD que comparten los @DataJpaTest del mismo contexto
+    void cleanUp() {
+        userRepository.deleteAllInBatch();
+        roleRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("findByUsername y findByName se sirven de la caché de segundo nivel sin SQL en caliente")
+    void should_serve_user_and_roles_from_second_level_cache() {
+        RoleEntity roleUser = roleRepository.findByName("ROLE_USER")
+                .orElseGet(() -> roleRepository.save(RoleEntity.builder().name("ROLE_USER").build()));
+        userRepository.save(UserEntity.builder()
+                .username("cacheada@example.com")
+                .password("bcrypt-hash")
+                .roles(Set.of(roleUser))
+                .build());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        userRepository.findByUsername("cacheada@example.com"); // calienta la caché si el alta no lo hizo
+        roleRepository.findByName("ROLE_USER");
+        long statements = statistics.getPrepareStatementCount();
+        long naturalIdHits = statistics.getNaturalIdCacheHitCount();
+
+        var user = userRepository.findByUsername("cacheada@example.com").orElseThrow();
+        var role = roleRepository.findByName("ROLE_USER").orElseThrow();
+
+        assertThat(statistics.getPrepareStatementCount(), is(statements));
+        assertThat(statistics.getNaturalIdCacheHitCount(), is(naturalIdHits + 2));
+        assertThat(user.getRoles().stream().map(RoleEntity::getName).toList(), contains("ROLE_USER"));
+        assertThat(role.getId(), is(roleUser.getId()));
+        assertThat(userRepository.findByUsername("nadie@example.com").isPresent(), is(false));
+    }
+}